@@ -1,15 +1,38 @@
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.function.BiFunction;
 
 import com.altran.gdc.robotframework.testfxlibrary.keywords.Timeout;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFXLibraryCache;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryBatch;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryBinaryServer;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryConstants;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryDocumentationIndex;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryFlightRecorder;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryIdle;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryKeywordClasses;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryKeywordDispatcher;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryKeywordStatistics;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryKeywordRegistry;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryPollStatistics;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryRegistryBeanLoader;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryRobot;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibrarySession;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryTracer;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TimeoutConstants;
+import org.robotframework.javalib.beans.annotation.IBeanLoader;
 import org.robotframework.javalib.library.AnnotationLibrary;
 
 import com.altran.gdc.robotframework.testfxlibrary.utils.Javadoc2Libdoc;
 import org.robotframework.javalib.library.RobotJavaLibrary;
 import org.robotframework.remoteserver.RemoteServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * TestFXLibrary is a Robot Framework test library for JavaFx.<br>
@@ -38,6 +61,9 @@ import org.robotframework.remoteserver.RemoteServer;
  * <pre>java -cp "testFXLibrary.jar;testFxLibraryDemoApp.jar" TestFXLibrary</pre>
  * * Example with library and application to test in different folders:
  * <pre>java -cp "testFXLibrary.jar;C:\TestFxLibrary\testFxLibraryDemoApp.jar" TestFXLibrary</pre>
+ * To run tests in parallel, e.g. with pabot, start a session-aware server. Each Robot process imports its own session
+ * path, from /session/0 to /session/count-1, and gets its own library and application windows:
+ * <pre>java -cp "testFXLibrary.jar;testFxLibraryDemoApp.jar" TestFXLibrary --sessions 4</pre>
  * <h3>Importing</h3>
  * Import TestFxLibrary in Robot Framework:<br>
  * <br>
@@ -101,11 +127,6 @@ public class TestFXLibrary extends AnnotationLibrary implements RobotJavaLibrary
      */
     public static final String KEYWORD_PATTERN = "com/altran/gdc/robotframework/testfxlibrary/keywords/**/*.class";
 
-    /**
-     * The javadoc to libdoc converter
-     */
-    public static final Javadoc2Libdoc JAVADOC_2_LIBDOC = new Javadoc2Libdoc(TestFXLibrary.class);
-
     /**
      * The library documentation is written in HTML
      */
@@ -121,18 +142,84 @@ public class TestFXLibrary extends AnnotationLibrary implements RobotJavaLibrary
      */
     public static final String ROBOT_LIBRARY_VERSION = loadRobotLibraryVersion();
 
+    /**
+     * Listener writing the trace of the keywords when Robot closes the library
+     */
+    public static final TestFxLibraryTracer.Listener ROBOT_LIBRARY_LISTENER = new TestFxLibraryTracer.Listener();
+
+    private static final Logger LOG = LoggerFactory.getLogger(TestFXLibrary.class);
+
+    /**
+     * The option of the remote server giving the number of sessions
+     */
+    private static final String SESSIONS_OPTION = "--sessions";
+
+    /**
+     * The path of the sessions on the remote server, followed by the session number
+     */
+    private static final String SESSION_PATH = "/session/";
+
+    /**
+     * The option of the remote server giving the port of the binary protocol listener
+     */
+    private static final String BINARY_PORT_OPTION = "--binary-port";
+
+    /**
+     * The fast path of the keyword calls, the AnnotationLibrary runs the keywords it does not handle
+     */
+    private final TestFxLibraryKeywordDispatcher dispatcher;
+
+    /**
+     * The keyword registry written at build time, null when the keyword classes are scanned
+     */
+    private final TestFxLibraryKeywordRegistry keywordRegistry;
+
+    /**
+     * The keyword classes created on first use, null when the keyword classes are scanned and created up front
+     */
+    private final TestFxLibraryKeywordClasses keywordClasses;
+
+    /**
+     * The session of the library on the session-aware remote server, null otherwise
+     */
+    private final TestFxLibrarySession session;
+
     /**
      * testfxlibrary can be imported with optional arguments.<br>
      * <br>
      * <b>Insert importing documentation here.</b>
      */
     public TestFXLibrary() {
+        this(null);
+    }
+
+    private TestFXLibrary(TestFxLibrarySession session) {
         super();
-        addKeywordPattern(KEYWORD_PATTERN);
-        // init annotations
-        createKeywordFactory();
+        long importStart = System.nanoTime();
+        this.session = session;
+        // the keyword registry written at build time replaces the classpath scan
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        keywordRegistry = TestFxLibraryKeywordRegistry.load(loader);
+        if (keywordRegistry == null) {
+            addKeywordPattern(KEYWORD_PATTERN);
+            List<Object> keywordBeans = captureKeywordBeans();
+            // init annotations
+            createKeywordFactory();
+            dispatcher = new TestFxLibraryKeywordDispatcher(keywordBeans);
+            keywordClasses = null;
+        } else {
+            // the keyword classes are created by their first keyword, the annotations are read only if needed
+            dispatcher = new TestFxLibraryKeywordDispatcher(Collections.emptyList());
+            keywordClasses = new TestFxLibraryKeywordClasses(keywordRegistry, loader, dispatcher::add);
+            beanLoaders.add(new TestFxLibraryRegistryBeanLoader(keywordRegistry, keywordClasses));
+        }
+        if (session != null) {
+            session.setKeywordClasses(keywordClasses);
+        }
         setDefaultTimeouts();
         TestFXLibraryCache.getIstance();
+        TestFxLibraryKeywordStatistics.registerMBean();
+        logImport(System.nanoTime() - importStart);
     }
 
     private static String loadRobotLibraryVersion() {
@@ -150,12 +237,84 @@ public class TestFXLibrary extends AnnotationLibrary implements RobotJavaLibrary
 
     @Override
     public Object runKeyword(String keywordName, Object[] args) {
-        return super.runKeyword(keywordName, toStrings(args));
+        if (session != null) {
+            return session.run(() -> runSessionKeyword(keywordName, args));
+        }
+        return runSessionKeyword(keywordName, args);
+    }
+
+    private Object runSessionKeyword(String keywordName, Object[] args) {
+        // the keywords run in a batch are nested in the batch keyword
+        String outerKeyword = TestFxLibraryPollStatistics.getCurrentKeyword();
+        BiFunction<String, Object[], Object> outerRunner = TestFxLibraryBatch.bind(this::runKeyword);
+        TestFxLibraryPollStatistics.setCurrentKeyword(keywordName);
+        TestFxLibraryFlightRecorder.KeywordExecution event = TestFxLibraryFlightRecorder.keywordExecution();
+        long started = TestFxLibraryKeywordStatistics.start();
+        long traced = TestFxLibraryTracer.start();
+        boolean passed = false;
+        try {
+            Object result = dispatcher.run(keywordName, args);
+            if (result == TestFxLibraryKeywordDispatcher.NOT_DISPATCHED && keywordClasses != null
+                    && keywordClasses.initialize(keywordName)) {
+                result = dispatcher.run(keywordName, args);
+            }
+            if (result == TestFxLibraryKeywordDispatcher.NOT_DISPATCHED) {
+                if (keywordRegistry != null) {
+                    // reported from the registry: the AnnotationLibrary would create every keyword class
+                    keywordRegistry.checkArgumentCount(keywordName, args.length);
+                    throw new IllegalStateException(String.format("The keyword '%s' can't be run.", keywordName));
+                }
+                result = super.runKeyword(keywordName, toStrings(args));
+            }
+            TestFxLibraryIdle.settleAfterAction(keywordName);
+            passed = true;
+            return result;
+        } finally {
+            if (!passed) {
+                // a keyword failing between a press and its release must not leave the input pressed
+                TestFxLibraryRobot.releaseInput();
+            }
+            TestFxLibraryKeywordStatistics.stop(TestFxLibraryKeywordStatistics.KEYWORD, started);
+            TestFxLibraryTracer.stop(TestFxLibraryTracer.KEYWORD, keywordName, keywordName, traced);
+            if (event != null) {
+                event.finish(keywordName, session == null ? null : session.getName(), passed);
+            }
+            TestFxLibraryPollStatistics.setCurrentKeyword(outerKeyword);
+            TestFxLibraryBatch.bind(outerRunner);
+        }
+    }
+
+    @Override
+    public String[] getKeywordNames() {
+        if (keywordRegistry != null) {
+            return keywordRegistry.getKeywordNames();
+        }
+        return super.getKeywordNames();
+    }
+
+    @Override
+    public String[] getKeywordArguments(String keywordName) {
+        if (keywordRegistry == null) {
+            return super.getKeywordArguments(keywordName);
+        }
+        String[] argumentNames = keywordRegistry.getArgumentNames(keywordName);
+        if (argumentNames == null) {
+            throw new IllegalArgumentException(String.format("No keyword '%s' in the library.", keywordName));
+        }
+        return argumentNames;
     }
 
     @Override
     public String getKeywordDocumentation(String keywordName) {
-        String keywordDocumentation = JAVADOC_2_LIBDOC.getKeywordDocumentation(keywordName);
+        String keywordDocumentation = DocumentationIndexHolder.INDEX == null ? null
+                : DocumentationIndexHolder.INDEX.getKeywordDocumentation(keywordName);
+        if (keywordDocumentation == null) {
+            keywordDocumentation = Javadoc2LibdocHolder.JAVADOC_2_LIBDOC.getKeywordDocumentation(keywordName);
+        }
+        if (keywordDocumentation == null && keywordClasses != null) {
+            // without creating the keyword classes, as the AnnotationLibrary would
+            return keywordClasses.getAnnotatedDocumentation(keywordName);
+        }
         if (keywordDocumentation == null) {
             try {
                 return super.getKeywordDocumentation(keywordName);
@@ -188,6 +347,46 @@ public class TestFXLibrary extends AnnotationLibrary implements RobotJavaLibrary
         return newArgs;
     }
 
+    /**
+     * Wrap the bean loaders so that the keyword beans they create, and the AnnotationLibrary autowires, are kept for
+     * the dispatcher.
+     *
+     * @return The list filled with the keyword beans by createKeywordFactory
+     */
+    @SuppressWarnings("unchecked")
+    private List<Object> captureKeywordBeans() {
+        List<Object> beans = new ArrayList<>();
+        for (ListIterator<IBeanLoader> loaders = beanLoaders.listIterator(); loaders.hasNext(); ) {
+            IBeanLoader loader = loaders.next();
+            loaders.set(filter -> {
+                Map definitions = loader.loadBeanDefinitions(filter);
+                beans.addAll(definitions.values());
+                return definitions;
+            });
+        }
+        return beans;
+    }
+
+    /**
+     * Log the import time and the keyword classes created by the import
+     *
+     * @param importNanos The import time
+     */
+    private void logImport(long importNanos) {
+        double millis = importNanos / 1_000_000d;
+        if (keywordClasses == null) {
+            LOG.info("TestFXLibrary imported in {} ms, all the keyword classes created by the classpath scan",
+                    String.format("%.1f", millis));
+            return;
+        }
+        List<String> created = new ArrayList<>();
+        for (Map<String, Object> record : TestFxLibraryKeywordClasses.getReport()) {
+            created.add(record.get("class") + " (" + record.get("millis") + " ms)");
+        }
+        LOG.info("TestFXLibrary imported in {} ms, keyword classes created: {}, the others on first use",
+                String.format("%.1f", millis), created.isEmpty() ? "none" : created);
+    }
+
     /**
      * Set default timeouts
      */
@@ -195,19 +394,66 @@ public class TestFXLibrary extends AnnotationLibrary implements RobotJavaLibrary
         new Timeout().setTimeout(TimeoutConstants.GENERIC_TIMEOUT, TestFxLibraryConstants.DEFAULT_TIMEOUT);
     }
 
+    /**
+     * The documentation index written at build time, loaded on the first documentation request
+     */
+    private static final class DocumentationIndexHolder {
+        static final TestFxLibraryDocumentationIndex INDEX = TestFxLibraryDocumentationIndex.load(
+                Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * The javadoc to libdoc converter, loaded only for the keywords missing in the documentation index
+     */
+    private static final class Javadoc2LibdocHolder {
+        static final Javadoc2Libdoc JAVADOC_2_LIBDOC = new Javadoc2Libdoc(TestFXLibrary.class);
+    }
+
     /**
      * Starts a server in port 8270 with the library to allow remote library in Robot Framework using jrobotremoteserver
      * this repository can be found at https://github.com/ombre42/jrobotremoteserver
      *
+     * With <i>--sessions count</i> the server is session-aware: each of the paths /session/0 to /session/count-1 has
+     * its own library, with its own cache, robot and windows, e.g. one path per pabot process. The requests are
+     * handled concurrently and only the lookups, robot input and reads of the sessions take turns on the shared
+     * JavaFX toolkit.
+     *
+     * With <i>--binary-port port</i> the same libraries are also served with the compact binary protocol of
+     * {@link TestFxLibraryBinaryServer} on that port, for the TestFXLibraryBinaryRemote client library.
+     *
      * @param args
+     *      Optionally <i>--sessions count</i> and <i>--binary-port port</i>
      * @throws Exception
      */
     public static void main(String[] args) throws Exception {
+        int sessions = 0;
+        int binaryPort = -1;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 < args.length && SESSIONS_OPTION.equals(args[i])) {
+                sessions = Integer.parseInt(args[i + 1]);
+            } else if (i + 1 < args.length && BINARY_PORT_OPTION.equals(args[i])) {
+                binaryPort = Integer.parseInt(args[i + 1]);
+            } else {
+                System.err.println("Usage: TestFXLibrary [" + SESSIONS_OPTION + " count] [" + BINARY_PORT_OPTION
+                        + " port]");
+                System.exit(1);
+            }
+        }
         // use jrobotremoteserver to start library as a server in port 8270
         RemoteServer.configureLogging();
         RemoteServer server = new RemoteServer();
-        server.putLibrary("/", new TestFXLibrary());
+        if (sessions == 0) {
+            server.putLibrary("/", new TestFXLibrary());
+        } else {
+            for (int i = 0; i < sessions; i++) {
+                String path = SESSION_PATH + i;
+                server.putLibrary(path, new TestFXLibrary(new TestFxLibrarySession(path)));
+            }
+        }
         server.setPort(8270);
         server.start();
+        if (binaryPort >= 0) {
+            new TestFxLibraryBinaryServer(server.getLibraryMap(), binaryPort).start();
+        }
     }
-}
\ No newline at end of file
+}
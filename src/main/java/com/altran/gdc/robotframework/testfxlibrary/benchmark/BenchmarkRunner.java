@@ -0,0 +1,98 @@
+package com.altran.gdc.robotframework.testfxlibrary.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Measures the bodies of the benchmarks. A body first runs for a warm-up time, long enough for the JIT to compile it
+ * with its profile, then for a number of timed rounds, and the median round is reported. Every result is written to
+ * a volatile sink, so the JIT can't remove the body as dead code; the store costs a few nanoseconds, the same for all
+ * the bodies compared.
+ */
+final class BenchmarkRunner {
+
+    static final long DEFAULT_WARMUP_MILLIS = 1000;
+    static final long DEFAULT_ROUND_MILLIS = 200;
+
+    private static final int ROUNDS = 5;
+    private static final int BATCH = 16;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private static volatile Object sink;
+
+    private final long warmupNanos;
+    private final long roundNanos;
+
+    BenchmarkRunner(long warmupMillis, long roundMillis) {
+        this.warmupNanos = warmupMillis * NANOS_PER_MILLI;
+        this.roundNanos = roundMillis * NANOS_PER_MILLI;
+    }
+
+    /**
+     * Create the runner from the optional <i>[warmupMillis] [roundMillis]</i> arguments of a benchmark.
+     *
+     * @param args
+     *      The arguments of the benchmark
+     * @param offset
+     *      The index of the warm-up argument
+     * @return
+     *      The runner
+     */
+    static BenchmarkRunner fromArguments(String[] args, int offset) {
+        long warmup = args.length > offset ? Long.parseLong(args[offset]) : DEFAULT_WARMUP_MILLIS;
+        long round = args.length > offset + 1 ? Long.parseLong(args[offset + 1]) : DEFAULT_ROUND_MILLIS;
+        return new BenchmarkRunner(warmup, round);
+    }
+
+    /**
+     * Warm up and measure the body.
+     *
+     * @return
+     *      The nanoseconds per call of the median round and the allocated bytes per call of all the rounds
+     */
+    double[] measure(Supplier<Object> body) {
+        run(body, warmupNanos);
+        double[] nanosPerCall = new double[ROUNDS];
+        long bytes = 0;
+        long calls = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            long roundCalls = run(body, roundNanos);
+            long elapsed = System.nanoTime() - start;
+            bytes += allocatedBytes() - allocated;
+            calls += roundCalls;
+            nanosPerCall[round] = (double) elapsed / roundCalls;
+        }
+        Arrays.sort(nanosPerCall);
+        return new double[]{nanosPerCall[ROUNDS / 2], (double) bytes / calls};
+    }
+
+    /**
+     * Format a result of {@link #measure(Supplier)}.
+     */
+    static String format(double value) {
+        return value < 100 ? String.format("%.1f", value) : String.valueOf(Math.round(value));
+    }
+
+    private static long run(Supplier<Object> body, long nanos) {
+        long calls = 0;
+        long start = System.nanoTime();
+        do {
+            for (int i = 0; i < BATCH; i++) {
+                sink = body.get();
+            }
+            calls += BATCH;
+        } while (System.nanoTime() - start < nanos);
+        return calls;
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,138 @@
+package com.altran.gdc.robotframework.testfxlibrary.benchmark;
+
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryKeywordDispatcher;
+import org.robotframework.javalib.annotation.RobotKeyword;
+import org.robotframework.javalib.annotation.RobotKeywordOverload;
+import org.robotframework.javalib.beans.annotation.AnnotationBasedKeywordFilter;
+import org.robotframework.javalib.beans.annotation.KeywordBeanLoader;
+import org.robotframework.javalib.reflection.ArgumentConverter;
+import org.robotframework.javalib.reflection.ArgumentGrouper;
+import org.robotframework.javalib.util.KeywordNameNormalizer;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark of the dispatch overhead of every keyword: the per call work of the AnnotationLibrary (argument copy to
+ * Strings, name normalization, keyword lookup, argument grouping and conversion) against the
+ * {@link TestFxLibraryKeywordDispatcher} (name lookup and invoke of the handle with its bound coercers). The keyword
+ * bodies are not run, and the reflective Method.invoke is left out of the AnnotationLibrary side. It prints the
+ * latency and the allocated bytes per keyword call of both, for a mix calling all the keywords in turn as a test suite
+ * does, and with <i>--per-keyword</i> for each keyword alone.
+ *
+ * Usage:
+ * <pre>java -cp "testFXLibrary.jar" com.altran.gdc.robotframework.testfxlibrary.benchmark.KeywordDispatchBenchmark [--per-keyword] [warmupMillis] [roundMillis]</pre>
+ */
+public final class KeywordDispatchBenchmark {
+
+    private static final String KEYWORD_PATTERN = "com/altran/gdc/robotframework/testfxlibrary/keywords/**/*.class";
+    private static final String PER_KEYWORD_OPTION = "--per-keyword";
+    private static final String ROW_FORMAT = "%-40s %14s %14s %16s %16s%n";
+
+    private KeywordDispatchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        boolean perKeyword = args.length > 0 && PER_KEYWORD_OPTION.equals(args[0]);
+        BenchmarkRunner runner = BenchmarkRunner.fromArguments(args, perKeyword ? 1 : 0);
+
+        Map<?, ?> beans = new KeywordBeanLoader(KEYWORD_PATTERN, Thread.currentThread().getContextClassLoader())
+                .loadBeanDefinitions(new AnnotationBasedKeywordFilter());
+        Collection<?> keywordBeans = beans.values();
+        TestFxLibraryKeywordDispatcher dispatcher = TestFxLibraryKeywordDispatcher.withoutTargets(keywordBeans);
+        KeywordNameNormalizer normalizer = new KeywordNameNormalizer();
+
+        List<Method> methods = new ArrayList<>();
+        Map<String, Method> byName = new HashMap<>();
+        for (Object bean : keywordBeans) {
+            for (Method method : bean.getClass().getMethods()) {
+                if (method.isAnnotationPresent(RobotKeyword.class)
+                        || method.isAnnotationPresent(RobotKeywordOverload.class)) {
+                    methods.add(method);
+                    byName.put(normalizer.normalize(method.getName()) + "/" + method.getParameterCount(), method);
+                }
+            }
+        }
+        List<Supplier<Object>> javalibCalls = new ArrayList<>();
+        List<Supplier<Object>> handleCalls = new ArrayList<>();
+        for (Method method : methods) {
+            String name = method.getName();
+            int parameterCount = method.getParameterCount();
+            Object[] arguments = sampleArguments(method.getParameterTypes());
+            javalibCalls.add(() -> {
+                Object[] strings = toStrings(arguments);
+                Method keyword = byName.get(normalizer.normalize(name) + "/" + parameterCount);
+                Class<?>[] types = keyword.getParameterTypes();
+                return new ArgumentConverter(types).convertArguments(new ArgumentGrouper(types).groupArguments(
+                        strings));
+            });
+            handleCalls.add(() -> dispatcher.run(name, arguments));
+        }
+
+        System.out.printf(ROW_FORMAT, "Keyword", "javalib ns/op", "handle ns/op", "javalib bytes/op",
+                "handle bytes/op");
+        report(runner, "Mix of " + methods.size() + " keywords", inTurn(javalibCalls), inTurn(handleCalls));
+        if (perKeyword) {
+            for (int i = 0; i < methods.size(); i++) {
+                Method method = methods.get(i);
+                report(runner, method.getName() + "/" + method.getParameterCount(), javalibCalls.get(i),
+                        handleCalls.get(i));
+            }
+        }
+    }
+
+    private static void report(BenchmarkRunner runner, String name, Supplier<Object> javalibCall,
+            Supplier<Object> handleCall) {
+        double[] javalib = runner.measure(javalibCall);
+        double[] handle = runner.measure(handleCall);
+        System.out.printf(ROW_FORMAT, name, BenchmarkRunner.format(javalib[0]), BenchmarkRunner.format(handle[0]),
+                BenchmarkRunner.format(javalib[1]), BenchmarkRunner.format(handle[1]));
+    }
+
+    /**
+     * A body calling the bodies one after the other, so the measure covers every keyword and the JIT sees them all.
+     */
+    private static Supplier<Object> inTurn(List<Supplier<Object>> calls) {
+        Supplier<?>[] bodies = calls.toArray(new Supplier<?>[0]);
+        int[] next = new int[1];
+        return () -> {
+            int current = next[0];
+            next[0] = current + 1 == bodies.length ? 0 : current + 1;
+            return bodies[current].get();
+        };
+    }
+
+    /**
+     * Arguments as Robot sends them: text parsable to the parameter type, two values for a trailing array.
+     */
+    private static Object[] sampleArguments(Class<?>[] types) {
+        List<Object> arguments = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            Class<?> type = types[i];
+            if (type.isArray() && i == types.length - 1) {
+                arguments.add("first");
+                arguments.add("second");
+            } else if (type == boolean.class || type == Boolean.class) {
+                arguments.add("true");
+            } else if (type.isPrimitive() || Number.class.isAssignableFrom(type)) {
+                arguments.add("1");
+            } else {
+                arguments.add("text");
+            }
+        }
+        return arguments.toArray();
+    }
+
+    private static Object[] toStrings(Object[] args) {
+        Object[] strings = new Object[args.length];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = args[i].getClass().isArray() ? args[i] : args[i].toString();
+        }
+        return strings;
+    }
+}
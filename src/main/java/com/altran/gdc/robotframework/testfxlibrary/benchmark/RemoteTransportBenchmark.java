@@ -0,0 +1,247 @@
+package com.altran.gdc.robotframework.testfxlibrary.benchmark;
+
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryBinaryCodec;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryBinaryServer;
+import org.robotframework.remoteserver.RemoteServer;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmark of the XML-RPC remote server against the binary remote protocol, both serving the same library in this
+ * JVM over the loopback. The library has an <i>Echo</i> keyword, for the latency of a small call, and a
+ * <i>Payload</i> keyword returning rows of strings, as the results of <i>List Components In Context</i> or
+ * <i>Get Table Values</i>, for the throughput of a large response. The XML-RPC client parses the responses into a
+ * DOM, as the client of Robot parses them into Python objects. It prints the latency of the calls and the size of
+ * the responses with both.
+ *
+ * Usage:
+ * <pre>java -cp "testFXLibrary.jar" com.altran.gdc.robotframework.testfxlibrary.benchmark.RemoteTransportBenchmark [calls] [rows]</pre>
+ */
+public final class RemoteTransportBenchmark {
+
+    private static final int DEFAULT_CALLS = 2000;
+    private static final int DEFAULT_ROWS = 20000;
+    private static final int COLUMNS = 5;
+    private static final int PAYLOAD_CALLS_DIVISOR = 100;
+    private static final String ROW_FORMAT = "%-30s %14s %14s %16s%n";
+
+    private RemoteTransportBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CALLS;
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROWS;
+        int payloadCalls = Math.max(1, calls / PAYLOAD_CALLS_DIVISOR);
+
+        RemoteServer.configureLogging();
+        RemoteServer server = new RemoteServer();
+        server.putLibrary("/", new PayloadLibrary());
+        server.setPort(0);
+        server.start();
+        TestFxLibraryBinaryServer binaryServer = new TestFxLibraryBinaryServer(server.getLibraryMap(), 0);
+        binaryServer.start();
+
+        XmlRpcClient xmlRpc = new XmlRpcClient(new URL("http://localhost:" + server.getLocalPort() + "/"));
+        try (BinaryClient binary = new BinaryClient(binaryServer.getLocalPort())) {
+            System.out.printf(ROW_FORMAT, "Call", "XML-RPC us/op", "binary us/op", "XML-RPC/binary B");
+            report("Echo x " + calls, calls, () -> xmlRpc.runKeyword("Echo", "text"),
+                    () -> binary.runKeyword("Echo", "text"));
+            report("Payload " + rows + " rows x " + payloadCalls, payloadCalls,
+                    () -> xmlRpc.runKeyword("Payload", String.valueOf(rows)),
+                    () -> binary.runKeyword("Payload", String.valueOf(rows)));
+        } finally {
+            binaryServer.stop();
+            server.stop();
+        }
+    }
+
+    private static void report(String name, int calls, Call xmlRpc, Call binary) throws Exception {
+        // warm up both sides before measuring
+        long xmlRpcBytes = 0;
+        long binaryBytes = 0;
+        for (int i = 0; i < Math.max(1, calls / 4); i++) {
+            xmlRpcBytes = xmlRpc.run();
+            binaryBytes = binary.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            xmlRpc.run();
+        }
+        long xmlRpcNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            binary.run();
+        }
+        long binaryNanos = System.nanoTime() - start;
+        System.out.printf(ROW_FORMAT, name, xmlRpcNanos / calls / 1000, binaryNanos / calls / 1000,
+                xmlRpcBytes + "/" + binaryBytes);
+    }
+
+    private interface Call {
+        /**
+         * @return
+         *      The size of the response in bytes
+         */
+        long run() throws Exception;
+    }
+
+    /**
+     * Dynamic library served by both servers.
+     */
+    public static final class PayloadLibrary {
+
+        public String[] getKeywordNames() {
+            return new String[]{"Echo", "Payload"};
+        }
+
+        public Object runKeyword(String name, Object[] args) {
+            if ("Echo".equals(name)) {
+                return args[0];
+            }
+            int count = Integer.parseInt(args[0].toString());
+            List<List<String>> rows = new ArrayList<>(count);
+            for (int row = 0; row < count; row++) {
+                List<String> cells = new ArrayList<>(COLUMNS);
+                for (int column = 0; column < COLUMNS; column++) {
+                    cells.add("Row " + row + " column " + column);
+                }
+                rows.add(cells);
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * XML-RPC client of run_keyword, the response parsed into a DOM.
+     */
+    private static final class XmlRpcClient {
+
+        private final URL url;
+
+        XmlRpcClient(URL url) {
+            this.url = url;
+        }
+
+        long runKeyword(String name, String argument) throws Exception {
+            String request = "<?xml version=\"1.0\"?><methodCall><methodName>run_keyword</methodName><params>"
+                    + "<param><value><string>" + name + "</string></value></param>"
+                    + "<param><value><array><data><value><string>" + argument + "</string></value></data></array>"
+                    + "</value></param></params></methodCall>";
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setDoOutput(true);
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", "text/xml");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(request.getBytes(StandardCharsets.UTF_8));
+            }
+            CountingStream in = new CountingStream(connection.getInputStream());
+            Document response;
+            try {
+                response = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(in);
+            } finally {
+                in.close();
+            }
+            if (!response.getDocumentElement().getTextContent().contains("PASS")) {
+                throw new IllegalStateException("The keyword failed: " + response.getDocumentElement()
+                        .getTextContent());
+            }
+            return in.count;
+        }
+    }
+
+    /**
+     * Binary protocol client of run_keyword, on one connection.
+     */
+    private static final class BinaryClient implements AutoCloseable {
+
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        BinaryClient(int port) throws IOException {
+            socket = new Socket("localhost", port);
+            socket.setTcpNoDelay(true);
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.write(TestFxLibraryBinaryCodec.MAGIC);
+            out.writeInt(TestFxLibraryBinaryCodec.VERSION);
+            out.flush();
+            byte[] magic = new byte[TestFxLibraryBinaryCodec.MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, TestFxLibraryBinaryCodec.MAGIC) || in.readInt() != TestFxLibraryBinaryCodec.VERSION) {
+                throw new IOException("Not a binary remote server");
+            }
+        }
+
+        long runKeyword(String name, String argument) throws IOException {
+            TestFxLibraryBinaryCodec.writeFrame(out, Arrays.asList("run_keyword", "/", name,
+                    Collections.singletonList(argument), Collections.emptyMap()));
+            in.mark(Integer.BYTES);
+            int length = in.readInt();
+            in.reset();
+            Map<?, ?> result = (Map<?, ?>) TestFxLibraryBinaryCodec.readFrame(in);
+            if (!"PASS".equals(result.get("status"))) {
+                throw new IllegalStateException("The keyword failed: " + result.get("error"));
+            }
+            return Integer.BYTES + (long) length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /**
+     * Counts the bytes read from a stream.
+     */
+    private static final class CountingStream extends InputStream {
+
+        private final InputStream in;
+        private long count;
+
+        CountingStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = in.read();
+            if (read >= 0) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = in.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.altran.gdc.robotframework.testfxlibrary.benchmark;
+
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryRobot;
+import javafx.scene.Node;
+import org.testfx.api.FxRobot;
+import org.testfx.api.FxToolkit;
+import testapp.FxApplicationUnitTest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Benchmark of keyword bodies run with a new FxRobot per call against the shared robot of {@link TestFxLibraryRobot}.
+ * It prints the latency and the allocated bytes per keyword call of both. The first row is the robot itself, which
+ * needs no application; with <i>--robot-only</i> the test application is not started and only that row is printed.
+ *
+ * Usage:
+ * <pre>java -cp "testFXLibrary.jar" com.altran.gdc.robotframework.testfxlibrary.benchmark.RobotProviderBenchmark [--robot-only] [warmupMillis] [roundMillis]</pre>
+ * Add <i>-Dtestfx.robot=glass -Dtestfx.headless=true -Dprism.order=sw</i> to run it on the headless Monocle glass.
+ */
+public final class RobotProviderBenchmark {
+
+    private static final String ROBOT_ONLY_OPTION = "--robot-only";
+    private static final String ROW_FORMAT = "%-28s %14s %14s %16s %16s%n";
+
+    private RobotProviderBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean robotOnly = args.length > 0 && ROBOT_ONLY_OPTION.equals(args[0]);
+        BenchmarkRunner runner = BenchmarkRunner.fromArguments(args, robotOnly ? 1 : 0);
+
+        System.out.printf(ROW_FORMAT, "Keyword", "new ns/op", "shared ns/op", "new bytes/op", "shared bytes/op");
+        report(runner, "Get Robot", robot -> robot);
+        if (robotOnly) {
+            System.exit(0);
+        }
+
+        FxToolkit.registerPrimaryStage();
+        FxToolkit.setupApplication(FxApplicationUnitTest.class);
+        FxToolkit.showStage();
+
+        Map<String, Function<FxRobot, Object>> keywords = new LinkedHashMap<>();
+        keywords.put("Get Nth Element", robot -> robot.lookup("#btnwait").query());
+        keywords.put("Get Matching Locator Count", robot -> robot.lookup(".button").queryAll().size());
+        keywords.put("Get Component Size", robot -> robot.lookup("#btnwait").<Node>query().getBoundsInLocal());
+        keywords.put("List Windows", FxRobot::listWindows);
+        keywords.put("List Target Windows", FxRobot::listTargetWindows);
+
+        for (Map.Entry<String, Function<FxRobot, Object>> keyword : keywords.entrySet()) {
+            report(runner, keyword.getKey(), keyword.getValue());
+        }
+
+        FxToolkit.cleanupStages();
+        System.exit(0);
+    }
+
+    private static void report(BenchmarkRunner runner, String name, Function<FxRobot, Object> body) {
+        double[] perCall = runner.measure(() -> body.apply(new FxRobot()));
+        double[] shared = runner.measure(() -> body.apply(TestFxLibraryRobot.get()));
+        System.out.printf(ROW_FORMAT, name, BenchmarkRunner.format(perCall[0]), BenchmarkRunner.format(shared[0]),
+                BenchmarkRunner.format(perCall[1]), BenchmarkRunner.format(shared[1]));
+    }
+}
@@ -0,0 +1,151 @@
+package com.altran.gdc.robotframework.testfxlibrary.benchmark;
+
+import org.robotframework.javalib.library.RobotJavaLibrary;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmark of the library startup in fresh JVMs on the headless Monocle glass. Each run starts a new JVM that
+ * imports TestFXLibrary as Robot does and runs its first keyword, <i>Start Application</i>, then reports the time
+ * from the JVM start to the main method, the import time, the first keyword time, the total time to the first
+ * keyword and the number of loaded classes. It prints the median, minimum and maximum of each over the runs.
+ *
+ * Usage:
+ * <pre>java -cp "testFXLibrary.jar" com.altran.gdc.robotframework.testfxlibrary.benchmark.StartupBenchmark [runs] [applicationClass] [-- jvmOptions...]</pre>
+ * The JVM options are given to the measured JVMs, e.g.
+ * <i>-- -XX:+UnlockCommercialFeatures -XX:+UseAppCDS -XX:SharedArchiveFile=testFXLibrary.jsa</i> to measure the class
+ * data sharing archive built by the <i>appcds</i> profile. With <i>--probe [applicationClass]</i> it is one
+ * measured JVM, which is also the training run of the <i>appcds</i> profile.
+ */
+public final class StartupBenchmark {
+
+    private static final String PROBE = "--probe";
+    private static final String JVM_OPTIONS = "--";
+    private static final String RESULT_PREFIX = "STARTUP";
+    private static final String DEFAULT_APPLICATION = "testapp.FxApplicationUnitTest";
+    private static final int DEFAULT_RUNS = 5;
+    private static final String[] METRICS = {"jvmMillis", "importMillis", "firstKeywordMillis", "totalMillis",
+            "loadedClasses"};
+    private static final String[] HEADLESS = {"-Dtestfx.robot=glass", "-Dtestfx.headless=true",
+            "-Dglass.platform=Monocle", "-Dmonocle.platform=Headless", "-Dprism.order=sw"};
+    private static final String ROW_FORMAT = "%-20s %10s %10s %10s%n";
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && PROBE.equals(args[0])) {
+            probe(args.length > 1 && !args[1].trim().isEmpty() ? args[1] : DEFAULT_APPLICATION);
+            return;
+        }
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        List<String> jvmOptions = new ArrayList<>();
+        int separator = arguments.indexOf(JVM_OPTIONS);
+        if (separator >= 0) {
+            jvmOptions.addAll(arguments.subList(separator + 1, arguments.size()));
+            arguments = arguments.subList(0, separator);
+        }
+        int runs = arguments.size() > 0 ? Integer.parseInt(arguments.get(0)) : DEFAULT_RUNS;
+        String application = arguments.size() > 1 ? arguments.get(1) : DEFAULT_APPLICATION;
+
+        Map<String, List<Long>> results = new LinkedHashMap<>();
+        for (String metric : METRICS) {
+            results.put(metric, new ArrayList<>());
+        }
+        for (int run = 0; run < runs; run++) {
+            Map<String, Long> result = runProbe(application, jvmOptions);
+            for (String metric : METRICS) {
+                results.get(metric).add(result.get(metric));
+            }
+        }
+
+        System.out.printf("%d runs of %s with JVM options %s%n", runs, application, jvmOptions);
+        System.out.printf(ROW_FORMAT, "Metric", "median", "min", "max");
+        for (Map.Entry<String, List<Long>> metric : results.entrySet()) {
+            List<Long> values = metric.getValue();
+            Collections.sort(values);
+            System.out.printf(ROW_FORMAT, metric.getKey(), values.get(values.size() / 2), values.get(0),
+                    values.get(values.size() - 1));
+        }
+    }
+
+    /**
+     * Start a JVM running the probe and read its result line.
+     */
+    private static Map<String, Long> runProbe(String application, List<String> jvmOptions)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(Arrays.asList(HEADLESS));
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StartupBenchmark.class.getName());
+        command.add(PROBE);
+        command.add(application);
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+        Map<String, Long> result = null;
+        List<String> output = new ArrayList<>();
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                StandardCharsets.UTF_8))) {
+            for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    result = parse(line);
+                } else {
+                    output.add(line);
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        if (result == null) {
+            throw new IllegalStateException("The probe exited with " + exitCode + " and no result:\n"
+                    + String.join("\n", output));
+        }
+        return result;
+    }
+
+    private static Map<String, Long> parse(String line) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (String field : line.substring(RESULT_PREFIX.length()).trim().split(" ")) {
+            int equals = field.indexOf('=');
+            result.put(field.substring(0, equals), Long.valueOf(field.substring(equals + 1)));
+        }
+        return result;
+    }
+
+    /**
+     * Import the library, run its first keyword and print the result line. The library is created by name, as it is
+     * in the default package.
+     */
+    private static void probe(String application) throws ReflectiveOperationException {
+        long mainMillis = System.currentTimeMillis();
+        long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        long start = System.nanoTime();
+        RobotJavaLibrary library =
+                (RobotJavaLibrary) Class.forName("TestFXLibrary").getDeclaredConstructor().newInstance();
+        long imported = System.nanoTime();
+        library.runKeyword("Start Application", new Object[]{application});
+        long firstKeyword = System.nanoTime();
+        long totalMillis = mainMillis - jvmStartMillis + (firstKeyword - start) / 1_000_000;
+        long loadedClasses = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+
+        library.runKeyword("Close Application", new Object[0]);
+        System.out.printf("%s jvmMillis=%d importMillis=%d firstKeywordMillis=%d totalMillis=%d loadedClasses=%d%n",
+                RESULT_PREFIX, mainMillis - jvmStartMillis, (imported - start) / 1_000_000,
+                (firstKeyword - imported) / 1_000_000, totalMillis, loadedClasses);
+        System.exit(0);
+    }
+}
@@ -0,0 +1,127 @@
+package com.altran.gdc.robotframework.testfxlibrary.keywords;
+
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryBatch;
+import org.robotframework.javalib.annotation.ArgumentNames;
+import org.robotframework.javalib.annotation.RobotKeyword;
+import org.robotframework.javalib.annotation.RobotKeywordOverload;
+import org.robotframework.javalib.annotation.RobotKeywords;
+
+import java.util.List;
+import java.util.Map;
+
+@RobotKeywords
+public class Batch {
+
+    /**
+     * <b>Description:</b> This keyword runs the keywords of the library given in <i>steps</i>, in order, in a single
+     * call. Each step is a list with the keyword name followed by its arguments. The first failing step fails the
+     * keyword and the steps after it are not run, unless <i>failOnError</i> is false.<br>
+     * With the remote library the whole batch is one round trip to the server instead of one per step.<br>
+     *
+     * @param steps
+     * : The list of steps, each a list of the keyword name and its arguments
+     *
+     * @param failOnError
+     * : Fail the keyword when a step fails
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Parameter</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>steps</td>
+     *         <td>Yes</td>
+     *         <td>list of lists of strings</td>
+     *         <td>N/A</td>
+     *     </tr>
+     *     <tr>
+     *         <td>failOnError</td>
+     *         <td>No</td>
+     *         <td>boolean</td>
+     *         <td>true</td>
+     *     </tr>
+     * </table>
+     *
+     * @return
+     *  The list of the steps, each a dictionary with its index, keyword, status (PASS, FAIL or NOT RUN), millis, and
+     *  return value or error when there is one
+     *
+     * <br><br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>${step1}=</td>
+     *         <td>Create List</td>
+     *         <td>Click On Component</td>
+     *         <td>\#textfield</td>
+     *     </tr>
+     *     <tr>
+     *         <td>${step2}=</td>
+     *         <td>Create List</td>
+     *         <td>Write</td>
+     *         <td>my text</td>
+     *     </tr>
+     *     <tr>
+     *         <td>${steps}=</td>
+     *         <td>Create List</td>
+     *         <td>${step1}</td>
+     *         <td>${step2}</td>
+     *     </tr>
+     *     <tr>
+     *         <td>${results}=</td>
+     *         <td>Run Keywords In Batch</td>
+     *         <td>${steps}</td>
+     *         <td></td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    @ArgumentNames({"steps", "failOnError=true"})
+    public List<Map<String, Object>> runKeywordsInBatch(Object steps, boolean failOnError) {
+        return TestFxLibraryBatch.run(steps, failOnError);
+    }
+
+    /**
+     * <b>Description:</b> This keyword runs the keywords of the library given in <i>steps</i>, in order, in a single
+     * call, and fails at the first failing step.<br>
+     *
+     * @param steps
+     * : The list of steps, each a list of the keyword name and its arguments
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Parameter</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>steps</td>
+     *         <td>Yes</td>
+     *         <td>list of lists of strings</td>
+     *         <td>N/A</td>
+     *     </tr>
+     * </table>
+     *
+     * @return
+     *  The list of the steps, each a dictionary with its index, keyword, status, millis, and return value when there
+     *  is one
+     *
+     * <br><br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>${results}=</td>
+     *         <td>Run Keywords In Batch</td>
+     *         <td>${steps}</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeywordOverload
+    public List<Map<String, Object>> runKeywordsInBatch(Object steps) {
+        return runKeywordsInBatch(steps, true);
+    }
+}
@@ -4,11 +4,11 @@ import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryFatal
 import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryNonFatalException;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryCommon;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryValidation;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryRobot;
 import org.robotframework.javalib.annotation.ArgumentNames;
 import org.robotframework.javalib.annotation.Autowired;
 import org.robotframework.javalib.annotation.RobotKeyword;
 import org.robotframework.javalib.annotation.RobotKeywords;
-import org.testfx.api.FxRobot;
 
 @RobotKeywords
 public class CheckBox {
@@ -160,7 +160,7 @@ public class CheckBox {
         TestFxLibraryValidation.validateArguments(identifier);
         wait.waitUntilPageContains(identifier);
 
-        javafx.scene.control.CheckBox checkBox = new FxRobot().lookup(identifier).query();
+        javafx.scene.control.CheckBox checkBox = TestFxLibraryRobot.get().lookup(identifier).query();
 
         try{
             if(checkBox.isDisable()){
@@ -211,7 +211,7 @@ public class CheckBox {
         TestFxLibraryValidation.validateArguments(identifier);
         wait.waitUntilPageContains(identifier);
 
-        javafx.scene.control.CheckBox checkBox = new FxRobot().lookup(identifier).query();
+        javafx.scene.control.CheckBox checkBox = TestFxLibraryRobot.get().lookup(identifier).query();
 
         try{
             if(!checkBox.isDisable()){
@@ -3,11 +3,11 @@ package com.altran.gdc.robotframework.testfxlibrary.keywords;
 import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryFatalException;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryCommon;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryValidation;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryRobot;
 import org.robotframework.javalib.annotation.ArgumentNames;
 import org.robotframework.javalib.annotation.Autowired;
 import org.robotframework.javalib.annotation.RobotKeyword;
 import org.robotframework.javalib.annotation.RobotKeywords;
-import org.testfx.api.FxRobot;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -123,7 +123,7 @@ public class ComboBox {
 
         javafx.scene.control.ComboBox comboBox = TestFxLibraryCommon.lookup(identifier);
 
-        new FxRobot().clickOn(comboBox);
+        TestFxLibraryRobot.input(robot -> robot.clickOn(comboBox));
 
         comboBox.getItems().forEach(item -> {
             if((item).equals(text)){
@@ -182,7 +182,7 @@ public class ComboBox {
 
         javafx.scene.control.ComboBox comboBox = TestFxLibraryCommon.lookup(identifier);
 
-        new FxRobot().clickOn(comboBox);
+        TestFxLibraryRobot.input(robot -> robot.clickOn(comboBox));
         comboBox.getSelectionModel().selectFirst();
     }
 
@@ -239,7 +239,7 @@ public class ComboBox {
 
         javafx.scene.control.ComboBox comboBox = TestFxLibraryCommon.lookup(identifier);
 
-        new FxRobot().clickOn(comboBox);
+        TestFxLibraryRobot.input(robot -> robot.clickOn(comboBox));
 
         comboBox.getSelectionModel().select(position);
         comboBox.setValue(comboBox.getItems().get(position));
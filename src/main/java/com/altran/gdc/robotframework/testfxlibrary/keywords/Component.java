@@ -2,12 +2,12 @@ package com.altran.gdc.robotframework.testfxlibrary.keywords;
 
 import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryNonFatalException;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryValidation;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryRobot;
 import javafx.scene.control.Control;
 import org.robotframework.javalib.annotation.ArgumentNames;
 import org.robotframework.javalib.annotation.Autowired;
 import org.robotframework.javalib.annotation.RobotKeyword;
 import org.robotframework.javalib.annotation.RobotKeywords;
-import org.testfx.api.FxRobot;
 
 import java.util.ArrayList;
 
@@ -59,7 +59,7 @@ public class Component {
         TestFxLibraryValidation.validateArguments(identifier);
         wait.waitUntilPageContains(identifier);
         java.util.ArrayList<Object> count = new ArrayList<>();
-        count.addAll(new FxRobot().lookup(identifier).queryAll());
+        count.addAll(TestFxLibraryRobot.get().lookup(identifier).queryAll());
         return count.size();
     }
 
@@ -104,7 +104,7 @@ public class Component {
         TestFxLibraryValidation.validateArguments(identifier);
         wait.waitUntilPageContains(identifier);
 
-        Control object=new FxRobot().lookup(identifier).query();
+        Control object=TestFxLibraryRobot.get().lookup(identifier).query();
         
         return object.getTooltip().getText();
     }
@@ -155,7 +155,7 @@ public class Component {
         TestFxLibraryValidation.validateArguments(identifier);
         wait.waitUntilPageContains(identifier);
 
-        Control object= new FxRobot().lookup(identifier).query();
+        Control object= TestFxLibraryRobot.get().lookup(identifier).query();
 
         if (!object.getTooltip().getText().equals(text)){
             throw new TestFxLibraryNonFatalException("Tooltip text does not match");
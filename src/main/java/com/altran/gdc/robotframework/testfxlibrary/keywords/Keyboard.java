@@ -8,6 +8,7 @@ package com.altran.gdc.robotframework.testfxlibrary.keywords;
 import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryFatalException;
 import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryNonFatalException;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryCommon;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryRobot;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
@@ -16,8 +17,6 @@ import org.robotframework.javalib.annotation.ArgumentNames;
 import org.robotframework.javalib.annotation.Autowired;
 import org.robotframework.javalib.annotation.RobotKeyword;
 import org.robotframework.javalib.annotation.RobotKeywords;
-import org.testfx.api.FxRobot;
-import org.testfx.api.FxRobotContext;
 
 /**
  *
@@ -79,7 +78,7 @@ public class Keyboard {
     @RobotKeyword
     @ArgumentNames({"keycode"})
     public void press(String keycode) {
-        new FxRobot().press(KeyCode.getKeyCode(keycode));
+        TestFxLibraryRobot.input(robot -> robot.press(KeyCode.getKeyCode(keycode)));
     }
 
     /**
@@ -116,7 +115,7 @@ public class Keyboard {
     @RobotKeyword
     @ArgumentNames({"numberOfCharacters"})
     public void eraseText(int numberOfCharacters) {
-        new FxRobot().eraseText(numberOfCharacters);
+        TestFxLibraryRobot.input(robot -> robot.eraseText(numberOfCharacters));
     }
 
     /**
@@ -157,7 +156,7 @@ public class Keyboard {
     @RobotKeyword
     @ArgumentNames({"text"})
     public void write(String text) {
-        new FxRobot().write(text);
+        TestFxLibraryRobot.input(robot -> robot.write(text));
     }
 
     /**
@@ -207,7 +206,7 @@ public class Keyboard {
     @RobotKeyword
     @ArgumentNames({"keycode"})
     public void release(String keycode) {
-        new FxRobotContext().getBaseRobot().releaseKeyboard(KeyCode.getKeyCode(keycode));
+        TestFxLibraryRobot.input(robot -> robot.robotContext().getBaseRobot().releaseKeyboard(KeyCode.getKeyCode(keycode)));
     }
 
     /**
@@ -258,7 +257,7 @@ public class Keyboard {
     @RobotKeyword
     @ArgumentNames({"keycode"})
     public void type(String keycode) {
-        new FxRobot().type(KeyCode.getKeyCode(keycode));
+        TestFxLibraryRobot.input(robot -> robot.type(KeyCode.getKeyCode(keycode)));
     }
 
     /**
@@ -3,6 +3,9 @@ package com.altran.gdc.robotframework.testfxlibrary.keywords;
 import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryFatalException;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryCommon;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryValidation;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryRobot;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryVirtualCells;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryWaitEngine;
 import javafx.collections.ObservableList;
 import javafx.scene.control.ListView;
 import org.python.jline.internal.Log;
@@ -10,7 +13,6 @@ import org.robotframework.javalib.annotation.ArgumentNames;
 import org.robotframework.javalib.annotation.Autowired;
 import org.robotframework.javalib.annotation.RobotKeyword;
 import org.robotframework.javalib.annotation.RobotKeywords;
-import org.testfx.api.FxRobot;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -124,7 +126,7 @@ public class List {
 
         ListView listView = TestFxLibraryCommon.lookup(identifier);
 
-        new FxRobot().clickOn(listView);
+        TestFxLibraryRobot.input(robot -> robot.clickOn(listView));
 
         listView.getItems().forEach(item -> {
             if(item.equals(text)){
@@ -186,7 +188,7 @@ public class List {
 
         ListView listView = TestFxLibraryCommon.lookup(identifier);
 
-        new FxRobot().clickOn(listView);
+        TestFxLibraryRobot.input(robot -> robot.clickOn(listView));
 
         listView.getSelectionModel().select(position);
 
@@ -738,4 +740,59 @@ public class List {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * <b>Description:</b> This keyword returns the text rendered by the cell of the item at <i>index</i> in a listview
+     * specified with <i>identifier</i>, as displayed by its cell factory. The listview is scrolled to the item,
+     * which is read from the rendered cells once laid out.<br>
+     *
+     * @param identifier
+     * : The id of the listview
+     * @param index
+     * : The index of the item
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Parameter</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>identifier</td>
+     *         <td>Yes</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     *     <tr>
+     *         <td>index</td>
+     *         <td>Yes</td>
+     *         <td>int (0 to item count minus 1)</td>
+     *         <td>N/A</td>
+     *     </tr>
+     * </table>
+     *
+     * @return
+     *  The rendered text
+     *
+     * <br><br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>${text}=</td>
+     *         <td>Get Rendered List Cell Text</td>
+     *         <td>idListView01</td>
+     *         <td>3</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    @ArgumentNames({"identifier", "index"})
+    public String getRenderedListCellText(String identifier, int index) {
+        TestFxLibraryValidation.validateArguments(identifier);
+        TestFxLibraryValidation.validateIndex(index);
+
+        ListView listView = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
+
+        return TestFxLibraryVirtualCells.getText(listView, index);
+    }
+}
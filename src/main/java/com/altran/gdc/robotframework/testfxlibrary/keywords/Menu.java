@@ -2,6 +2,7 @@ package com.altran.gdc.robotframework.testfxlibrary.keywords;
 
 import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryNonFatalException;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryCommon;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryFxThread;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryValidation;
 import javafx.collections.ObservableList;
 import javafx.scene.control.MenuItem;
@@ -123,29 +124,29 @@ public class Menu {
         TestFxLibraryValidation.validateArguments(identifier, menuName);
         wait.waitUntilPageContains(identifier);
 
-        java.util.List<String> list = new ArrayList<>();
-
         try {
             javafx.scene.control.MenuBar menuBar = TestFxLibraryCommon.lookup(identifier);
 
-            ObservableList<MenuItem> menuItemList = null;
-            for(javafx.scene.control.Menu menu : menuBar.getMenus()){
-                if(menu.getText().equals(menuName)){
-                    menuItemList = menu.getItems();
+            return TestFxLibraryFxThread.read(() -> {
+                java.util.List<String> list = new ArrayList<>();
+                ObservableList<MenuItem> menuItemList = null;
+                for(javafx.scene.control.Menu menu : menuBar.getMenus()){
+                    if(menu.getText().equals(menuName)){
+                        menuItemList = menu.getItems();
+                    }
                 }
-            }
-            
-            if(menuItemList != null && !menuItemList.isEmpty()){
-                for(MenuItem item : menuItemList){
-                    list.add(item.getText());
+
+                if(menuItemList != null && !menuItemList.isEmpty()){
+                    for(MenuItem item : menuItemList){
+                        list.add(item.getText());
+                    }
                 }
-            }
-            
+                return list;
+            });
+
         } catch (Exception e){
             throw new TestFxLibraryNonFatalException(String.format(IDENTIFIER_NOT_EXIST, identifier), e);
         }
-
-        return list;
     }
 
 
@@ -18,7 +18,6 @@ import javafx.stage.Window;
 import org.python.google.common.collect.Iterables;
 import org.python.jline.internal.Log;
 import org.robotframework.javalib.annotation.*;
-import org.testfx.api.FxRobot;
 import org.testfx.api.FxToolkit;
 import org.testfx.toolkit.PrimaryStageFuture;
 
@@ -106,9 +105,13 @@ public class Misc {
         TestFxLibraryValidation.validateArguments(className, distinctiveName);
 
         final Stage[] stage = {null};
+        TestFxLibrarySession session = TestFxLibrarySession.current();
         try {
-            int size = new FxRobot().listTargetWindows().size();
-            if(size == 0) {
+            if(session != null) {
+                // The sessions start their applications one at a time on the shared toolkit
+                TestFxLibrarySession.withFxLock(
+                        () -> startSessionApplication(session, className, distinctiveName, args));
+            } else if(TestFxLibraryRobot.get().listTargetWindows().isEmpty()) {
                 FxToolkit.registerPrimaryStage();
                 FxToolkit.setupApplication((Class<? extends Application>) Class.forName(className), args);
                 FxToolkit.showStage();
@@ -128,6 +131,26 @@ public class Misc {
         }
     }
 
+    private static void startSessionApplication(TestFxLibrarySession session, String className, String distinctiveName,
+                                                String... args) {
+        final Stage[] stage = {null};
+        try {
+            // The primary stage is shared by the sessions, each application gets its own stage
+            TestFxLibrarySession.share(FxToolkit.registerPrimaryStage());
+            TestFxLibrarySession.watchWindows();
+            FxToolkit.registerStage(() -> {
+                stage[0] = new Stage();
+                session.own(stage[0]);
+                return stage[0];
+            });
+            FxToolkit.setupApplication((Class<? extends Application>) Class.forName(className), args);
+            FxToolkit.showStage();
+            TestFXLibraryCache.getIstance().put(KEY + distinctiveName, stage[0]);
+        } catch (TimeoutException | ClassNotFoundException e) {
+            throw new TestFxLibraryFatalException(e);
+        }
+    }
+
     /**
      * <b>Description:</b> This keyword launches JavaFX application. The classname
      * passed as <i>className</i> must extend javafx.application.Application.<br>
@@ -258,6 +281,7 @@ public class Misc {
 
     /**
      * <b>Description:</b> This keyword closes the JavaFX application. The primary stage is hidden and cleaned up.<br>
+     * On the session-aware remote server only the windows of the session are hidden.<br>
      *
      * @throws TestFxLibraryFatalException
      *      If something goes wrong
@@ -265,8 +289,23 @@ public class Misc {
     @RobotKeyword
     public void closeApplication() {
         try {
+            TestFxLibrarySession session = TestFxLibrarySession.current();
+            if (session != null) {
+                // Only the windows of the session, the other sessions keep their applications
+                TestFxLibrarySession.withFxLock(() -> {
+                    List<Window> windows = session.getWindows();
+                    try {
+                        FxToolkit.setupFixture(() -> windows.forEach(Window::hide));
+                    } catch (TimeoutException e) {
+                        throw new TestFxLibraryFatalException(e);
+                    }
+                });
+                TestFxLibraryRobot.reset();
+                return;
+            }
             FxToolkit.hideStage();
             FxToolkit.cleanupStages();
+            TestFxLibraryRobot.reset();
         } catch (Exception e) {
             throw new TestFxLibraryFatalException(e);
         }
@@ -308,7 +347,12 @@ public class Misc {
     public void sleep(float seconds) {
 
         int convertedInt = (int)(seconds * MILLISECONDS);
-        new FxRobot().sleep(convertedInt);
+        int holds = TestFxLibrarySession.releaseFxLock();
+        try {
+            TestFxLibraryRobot.get().sleep(convertedInt);
+        } finally {
+            TestFxLibrarySession.reacquireFxLock(holds);
+        }
     }
 
     /**
@@ -587,7 +631,7 @@ public class Misc {
         try {
 
             List<String> mapComponents = new ArrayList<>();
-            List<Window> windows = new FxRobot().listWindows();
+            List<Window> windows = TestFxLibraryRobot.get().listWindows();
 
             for(Window w : windows) {
                 Scene scene = w.getScene();
@@ -661,10 +705,136 @@ public class Misc {
     @RobotKeyword()
     @ArgumentNames({"identifier"})
     public String getNodeAll(String identifier) {
-        Set<Node> nodes = new FxRobot().lookup(identifier).queryAll();
+        Set<Node> nodes = TestFxLibraryRobot.get().lookup(identifier).queryAll();
         return nodes.toString();
     }
 
+    /**
+     * <b>Description:</b> This keyword enables the scene index. While enabled, lookups of a single id
+     * (<i>#id</i>) or style class (<i>.class</i>) are answered from an index of the scene graph kept current
+     * by listeners, instead of walking the scene graph of every window.<br>
+     * Lookups that the index can't answer unambiguously still walk the scene graph, as do all the lookups while
+     * a popup window (context menu, combo box popup, tooltip) is showing on JavaFX 8.<br>
+     *
+     * <br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>Enable Scene Index</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    public void enableSceneIndex() {
+        TestFxLibrarySceneIndex.enable();
+    }
+
+    /**
+     * <b>Description:</b> This keyword disables the scene index and removes its listeners from the scene graph.
+     * All the lookups walk the scene graph again.<br>
+     *
+     * <br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>Disable Scene Index</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    public void disableSceneIndex() {
+        TestFxLibrarySceneIndex.disable();
+    }
+
+    /**
+     * <b>Description:</b> This keyword returns the number of lookups answered by the scene index since the
+     * library was loaded, to check that the index is used.<br>
+     *
+     * @return
+     * : The number of lookups answered by the scene index
+     *
+     * <br><br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>${hits}=</td>
+     *         <td>Get Scene Index Hit Count</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    public int getSceneIndexHitCount() {
+        // XML-RPC has no 64-bit integer type
+        return (int) Math.min(Integer.MAX_VALUE, TestFxLibrarySceneIndex.getHits());
+    }
+
+    /**
+     * <b>Description:</b> This keyword returns the keyword classes initialized so far, in initialization order.
+     * A keyword class is initialized by the first run of one of its keywords, together with the keyword classes
+     * it uses. For each class the dictionary contains <i>class</i>, <i>order</i>, <i>millis</i> (time spent
+     * initializing the class, its dependencies excluded) and <i>dependencies</i>.<br>
+     * The list is empty when the library was built without the keyword registry, as all the keyword classes are
+     * then initialized at import.<br>
+     *
+     * @return
+     * : The initialized keyword classes
+     *
+     * <br><br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>${classes}=</td>
+     *         <td>Get Keyword Class Initialization Report</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    public List<Map<String, Object>> getKeywordClassInitializationReport() {
+        return TestFxLibraryKeywordClasses.getReport();
+    }
+
+    /**
+     * <b>Description:</b> This keyword returns the latency statistics of the keywords run so far. For each keyword
+     * the dictionary contains a dictionary per phase: <i>keyword</i> (the whole keyword), <i>lookup</i> (node
+     * lookups), <i>wait</i> (waits), <i>fxThread</i> (reads on the JavaFX application thread) and
+     * <i>robotInput</i> (mouse and keyboard input). Each phase contains <i>count</i>, <i>totalMillis</i>,
+     * <i>meanMillis</i>, <i>minMillis</i>, <i>p50Millis</i>, <i>p90Millis</i>, <i>p99Millis</i> and
+     * <i>maxMillis</i>.<br>
+     * The same statistics are published in JMX by the KeywordStatistics MBean.<br>
+     *
+     * @return
+     * : The statistics of each keyword
+     *
+     * <br><br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>${statistics}=</td>
+     *         <td>Get Keyword Statistics</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    public Map<String, Map<String, Map<String, Object>>> getKeywordStatistics() {
+        return TestFxLibraryKeywordStatistics.snapshot();
+    }
+
+    /**
+     * <b>Description:</b> This keyword clears the latency statistics of the keywords.<br>
+     *
+     * <br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>Reset Keyword Statistics</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    public void resetKeywordStatistics() {
+        TestFxLibraryKeywordStatistics.reset();
+    }
+
     /**
      * <b>Description:</b> Switch application if more than one is running.
      * @param application
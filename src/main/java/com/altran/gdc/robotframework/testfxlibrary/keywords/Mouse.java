@@ -8,12 +8,12 @@ package com.altran.gdc.robotframework.testfxlibrary.keywords;
 import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryFatalException;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryCommon;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryValidation;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryRobot;
 import javafx.geometry.HorizontalDirection;
 import javafx.geometry.Point2D;
 import javafx.geometry.VerticalDirection;
 import javafx.scene.Node;
 import org.robotframework.javalib.annotation.*;
-import org.testfx.api.FxRobot;
 import org.testfx.robot.Motion;
 import java.util.Set;
 import java.util.concurrent.TimeoutException;
@@ -71,7 +71,7 @@ public class Mouse {
     @ArgumentNames({"identifier"})
     public void clickOnComponent(String identifier) throws TimeoutException {
         Node n = TestFxLibraryCommon.lookup(identifier);
-        new FxRobot().clickOn(n);
+        TestFxLibraryRobot.input(robot -> robot.clickOn(n));
     }
 
     /**
@@ -120,7 +120,7 @@ public class Mouse {
     @RobotKeyword
     @ArgumentNames({"x", "y"})
     public void clickComponentAtCoordinates(int x, int y) throws TimeoutException {
-        new FxRobot().clickOn(new Point2D(x,y));
+        TestFxLibraryRobot.input(robot -> robot.clickOn(new Point2D(x,y)));
     }
 
     /**
@@ -157,7 +157,7 @@ public class Mouse {
     @ArgumentNames({"identifier"})
     public void doubleClickOnComponent(String identifier) {
         Node n = TestFxLibraryCommon.lookup(identifier);
-        new FxRobot().doubleClickOn(n);
+        TestFxLibraryRobot.input(robot -> robot.doubleClickOn(n));
     }
 
     /**
@@ -194,7 +194,7 @@ public class Mouse {
     @ArgumentNames({"identifier"})
     public void drag(String identifier) {
         Node n = TestFxLibraryCommon.lookup(identifier);
-        new FxRobot().drag(n);
+        TestFxLibraryRobot.input(robot -> robot.drag(n));
     }
 
     /**
@@ -204,7 +204,7 @@ public class Mouse {
     @RobotKeyword
     public void drop() {
 
-        new FxRobot().drop();
+        TestFxLibraryRobot.input(robot -> robot.drop());
     }
 
     /**
@@ -242,7 +242,7 @@ public class Mouse {
     @ArgumentNames({"identifier"})
     public void dropTo(String identifier) {
         Node n = TestFxLibraryCommon.lookup(identifier);
-        new FxRobot().dropTo(n);
+        TestFxLibraryRobot.input(robot -> robot.dropTo(n));
     }
 
     /**
@@ -288,7 +288,7 @@ public class Mouse {
     @RobotKeyword
     @ArgumentNames({"xCoordinate", "yCoordinate"})
     public void moveBy(double xCoordinate, double yCoordinate) {
-        new FxRobot().moveBy(xCoordinate, yCoordinate, Motion.DIRECT);
+        TestFxLibraryRobot.input(robot -> robot.moveBy(xCoordinate, yCoordinate, Motion.DIRECT));
     }
 
     /**
@@ -326,7 +326,7 @@ public class Mouse {
     public void moveTo(String identifier) {
         Node n = TestFxLibraryCommon.lookup(identifier);
 
-        new FxRobot().moveTo(n, Motion.DIRECT);
+        TestFxLibraryRobot.input(robot -> robot.moveTo(n, Motion.DIRECT));
     }
 
     /**
@@ -363,7 +363,7 @@ public class Mouse {
     @ArgumentNames({"identifier"})
     public void rightClickOnComponent(String identifier) {
         Node n = TestFxLibraryCommon.lookup(identifier);
-        new FxRobot().rightClickOn(n, Motion.DIRECT);
+        TestFxLibraryRobot.input(robot -> robot.rightClickOn(n, Motion.DIRECT));
     }
 
     /**
@@ -400,7 +400,7 @@ public class Mouse {
     @ArgumentNames({"amount"})
     public void scrollLeft(int amount) {
 
-        new FxRobot().scroll(amount, HorizontalDirection.LEFT);
+        TestFxLibraryRobot.input(robot -> robot.scroll(amount, HorizontalDirection.LEFT));
     }
 
     /**
@@ -437,7 +437,7 @@ public class Mouse {
     @ArgumentNames({"amount"})
     public void scrollRight(int amount) {
 
-        new FxRobot().scroll(amount, HorizontalDirection.RIGHT);
+        TestFxLibraryRobot.input(robot -> robot.scroll(amount, HorizontalDirection.RIGHT));
     }
 
     /**
@@ -474,7 +474,7 @@ public class Mouse {
     @ArgumentNames({"amount"})
     public void scrollUp(int amount) {
 
-        new FxRobot().scroll(amount, VerticalDirection.UP);
+        TestFxLibraryRobot.input(robot -> robot.scroll(amount, VerticalDirection.UP));
     }
 
     /**
@@ -511,7 +511,7 @@ public class Mouse {
     @ArgumentNames({"amount"})
     public void scrollDown(int amount) {
 
-        new FxRobot().scroll(amount, VerticalDirection.DOWN);
+        TestFxLibraryRobot.input(robot -> robot.scroll(amount, VerticalDirection.DOWN));
     }
 
     /**
@@ -552,7 +552,7 @@ public class Mouse {
     @ArgumentNames({"identifier"})
     public Set<Node> getNodeList(String identifier) {
 
-        return new FxRobot().lookup(identifier).queryAll();
+        return TestFxLibraryRobot.get().lookup(identifier).queryAll();
     }
 
     /**
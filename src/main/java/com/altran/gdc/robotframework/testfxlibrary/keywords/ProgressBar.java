@@ -2,8 +2,9 @@ package com.altran.gdc.robotframework.testfxlibrary.keywords;
 
 import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryNonFatalException;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryCommon;
-import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryConstants;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryValidation;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryWaitEngine;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryWaitPolicy;
 import org.robotframework.javalib.annotation.ArgumentNames;
 import org.robotframework.javalib.annotation.Autowired;
 import org.robotframework.javalib.annotation.RobotKeyword;
@@ -205,24 +206,9 @@ public class ProgressBar {
         TestFxLibraryValidation.validateArguments(identifier);
         wait.waitUntilPageContains(identifier);
 
-        javafx.scene.control.ProgressBar progressBar;
-        boolean isCompleted = false;
-
-        for(int i = 1; i <= timeout; i++){
-            try {
-                Thread.sleep(TestFxLibraryConstants.TIMEOUT);
-
-                progressBar = this.getProgressBar(identifier);
-
-                if(progressBar.getProgress() == 1d){
-                    isCompleted = true;
-                    break;
-                }
-
-            } catch (InterruptedException e) {
-                throw new TestFxLibraryNonFatalException("Error to check Progress Bar is complete", e);
-            }
-        }
+        javafx.scene.control.ProgressBar progressBar = this.getProgressBar(identifier);
+        boolean isCompleted = TestFxLibraryWaitEngine.await(() -> progressBar.getProgress() == 1d,
+                TestFxLibraryWaitPolicy.ofSeconds(timeout), progressBar.progressProperty());
 
         if(!isCompleted){
             throw new TestFxLibraryNonFatalException(String.format("Identifier %s is not completed", identifier));
@@ -2,6 +2,7 @@ package com.altran.gdc.robotframework.testfxlibrary.keywords;
 
 import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryFatalException;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryCommon;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryFxThread;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryValidation;
 import javafx.collections.ObservableList;
 import javafx.scene.control.TabPane;
@@ -56,12 +57,14 @@ public class Tab {
         wait.waitUntilPageContains(identifier);
 
         TabPane tabPane = TestFxLibraryCommon.lookup(identifier);
-        ObservableList<javafx.scene.control.Tab> tabs = tabPane.getTabs();
-        String[] items = new String[tabs.size()];
-        for (int i=0; i<tabs.size(); i++){
-            items[i] = tabs.get(i).getText();
-        }
-        return items;
+        return TestFxLibraryFxThread.read(() -> {
+            ObservableList<javafx.scene.control.Tab> tabs = tabPane.getTabs();
+            String[] items = new String[tabs.size()];
+            for (int i=0; i<tabs.size(); i++){
+                items[i] = tabs.get(i).getText();
+            }
+            return items;
+        });
     }
 
     /**
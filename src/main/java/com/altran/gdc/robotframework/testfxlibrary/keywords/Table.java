@@ -1,29 +1,29 @@
 package com.altran.gdc.robotframework.testfxlibrary.keywords;
 
 import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryNonFatalException;
-import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryCommon;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryTableDiff;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryTableFile;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryTableSearch;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryTableSnapshot;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryValidation;
-import javafx.collections.ObservableList;
-import javafx.scene.control.TableColumn;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryVirtualCells;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryWaitEngine;
 import javafx.scene.control.TableView;
 import org.robotframework.javalib.annotation.ArgumentNames;
-import org.robotframework.javalib.annotation.Autowired;
 import org.robotframework.javalib.annotation.RobotKeyword;
+import org.robotframework.javalib.annotation.RobotKeywordOverload;
 import org.robotframework.javalib.annotation.RobotKeywords;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @RobotKeywords
 public class Table {
 
-    @Autowired
-    private Wait wait;
-
-    private static final Logger LOG = LoggerFactory.getLogger(Table.class);
     private static String ERROR_MSG = "The table not contains the text %s";
     /**
      * <b>Description:</b> This keyword returns the number of columns from a specific
@@ -64,9 +64,8 @@ public class Table {
     @RobotKeyword
     @ArgumentNames({"identifier"})
     public int getTableColumnCount(String identifier){
-        TableView table = TestFxLibraryCommon.lookup(identifier);
-        wait.waitUntilPageContains(identifier);
-        return table.getColumns().size();
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
+        return TestFxLibraryTableSnapshot.columnCount(table);
     }
 
     /**
@@ -104,8 +103,7 @@ public class Table {
     @RobotKeyword
     @ArgumentNames({"identifier"})
     public void tableShouldBeVisible(String identifier){
-        TableView table = TestFxLibraryCommon.lookup(identifier);
-        wait.waitUntilPageContains(identifier);
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
         if (!table.isVisible()){
            throw new TestFxLibraryNonFatalException("Table is not visible");
         }
@@ -146,8 +144,7 @@ public class Table {
     @RobotKeyword
     @ArgumentNames({"identifier"})
     public void tableShouldNotBeVisible(String identifier){
-        TableView table = TestFxLibraryCommon.lookup(identifier);
-        wait.waitUntilPageContains(identifier);
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
         if (table.isVisible()){
             throw new TestFxLibraryNonFatalException("Table is visible");
         }
@@ -191,9 +188,8 @@ public class Table {
     @RobotKeyword
     @ArgumentNames({"identifier"})
     public int getTableRowCount(String identifier){
-        TableView table = TestFxLibraryCommon.lookup(identifier);
-        wait.waitUntilPageContains(identifier);
-        return table.getItems().size();
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
+        return TestFxLibraryTableSnapshot.rowCount(table);
     }
 
     /**
@@ -234,15 +230,8 @@ public class Table {
     @RobotKeyword
     @ArgumentNames({"identifier"})
     public List<String> getTableHeaders(String identifier){
-        TableView table = TestFxLibraryCommon.lookup(identifier);
-        wait.waitUntilPageContains(identifier);
-        ObservableList<TableColumn> columns = table.getColumns();
-
-        List<String> columnName = new ArrayList<>();
-        for(TableColumn col : columns){
-            columnName.add(col.getText());
-        }
-        return columnName;
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
+        return TestFxLibraryTableSnapshot.headers(table);
     }
 
     /**
@@ -284,8 +273,7 @@ public class Table {
     @RobotKeyword
     @ArgumentNames({"identifier"})
     public List<String> getTableValues(String identifier){
-        TableView table = TestFxLibraryCommon.lookup(identifier);
-        wait.waitUntilPageContains(identifier);
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
         return table.getItems();
     }
 
@@ -350,18 +338,9 @@ public class Table {
     public String getTableCellValue(String identifier, int rowIndex, int columnIndex){
         TestFxLibraryValidation.validateIndex(rowIndex);
         TestFxLibraryValidation.validateIndex(columnIndex);
-        wait.waitUntilPageContains(identifier);
-
-        TableView table = TestFxLibraryCommon.lookup(identifier);
-
-        // Item row
-        Object item = table.getItems().get(rowIndex);
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
 
-        // Get Column
-        TableColumn col = (TableColumn) table.getColumns().get(columnIndex);
-
-        // this gives the value in the selected cell:
-        return (String) col.getCellObservableValue(item).getValue();
+        return TestFxLibraryTableSnapshot.cell(table, rowIndex, columnIndex);
     }
 
     /**
@@ -432,18 +411,9 @@ public class Table {
     public void tableCellShouldContain(String identifier, int rowIndex, int columnIndex, String text){
         TestFxLibraryValidation.validateIndex(rowIndex);
         TestFxLibraryValidation.validateIndex(columnIndex);
-        wait.waitUntilPageContains(identifier);
-
-        TableView table = TestFxLibraryCommon.lookup(identifier);
-
-        // Item row
-        Object item = table.getItems().get(rowIndex);
-
-        // Get Column
-        TableColumn col = (TableColumn) table.getColumns().get(columnIndex);
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
 
-        // this gives the value in the selected cell:
-        String data = (String) col.getCellObservableValue(item).getValue();
+        String data = TestFxLibraryTableSnapshot.cell(table, rowIndex, columnIndex);
 
         if(!data.contains(text)){
             throw new TestFxLibraryNonFatalException(String.format("Cell not contains value %s", text));
@@ -501,25 +471,9 @@ public class Table {
     @ArgumentNames({"identifier", "columnIndex"})
     public List<String> getTableColumnValues(String identifier, int columnIndex){
         TestFxLibraryValidation.validateIndex(columnIndex);
-        wait.waitUntilPageContains(identifier);
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
 
-        TableView table = TestFxLibraryCommon.lookup(identifier);
-
-        // Item row
-        ObservableList items = table.getItems();
-
-        List<String> list = new ArrayList<>();
-        for (Object item : items) {
-            // Get Column
-            TableColumn col = (TableColumn) table.getColumns().get(columnIndex);
-
-            // this gives the value in the selected cell:
-            String data = (String) col.getCellObservableValue(item).getValue();
-
-            list.add(data);
-        }
-
-        return list;
+        return TestFxLibraryTableSnapshot.of(table).getColumn(columnIndex);
 
     }
 
@@ -574,20 +528,9 @@ public class Table {
     @ArgumentNames({"identifier", "rowIndex"})
     public List<String> getTableRowValues(String identifier, int rowIndex){
         TestFxLibraryValidation.validateIndex(rowIndex);
-        wait.waitUntilPageContains(identifier);
-        
-        TableView table = TestFxLibraryCommon.lookup(identifier);
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
 
-        // Item row
-        Object item = table.getItems().get(rowIndex);
-
-        List<String> list = new ArrayList<>();
-        for(int i = 0; i < table.getColumns().size(); i++){
-            TableColumn col = (TableColumn) table.getColumns().get(i);
-            list.add((String) col.getCellObservableValue(item).getValue());
-        }
-
-        return list;
+        return TestFxLibraryTableSnapshot.row(table, rowIndex);
     }
 
     /**
@@ -635,14 +578,13 @@ public class Table {
     @RobotKeyword
     @ArgumentNames({"ientifier", "text"})
     public void tableHeaderShouldContain(String identifier, String text) {
-        TableView table = TestFxLibraryCommon.lookup(identifier);
-        wait.waitUntilPageContains(identifier);
-        ObservableList<TableColumn> columns = table.getColumns();
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
 
         boolean flag = false;
-        for (TableColumn col : columns) {
-            if (col.getText().contains(text)) {
+        for (String header : TestFxLibraryTableSnapshot.headers(table)) {
+            if (header != null && header.contains(text)) {
                 flag = true;
+                break;
             }
         }
 
@@ -697,35 +639,9 @@ public class Table {
     @RobotKeyword
     @ArgumentNames({"ientifier", "text"})
     public void tableShouldContain(String identifier, String text) {
-        TableView table = TestFxLibraryCommon.lookup(identifier);
-        wait.waitUntilPageContains(identifier);
-        // Item row
-        ObservableList items = table.getItems();
-
-        Iterator it = items.iterator();
-
-        boolean flag = false;
-        while(it.hasNext()){
-
-            ObservableList<TableColumn> columns = table.getColumns();
-            for (TableColumn col : columns) {
-                String data;
-                try{
-                    data = (String) col.getCellObservableValue(it.next()).getValue();
-                }catch (Exception e) {
-                    LOG.error(String.format(ERROR_MSG, text),e);
-                    throw new TestFxLibraryNonFatalException(String.format(ERROR_MSG, text));
-                }
-
-                if (data.contains(text)) {
-                    flag = true;
-                    break;
-                }
-            }
-            break;
-        }
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
 
-        if(!flag){
+        if (!TestFxLibraryTableSearch.contains(table, text)) {
             throw new TestFxLibraryNonFatalException(String.format(ERROR_MSG, text));
         }
     }
@@ -786,21 +702,13 @@ public class Table {
     @RobotKeyword
     @ArgumentNames({"identifier", "row", "text"})
     public void tableRowShouldContains(String identifier, int row, String text){
-        TableView table = TestFxLibraryCommon.lookup(identifier);
-        wait.waitUntilPageContains(identifier);
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
 
         boolean flag=false;
-        // Item row
-        Object item = table.getItems().get(row);
-
-        List<String> list = new ArrayList<>();
-        for(int i = 0; i < table.getColumns().size(); i++){
-            TableColumn col = (TableColumn) table.getColumns().get(i);
-            list.add((String) col.getCellObservableValue(item).getValue());
-        }
-        for (String aList : list) {
-            if (aList.contains(text)) {
+        for (String data : TestFxLibraryTableSnapshot.row(table, row)) {
+            if (data != null && data.contains(text)) {
                 flag = true;
+                break;
             }
         }
 
@@ -808,4 +716,349 @@ public class Table {
             throw new TestFxLibraryNonFatalException(String.format(ERROR_MSG, text));
         }
     }
+
+    /**
+     * <b>Description:</b> This keyword enables or disables the reuse of the table snapshots across keywords.
+     * When enabled, the headers and cell values of a table are read once and reused by the following table
+     * keywords until the items list or the columns of the table change. Disable it when the application edits
+     * the items of a table in place.<br>
+     *
+     * @param enabled
+     * : true to reuse the snapshots
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Parameter</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>enabled</td>
+     *         <td>Yes</td>
+     *         <td>boolean</td>
+     *         <td>N/A</td>
+     *     </tr>
+     * </table>
+     *
+     * <br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>Set Table Snapshot Reuse</td>
+     *         <td>true</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    @ArgumentNames({"enabled"})
+    public void setTableSnapshotReuse(boolean enabled) {
+        TestFxLibraryTableSnapshot.setReuseEnabled(enabled);
+    }
+
+    /**
+     * <b>Description:</b> This keyword builds an index of the words of the cells of the table specified with
+     * <i>identifier</i>, kept current while items are added to or removed from the table. While enabled,
+     * <i>Table Should Contain</i> finds a whole word without scanning the table. Texts that are not a whole
+     * word are still searched by scanning the table. Edits of an item in place are only seen if the items list
+     * reports them as updates.<br>
+     *
+     * @param identifier
+     * : The id of the table
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Parameter</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>identifier</td>
+     *         <td>Yes</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     * </table>
+     *
+     * <br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>Enable Table Index</td>
+     *         <td>idTable12</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    @ArgumentNames({"identifier"})
+    public void enableTableIndex(String identifier) {
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
+        TestFxLibraryTableSearch.enableIndex(table);
+    }
+
+    /**
+     * <b>Description:</b> This keyword drops the index of the words of the cells of the table specified with
+     * <i>identifier</i>.<br>
+     *
+     * @param identifier
+     * : The id of the table
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Parameter</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>identifier</td>
+     *         <td>Yes</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     * </table>
+     *
+     * <br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>Disable Table Index</td>
+     *         <td>idTable12</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    @ArgumentNames({"identifier"})
+    public void disableTableIndex(String identifier) {
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
+        TestFxLibraryTableSearch.disableIndex(table);
+    }
+
+    /**
+     * <b>Description:</b> This keyword writes the visible columns of the table specified with <i>identifier</i>
+     * to the file <i>path</i>, and returns the absolute path of the file and the number of rows written. The
+     * table is read and written in chunks, so tables of any size can be exported without sending their values
+     * to Robot.<br>
+     * The format <i>csv</i> writes a header line and one line per row. The format <i>columnar</i> writes a compact
+     * binary file storing the cells column by column.<br>
+     *
+     * @param identifier
+     * : The id of the table
+     * @param path
+     * : The file to write, replaced if it exists
+     * @param format
+     * : csv or columnar
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Parameter</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>identifier</td>
+     *         <td>Yes</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     *     <tr>
+     *         <td>path</td>
+     *         <td>Yes</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     *     <tr>
+     *         <td>format</td>
+     *         <td>No</td>
+     *         <td>csv | columnar</td>
+     *         <td>csv</td>
+     *     </tr>
+     * </table>
+     *
+     * @return
+     *  The absolute path of the file and the number of rows
+     *
+     * <br><br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>${path}</td>
+     *         <td>${rows}=</td>
+     *         <td>Export Table To File</td>
+     *         <td>idTable12</td>
+     *         <td>${OUTPUT DIR}/table.csv</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    @ArgumentNames({"identifier", "path", "format=csv"})
+    public List<Object> exportTableToFile(String identifier, String path, String format) {
+        TestFxLibraryValidation.validateArguments(identifier, path, format);
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
+
+        Path file = Paths.get(path).toAbsolutePath();
+        try {
+            int rows = TestFxLibraryTableFile.write(table, file, TestFxLibraryTableFile.Format.of(format));
+            return Arrays.asList(file.toString(), rows);
+        } catch (IOException | IllegalStateException e) {
+            throw new TestFxLibraryNonFatalException(String.format("Unable to export the table %s to %s", identifier,
+                    file), e);
+        }
+    }
+
+    @RobotKeywordOverload
+    public List<Object> exportTableToFile(String identifier, String path) {
+        return exportTableToFile(identifier, path, TestFxLibraryTableFile.Format.CSV.name());
+    }
+
+    /**
+     * <b>Description:</b> This keyword compares the table specified with <i>identifier</i> with the expected dataset
+     * stored in the file <i>path</i>, a CSV file with a header line or a file written by Export Table To File. The
+     * comparison runs in the library and returns a summary of the differences instead of the table values.<br>
+     * The visible columns of the table are matched by header. With a <i>keyColumn</i> the rows are matched by the value
+     * of this column and the differing cells are reported, without it the rows are matched as a whole. Empty and null
+     * cells are equal.<br>
+     * The summary is a dictionary with <i>identical</i>, the counts <i>expectedRows</i>, <i>actualRows</i>,
+     * <i>matchedRows</i>, <i>missingRows</i>, <i>extraRows</i>, <i>changedRows</i> and <i>changedCells</i>, the lists
+     * <i>missingColumns</i> and <i>extraColumns</i>, and the first differences in <i>missing</i>, <i>extra</i> and
+     * <i>changed</i>.<br>
+     *
+     * @param identifier
+     * : The id of the table
+     * @param path
+     * : The file of the expected dataset
+     * @param keyColumn
+     * : The header or the index of the key column
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Parameter</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>identifier</td>
+     *         <td>Yes</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     *     <tr>
+     *         <td>path</td>
+     *         <td>Yes</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     *     <tr>
+     *         <td>keyColumn</td>
+     *         <td>No</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     * </table>
+     *
+     * @return
+     *  The summary of the differences
+     *
+     * <br><br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>${diff}=</td>
+     *         <td>Compare Table With File</td>
+     *         <td>idTable12</td>
+     *         <td>${CURDIR}/expected.csv</td>
+     *         <td>Email</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    @ArgumentNames({"identifier", "path", "keyColumn="})
+    public Map<String, Object> compareTableWithFile(String identifier, String path, String keyColumn) {
+        TestFxLibraryValidation.validateArguments(identifier, path);
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
+
+        Path file = Paths.get(path).toAbsolutePath();
+        TestFxLibraryTableSnapshot expected;
+        try {
+            expected = TestFxLibraryTableFile.read(file);
+        } catch (IOException e) {
+            throw new TestFxLibraryNonFatalException(String.format("Unable to read the expected dataset %s", file), e);
+        }
+        String key = keyColumn == null || keyColumn.isEmpty() ? null : keyColumn;
+        return TestFxLibraryTableDiff.compare(expected, TestFxLibraryTableSnapshot.captureVisibleLeafColumns(table),
+                key);
+    }
+
+    @RobotKeywordOverload
+    public Map<String, Object> compareTableWithFile(String identifier, String path) {
+        return compareTableWithFile(identifier, path, null);
+    }
+
+    /**
+     * <b>Description:</b> This keyword returns the text rendered by a cell of the table specified with <i>identifier</i>, as
+     * displayed by the cell factory of its column, where Get Table Cell Value returns the value of the item. The
+     * table is scrolled to the cell, which is read from the rendered rows once laid out. First row and column
+     * indexes are 0.<br>
+     *
+     * @param identifier
+     * : The id of the table
+     * @param rowIndex
+     * : The row index
+     * @param columnIndex
+     * : The column index
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Parameter</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>identifier</td>
+     *         <td>Yes</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     *     <tr>
+     *         <td>rowIndex</td>
+     *         <td>Yes</td>
+     *         <td>int (0 to max row index)</td>
+     *         <td>N/A</td>
+     *     </tr>
+     *     <tr>
+     *         <td>columnIndex</td>
+     *         <td>Yes</td>
+     *         <td>int (0 to max column index)</td>
+     *         <td>N/A</td>
+     *     </tr>
+     * </table>
+     *
+     * @return
+     *  The rendered text
+     *
+     * <br><br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>${string}=</td>
+     *         <td>Get Rendered Table Cell Text</td>
+     *         <td>idTable05</td>
+     *         <td>2</td>
+     *         <td>1</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    @ArgumentNames({"identifier", "rowIndex", "columnIndex"})
+    public String getRenderedTableCellText(String identifier, int rowIndex, int columnIndex) {
+        TestFxLibraryValidation.validateIndex(rowIndex);
+        TestFxLibraryValidation.validateIndex(columnIndex);
+        TableView table = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
+
+        return TestFxLibraryVirtualCells.getText(table, rowIndex, columnIndex);
+    }
 }
@@ -1,18 +1,26 @@
 package com.altran.gdc.robotframework.testfxlibrary.keywords;
 
 import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryFatalException;
+import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryNonFatalException;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryCommon;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryFxThread;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryTreeTraversal;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryValidation;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryVirtualCells;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryWaitEngine;
 import javafx.collections.ObservableList;
 import javafx.scene.control.TreeItem;
 import org.robotframework.javalib.annotation.ArgumentNames;
 import org.robotframework.javalib.annotation.Autowired;
 import org.robotframework.javalib.annotation.RobotKeyword;
+import org.robotframework.javalib.annotation.RobotKeywordOverload;
 import org.robotframework.javalib.annotation.RobotKeywords;
 
 @RobotKeywords
 public class TreeView {
 
+    private static final String NOT_FOUND = "The Tree Item %s was not found in the Tree View %s";
+
     @Autowired
     private Wait wait;
 
@@ -185,10 +193,15 @@ public class TreeView {
     }
 
     /**
-     * <b>Description:</b> This keyword collapses the Tree View specified by <i>identifier</i>.<br>
+     * <b>Description:</b> This keyword collapses the Tree Item at <i>path</i> of the Tree View specified by
+     * <i>identifier</i>, or the root of the Tree View without <i>path</i>. The path is made of the texts of the
+     * Tree Items separated by <i>/</i>, starting from the root whose text may be left out. A <i>/</i> in a text is
+     * escaped as <i>\/</i>.<br>
      *
      * @param identifier
      * : The id of the Tree View.
+     * @param path
+     * : The path of the Tree Item
      *
      * <br><br>
      * <table summary="">
@@ -204,6 +217,12 @@ public class TreeView {
      *         <td>string</td>
      *         <td>N/A</td>
      *     </tr>
+     *     <tr>
+     *         <td>path</td>
+     *         <td>No</td>
+     *         <td>string</td>
+     *         <td>The root</td>
+     *     </tr>
      * </table>
      *
      *
@@ -214,24 +233,91 @@ public class TreeView {
      *         <td>treeView</td>
      *         <td>Collapse Tree Node</td>
      *     </tr>
+     *     <tr>
+     *         <td>treeView</td>
+     *         <td>Collapse Tree Node</td>
+     *         <td>Root/Europe/Lisbon</td>
+     *     </tr>
      * </table>
      */
     @RobotKeyword
-    @ArgumentNames({"identifier"})
-    public void collapseTreeNode(String identifier) {
+    @ArgumentNames({"identifier", "path="})
+    public void collapseTreeNode(String identifier, String path) {
         TestFxLibraryValidation.validateArguments(identifier);
 
-        wait.waitUntilPageContains(identifier);
+        javafx.scene.control.TreeView<?> treeView = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
 
-        try{
+        TestFxLibraryFxThread.run(() -> {
+            TreeItem<?> item = path == null || path.isEmpty()
+                    ? treeView.getRoot() : findByPath(treeView, identifier, path);
+            if (item == null) {
+                throw new TestFxLibraryNonFatalException(String.format("The Tree View %s has no root", identifier));
+            }
+            item.setExpanded(false);
+        });
+    }
 
-            javafx.scene.control.TreeView treeView = TestFxLibraryCommon.lookup(identifier);
+    @RobotKeywordOverload
+    public void collapseTreeNode(String identifier) {
+        collapseTreeNode(identifier, null);
+    }
 
-            treeView.getRoot().setExpanded(false);
+    /**
+     * <b>Description:</b> This keyword expands the Tree Item at <i>path</i> of the Tree View specified by
+     * <i>identifier</i> and all its ancestors. The path is made of the texts of the Tree Items separated by
+     * <i>/</i>, starting from the root whose text may be left out. A <i>/</i> in a text is escaped as
+     * <i>\/</i>.<br>
+     *
+     * @param identifier
+     * : The id of the Tree View.
+     * @param path
+     * : The path of the Tree Item
+     *
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Parameter</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>identifier</td>
+     *         <td>Yes</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     *     <tr>
+     *         <td>path</td>
+     *         <td>Yes</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     * </table>
+     *
+     *
+     * <br><br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>Expand Tree Node</td>
+     *         <td>treeView</td>
+     *         <td>Root/Europe</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    @ArgumentNames({"identifier", "path"})
+    public void expandTreeNode(String identifier, String path) {
+        TestFxLibraryValidation.validateArguments(identifier, path);
 
-        }catch (IllegalArgumentException | NullPointerException e){
-            throw new TestFxLibraryFatalException(e);
-        }
+        javafx.scene.control.TreeView<?> treeView = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
+
+        TestFxLibraryFxThread.run(() -> {
+            TreeItem<?> item = findByPath(treeView, identifier, path);
+            TestFxLibraryTreeTraversal.expandAncestors(item);
+            item.setExpanded(true);
+        });
     }
 
     /**
@@ -274,13 +360,15 @@ public class TreeView {
         try {
 
             javafx.scene.control.TreeView treeView = TestFxLibraryCommon.lookup(identifier);
-            ObservableList selectedItems = treeView.getSelectionModel().getSelectedItems();
-            String[] items = new String[selectedItems.size()];
-            for(int i=0; i < selectedItems.size(); i++){
-                TreeItem treeItem = (TreeItem) selectedItems.get(i);
-                items[i] = treeItem.getValue().toString();
-            }
-            return items;
+            return TestFxLibraryFxThread.read(() -> {
+                ObservableList selectedItems = treeView.getSelectionModel().getSelectedItems();
+                String[] items = new String[selectedItems.size()];
+                for(int i=0; i < selectedItems.size(); i++){
+                    TreeItem treeItem = (TreeItem) selectedItems.get(i);
+                    items[i] = treeItem.getValue().toString();
+                }
+                return items;
+            });
 
         } catch (IllegalArgumentException | NullPointerException e) {
             throw new TestFxLibraryFatalException(e);
@@ -290,11 +378,15 @@ public class TreeView {
 
     /**
      * <b>Description:</b> This keyword seletcs a Tree Item with the specified text <i>text</i> from a Tree View <i>identifier</i>.<br>
+     * All the Tree Items are searched, expanded or not, in the <i>order</i> depth first or breadth first, and the
+     * first one found is selected after expanding its ancestors.<br>
      *
      * @param identifier
      * : the TreeView locator
      * @param text
      * : the text of the node to be selected
+     * @param order
+     * : the order of the search
      * <br><br>
      * <table summary="">
      *     <tr>
@@ -315,6 +407,12 @@ public class TreeView {
      *         <td>string</td>
      *         <td>N/A</td>
      *     </tr>
+     *     <tr>
+     *         <td>order</td>
+     *         <td>No</td>
+     *         <td>depth | breadth</td>
+     *         <td>depth</td>
+     *     </tr>
      * </table>
      * <br><br>
      * <b>Examples:</b>
@@ -327,24 +425,167 @@ public class TreeView {
      * </table>
      */
     @RobotKeyword
-    @ArgumentNames({"identifier", "text"})
-    public void selectTreeViewNodeByText (String identifier, String text){
-        TestFxLibraryValidation.validateArguments(identifier, text);
-        wait.waitUntilPageContains(identifier);
+    @ArgumentNames({"identifier", "text", "order=depth"})
+    public void selectTreeViewNodeByText (String identifier, String text, String order){
+        TestFxLibraryValidation.validateArguments(identifier, text, order);
 
+        javafx.scene.control.TreeView<?> treeView = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
+        TestFxLibraryTreeTraversal.Order walk;
         try {
-            javafx.scene.control.TreeView treeView = TestFxLibraryCommon.lookup(identifier);
-            int count = treeView.getExpandedItemCount();
-            for (int i=0; i<count; i++){
-                TreeItem treeItem =  treeView.getTreeItem(i);
-                String itemName = (String) treeItem.getValue();
-                if (itemName.equals(text)){
-                    treeView.getSelectionModel().select(i);
-                }
-            }
-        } catch (IllegalArgumentException | NullPointerException e) {
-            throw new TestFxLibraryFatalException(e);
+            walk = TestFxLibraryTreeTraversal.Order.of(order);
+        } catch (IllegalArgumentException e) {
+            throw new TestFxLibraryFatalException(String.format("Unknown search order %s", order), e);
         }
+
+        TestFxLibraryFxThread.run(() -> {
+            TreeItem<?> item = TestFxLibraryTreeTraversal.findByText(treeView, text, walk);
+            if (item == null) {
+                throw new TestFxLibraryNonFatalException(String.format(NOT_FOUND, text, identifier));
+            }
+            select(treeView, item);
+        });
+    }
+
+    @RobotKeywordOverload
+    public void selectTreeViewNodeByText (String identifier, String text){
+        selectTreeViewNodeByText(identifier, text, TestFxLibraryTreeTraversal.Order.DEPTH.name());
+    }
+
+    /**
+     * <b>Description:</b> This keyword selects the Tree Item at <i>path</i> from a Tree View <i>identifier</i>,
+     * after expanding its ancestors. The path is made of the texts of the Tree Items separated by <i>/</i>, starting
+     * from the root whose text may be left out. A <i>/</i> in a text is escaped as <i>\/</i>.<br>
+     *
+     * @param identifier
+     * : the TreeView locator
+     * @param path
+     * : the path of the node to be selected
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Parameter</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>identifier</td>
+     *         <td>Yes</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     *     <tr>
+     *         <td>path</td>
+     *         <td>Yes</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     * </table>
+     * <br><br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>Select TreeView Node By Path</td>
+     *         <td>\#treeView</td>
+     *         <td>Root/Europe/Lisbon</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    @ArgumentNames({"identifier", "path"})
+    public void selectTreeViewNodeByPath(String identifier, String path) {
+        TestFxLibraryValidation.validateArguments(identifier, path);
+
+        javafx.scene.control.TreeView<?> treeView = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
+
+        TestFxLibraryFxThread.run(() -> {
+            select(treeView, findByPath(treeView, identifier, path));
+        });
+    }
+
+    /**
+     * <b>Description:</b> This keyword indexes the Tree Items of the Tree View <i>identifier</i> by text, so that
+     * Select TreeView Node By Text finds them without searching the tree. The index follows the changes of the
+     * Tree Items until Disable Tree Index.<br>
+     *
+     * @param identifier
+     * : the TreeView locator
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Parameter</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>identifier</td>
+     *         <td>Yes</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     * </table>
+     * <br><br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>Enable Tree Index</td>
+     *         <td>\#treeView</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    @ArgumentNames({"identifier"})
+    public void enableTreeIndex(String identifier) {
+        TestFxLibraryValidation.validateArguments(identifier);
+
+        javafx.scene.control.TreeView<?> treeView = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
+
+        TestFxLibraryFxThread.run(() -> {
+            TestFxLibraryTreeTraversal.enableIndex(treeView);
+        });
+    }
+
+    /**
+     * <b>Description:</b> This keyword drops the index of the Tree View <i>identifier</i> built by Enable Tree
+     * Index.<br>
+     *
+     * @param identifier
+     * : the TreeView locator
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Parameter</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>identifier</td>
+     *         <td>Yes</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     * </table>
+     * <br><br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>Disable Tree Index</td>
+     *         <td>\#treeView</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    @ArgumentNames({"identifier"})
+    public void disableTreeIndex(String identifier) {
+        TestFxLibraryValidation.validateArguments(identifier);
+
+        javafx.scene.control.TreeView<?> treeView = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
+
+        TestFxLibraryFxThread.run(() -> {
+            TestFxLibraryTreeTraversal.disableIndex(treeView);
+        });
     }
 
     /**
@@ -436,4 +677,75 @@ public class TreeView {
             throw  new TestFxLibraryFatalException(e);
         }
     }
+
+    /**
+     * <b>Description:</b> This keyword returns the text rendered by the cell of the row <i>index</i> of a Tree View
+     * <i>identifier</i>, as displayed by its cell factory. Only the expanded Tree Items count as rows. The Tree
+     * View is scrolled to the row, which is read from the rendered cells once laid out.<br>
+     *
+     * @param identifier
+     * : The id of the Tree View.
+     * @param index
+     * : The index of the row
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Parameter</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>identifier</td>
+     *         <td>Yes</td>
+     *         <td>string</td>
+     *         <td>N/A</td>
+     *     </tr>
+     *     <tr>
+     *         <td>index</td>
+     *         <td>Yes</td>
+     *         <td>int</td>
+     *         <td>N/A</td>
+     *     </tr>
+     * </table>
+     *
+     * @return
+     *  The rendered text
+     *
+     * <br><br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>${text}=</td>
+     *         <td>Get Rendered Tree Cell Text</td>
+     *         <td>treeView</td>
+     *         <td>2</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    @ArgumentNames({"identifier", "index"})
+    public String getRenderedTreeCellText(String identifier, int index) {
+        TestFxLibraryValidation.validateArguments(identifier);
+        TestFxLibraryValidation.validateIndex(index);
+
+        javafx.scene.control.TreeView treeView = TestFxLibraryWaitEngine.waitUntilPresent(identifier);
+
+        return TestFxLibraryVirtualCells.getText(treeView, index);
+    }
+
+    private static TreeItem<?> findByPath(javafx.scene.control.TreeView<?> treeView, String identifier,
+                                       String path) {
+        TreeItem<?> item = TestFxLibraryTreeTraversal.findByPath(treeView.getRoot(), path);
+        if (item == null) {
+            throw new TestFxLibraryNonFatalException(String.format(NOT_FOUND, path, identifier));
+        }
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void select(javafx.scene.control.TreeView<?> treeView, TreeItem<?> item) {
+        TestFxLibraryTreeTraversal.expandAncestors(item);
+        ((javafx.scene.control.TreeView<Object>) treeView).getSelectionModel().select((TreeItem<Object>) item);
+    }
 }
@@ -1,17 +1,20 @@
 package com.altran.gdc.robotframework.testfxlibrary.keywords;
 
 import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryFatalException;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryIdle;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryPollStatistics;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryProperties;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryValidation;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryWaitEngine;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryWaitPolicy;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TimeoutConstants;
-import org.awaitility.Awaitility;
 import org.hamcrest.Matchers;
 import org.robotframework.javalib.annotation.*;
 import org.testfx.service.support.WaitUntilSupport;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
 
 import static org.testfx.matcher.base.NodeMatchers.hasText;
 import static org.testfx.matcher.base.NodeMatchers.isDisabled;
@@ -80,7 +83,7 @@ public class Wait {
 
         try{
 
-            new WaitUntilSupport().waitUntil(misc.getNode(identifier), Matchers.is(isVisible()), timeout);
+            TestFxLibraryWaitEngine.waitUntil(misc.getNode(identifier), Matchers.is(isVisible()), TestFxLibraryWaitPolicy.ofSeconds(timeout));
 
         } catch (IllegalArgumentException | NullPointerException e){
 
@@ -186,7 +189,7 @@ public class Wait {
 
         try{
 
-            new WaitUntilSupport().waitUntil(misc.getNode(identifier), Matchers.not(isVisible()), timeout);
+            TestFxLibraryWaitEngine.waitUntil(misc.getNode(identifier), Matchers.not(isVisible()), TestFxLibraryWaitPolicy.ofSeconds(timeout));
 
         } catch (IllegalArgumentException | NullPointerException e){
 
@@ -300,7 +303,7 @@ public class Wait {
 
         try{
 
-            new WaitUntilSupport().waitUntil(misc.getNode(identifier), hasText(textToValidate), timeout);
+            TestFxLibraryWaitEngine.waitUntil(misc.getNode(identifier), hasText(textToValidate), TestFxLibraryWaitPolicy.ofSeconds(timeout));
 
         } catch (IllegalArgumentException | NullPointerException e){
 
@@ -423,7 +426,7 @@ public class Wait {
 
         try{
 
-            new WaitUntilSupport().waitUntil(misc.getNode(identifier), Matchers.not(hasText(textToValidate)), timeout);
+            TestFxLibraryWaitEngine.waitUntil(misc.getNode(identifier), Matchers.not(hasText(textToValidate)), TestFxLibraryWaitPolicy.ofSeconds(timeout));
 
         } catch (IllegalArgumentException | NullPointerException e){
 
@@ -537,7 +540,7 @@ public class Wait {
 
         try{
 
-            new WaitUntilSupport().waitUntil(misc.getNode(identifier), Matchers.is(isDisabled()),timeout);
+            TestFxLibraryWaitEngine.waitUntil(misc.getNode(identifier), Matchers.is(isDisabled()), TestFxLibraryWaitPolicy.ofSeconds(timeout));
 
         } catch (IllegalArgumentException | NullPointerException e){
 
@@ -642,7 +645,7 @@ public class Wait {
 
         try{
 
-            new WaitUntilSupport().waitUntil(misc.getNode(identifier), Matchers.not(isDisabled()), timeout);
+            TestFxLibraryWaitEngine.waitUntil(misc.getNode(identifier), Matchers.not(isDisabled()), TestFxLibraryWaitPolicy.ofSeconds(timeout));
 
         } catch (IllegalArgumentException | NullPointerException e){
 
@@ -744,8 +747,7 @@ public class Wait {
 
         try{
 
-            Awaitility.setDefaultTimeout(timeout, TimeUnit.SECONDS);
-            Awaitility.await().until(() -> misc.getNode(identifier) != null);
+            TestFxLibraryWaitEngine.waitUntilPresent(identifier, TestFxLibraryWaitPolicy.ofSeconds(timeout));
 
         } catch (IllegalArgumentException | NullPointerException e){
             throw new TestFxLibraryFatalException(e);
@@ -849,8 +851,7 @@ public class Wait {
 
         try{
 
-            Awaitility.setDefaultTimeout(timeout, TimeUnit.SECONDS);
-            Awaitility.await().until(() -> misc.getNode(identifier) == null);
+            TestFxLibraryWaitEngine.waitUntilAbsent(identifier, TestFxLibraryWaitPolicy.ofSeconds(timeout));
 
         } catch (IllegalArgumentException | NullPointerException e){
 
@@ -957,8 +958,7 @@ public class Wait {
         if (identifier.startsWith("#")) {
             try{
 
-                Awaitility.setDefaultTimeout(timeout, TimeUnit.SECONDS);
-                Awaitility.await().until(() -> misc.getNode(identifier) != null);
+                TestFxLibraryWaitEngine.waitUntilPresent(identifier, TestFxLibraryWaitPolicy.ofSeconds(timeout));
 
             } catch (IllegalArgumentException | NullPointerException e){
 
@@ -969,8 +969,7 @@ public class Wait {
             final String changedIdentifier = "#" + identifier;
             try {
 
-                Awaitility.setDefaultTimeout(timeout, TimeUnit.SECONDS);
-                Awaitility.await().until(() -> misc.getNode(changedIdentifier) != null);
+                TestFxLibraryWaitEngine.waitUntilPresent(changedIdentifier, TestFxLibraryWaitPolicy.ofSeconds(timeout));
 
             } catch (IllegalArgumentException | NullPointerException e) {
 
@@ -1083,8 +1082,7 @@ public class Wait {
         if (identifier.startsWith("#")) {
             try{
 
-                Awaitility.setDefaultTimeout(timeout, TimeUnit.SECONDS);
-                Awaitility.await().until(() -> misc.getNode(identifier) == null);
+                TestFxLibraryWaitEngine.waitUntilAbsent(identifier, TestFxLibraryWaitPolicy.ofSeconds(timeout));
 
             } catch (IllegalArgumentException | NullPointerException e){
 
@@ -1095,8 +1093,7 @@ public class Wait {
             final String changedIdentifier = "#" + identifier;
             try {
 
-                Awaitility.setDefaultTimeout(timeout, TimeUnit.SECONDS);
-                Awaitility.await().until(() -> misc.getNode(changedIdentifier) == null);
+                TestFxLibraryWaitEngine.waitUntilAbsent(changedIdentifier, TestFxLibraryWaitPolicy.ofSeconds(timeout));
 
             } catch (IllegalArgumentException | NullPointerException e) {
 
@@ -1196,4 +1193,169 @@ public class Wait {
             log.error("Error!");
         }
     }
+
+    /**
+     * <b>Description:</b> This keyword returns the poll statistics of the waits, for each keyword that waited.
+     * For each keyword the dictionary contains <i>waits</i> (number of waits), <i>polls</i> (times the condition
+     * was polled), <i>wakeUps</i> (times the condition was checked after a change of a watched property),
+     * <i>timeouts</i> and <i>totalMillis</i> (time spent waiting).<br>
+     *
+     * @return
+     *  The statistics of each keyword
+     *
+     * <br><br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>${statistics}=</td>
+     *         <td>Get Wait Poll Statistics</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    public Map<String, Map<String, Object>> getWaitPollStatistics() {
+        return TestFxLibraryPollStatistics.snapshot();
+    }
+
+    /**
+     * <b>Description:</b> This keyword clears the poll statistics of the waits.<br>
+     *
+     * <br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>Reset Wait Poll Statistics</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    public void resetWaitPollStatistics() {
+        TestFxLibraryPollStatistics.reset();
+    }
+
+    /**
+     * <b>Description:</b> This keyword waits until the UI is settled: the JavaFX event queue is drained and
+     * <i>quietPulses</i> consecutive pulses had no layout to do and no running animation or transition. Animations
+     * repeating indefinitely, e.g. a blinking caret or an indeterminate progress indicator, are ignored.
+     * Fails if <i>timeout</i> expires before the UI is settled.<br>
+     * Use it instead of fixed delays after actions that start asynchronous UI work.<br>
+     *
+     * @param quietPulses
+     * : The number of consecutive quiet pulses
+     * @param timeout
+     * : Timeout in seconds
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Argument</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>quietPulses</td>
+     *         <td>No</td>
+     *         <td>int (greater than 0)</td>
+     *         <td>3</td>
+     *     </tr>
+     *     <tr>
+     *         <td>timeout</td>
+     *         <td>No</td>
+     *         <td>int</td>
+     *         <td>20</td>
+     *     </tr>
+     * </table>
+     *
+     * <br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>Wait Until UI Settled</td>
+     *     </tr>
+     *     <tr>
+     *         <td>Wait Until UI Settled</td>
+     *         <td>5</td>
+     *         <td>10</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    @ArgumentNames({"quietPulses=3", "timeout=20"})
+    public void waitUntilUiSettled(int quietPulses, int timeout) {
+
+        TestFxLibraryValidation.validateTimeout(timeout);
+
+        TestFxLibraryIdle.waitUntilSettled(quietPulses, TestFxLibraryWaitPolicy.ofSeconds(timeout));
+    }
+
+    /**
+     * <b>Description:</b> This keyword waits until the UI is settled, with the default number of quiet pulses.
+     * Fails if default timeout expires before the UI is settled.<br>
+     *
+     * <br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>Wait Until UI Settled</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeywordOverload
+    public void waitUntilUiSettled() {
+
+        int waitTimeout = Integer.parseInt(TestFxLibraryProperties.getProperty(TimeoutConstants.GENERIC_TIMEOUT, "20"));
+
+        waitUntilUiSettled(TestFxLibraryIdle.DEFAULT_QUIET_PULSES, waitTimeout);
+    }
+
+    /**
+     * <b>Description:</b> This keyword enables or disables the wait until the UI is settled after every action
+     * keyword (clicks, typing, selections...). Keywords that only read, verify or wait don't settle.<br>
+     *
+     * @param enabled
+     * : true to settle after every action keyword
+     * @param quietPulses
+     * : The number of consecutive quiet pulses
+     * <br><br>
+     * <table summary="">
+     *     <tr>
+     *         <th>Argument</th>
+     *         <th>Mandatory</th>
+     *         <th>Values</th>
+     *         <th>Default</th>
+     *     </tr>
+     *     <tr>
+     *         <td>enabled</td>
+     *         <td>Yes</td>
+     *         <td>boolean</td>
+     *         <td>N/A</td>
+     *     </tr>
+     *     <tr>
+     *         <td>quietPulses</td>
+     *         <td>No</td>
+     *         <td>int (greater than 0)</td>
+     *         <td>3</td>
+     *     </tr>
+     * </table>
+     *
+     * <br>
+     * <b>Examples:</b>
+     * <table summary="">
+     *     <tr>
+     *         <td>Set Settle After Action</td>
+     *         <td>true</td>
+     *     </tr>
+     * </table>
+     */
+    @RobotKeyword
+    @ArgumentNames({"enabled", "quietPulses=3"})
+    public void setSettleAfterAction(boolean enabled, int quietPulses) {
+        TestFxLibraryProperties.setProperty(TestFxLibraryIdle.SETTLE_AFTER_ACTION, String.valueOf(enabled));
+        TestFxLibraryProperties.setProperty(TestFxLibraryIdle.SETTLE_PULSES, String.valueOf(quietPulses));
+    }
+
+    @RobotKeywordOverload
+    public void setSettleAfterAction(boolean enabled) {
+        setSettleAfterAction(enabled, TestFxLibraryIdle.DEFAULT_QUIET_PULSES);
+    }
 }
@@ -8,7 +8,10 @@ package com.altran.gdc.robotframework.testfxlibrary.keywords;
 import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryFatalException;
 import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryNonFatalException;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryCommon;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryFlightRecorder;
 import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryValidation;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryRobot;
+import com.altran.gdc.robotframework.testfxlibrary.utils.TestFxLibraryTracer;
 import javafx.application.Platform;
 import javafx.geometry.Point2D;
 import javafx.scene.Node;
@@ -21,7 +24,6 @@ import org.robotframework.javalib.annotation.RobotKeyword;
 import org.robotframework.javalib.annotation.RobotKeywords;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.testfx.api.FxRobot;
 import org.testfx.api.FxToolkitContext;
 
 import javax.imageio.ImageIO;
@@ -65,7 +67,7 @@ public class Window {
     @RobotKeyword
     public void closeCurrentWindow() {
         try {
-            new FxRobot().closeCurrentWindow();
+            TestFxLibraryRobot.input(robot -> robot.closeCurrentWindow());
         } catch (Exception e){
             LOG.error(ERROR_MSG, e);
             throw new TestFxLibraryNonFatalException("Error Close Window");
@@ -81,7 +83,7 @@ public class Window {
     @RobotKeyword
     public List<javafx.stage.Window> listTargetWindows() {
 
-        return new FxRobot().listTargetWindows();
+        return TestFxLibraryRobot.get().listTargetWindows();
     }
 
     /**
@@ -93,7 +95,7 @@ public class Window {
     @RobotKeyword
     public List<javafx.stage.Window> listWindows() {
 
-        return new FxRobot().listWindows();
+        return TestFxLibraryRobot.get().listWindows();
     }
 
     /**
@@ -130,7 +132,7 @@ public class Window {
     @ArgumentNames({"identifier"})
     public void selectWindow(String identifier) {
 
-        javafx.stage.Window window = new FxRobot().targetWindow(identifier).targetWindow();
+        javafx.stage.Window window = TestFxLibraryRobot.get().targetWindow(identifier).targetWindow();
         Platform.runLater(window::requestFocus);
 
     }
@@ -169,7 +171,7 @@ public class Window {
     @ArgumentNames({"identifier"})
     public void window(String identifier) {
 
-        new FxRobot().window(identifier);
+        TestFxLibraryRobot.get().window(identifier);
     }
 
     /**
@@ -238,6 +240,10 @@ public class Window {
 
         TestFxLibraryValidation.validateArguments(format);
 
+        TestFxLibraryFlightRecorder.ScreenCapture event = TestFxLibraryFlightRecorder.screenCapture();
+        long traced = TestFxLibraryTracer.start();
+        String fp = null;
+        boolean passed = false;
         try {
 
             Stage primaryStage = new FxToolkitContext().getPrimaryStageFuture().get();
@@ -245,15 +251,22 @@ public class Window {
             r.setBounds((int)primaryStage.getX(),(int)primaryStage.getY(),(int)primaryStage.getWidth(),(int)primaryStage.getHeight());
 
             BufferedImage image = new Robot().createScreenCapture(r);
-            String fp = filePath + fileName + counter + "." + format;
+            fp = filePath + fileName + counter + "." + format;
             ImageIO.write(image, format, new File(fp));
             //This System out print can't be removed since it is respossible for the enbbeding of the ScreenShot on the Log file
             System.out.println("*HTML* <img src=\""+ "file://" + fp.replace("\\","/") + "\">");
             counter++;
+            passed = true;
 
         } catch (Exception e){
             LOG.error(ERROR_MSG, e);
             throw new TestFxLibraryNonFatalException("Error taking screenshot");
+        } finally {
+            TestFxLibraryTracer.stop(TestFxLibraryTracer.SCREENSHOT, fp == null ? TestFxLibraryTracer.SCREENSHOT : fp,
+                    traced);
+            if (event != null) {
+                event.finish(fp, passed);
+            }
         }
     }
 
@@ -383,7 +396,7 @@ public class Window {
 
         try {
 
-            Point2D p = new FxRobot().point(identifier).query();
+            Point2D p = TestFxLibraryRobot.get().point(identifier).query();
             int[] position = new int[COMP_POSITION_SIZE];
             position[0] = (int)p.getX();
             position[1] = (int)p.getY();
@@ -437,7 +450,7 @@ public class Window {
         wait.waitUntilPageContains(identifier);
 
         try {
-            Node node = new FxRobot().lookup(identifier).query();
+            Node node = TestFxLibraryRobot.get().lookup(identifier).query();
 
             return new int[]{(int) node.getBoundsInLocal().getWidth(), (int) node.getBoundsInLocal().getHeight()};
         } catch (Exception e) {
@@ -477,7 +490,7 @@ public class Window {
         try {
             Stage stage;
             String windowTitle = "";
-            List<javafx.stage.Window> windows = new FxRobot().listTargetWindows();
+            List<javafx.stage.Window> windows = TestFxLibraryRobot.get().listTargetWindows();
             for (javafx.stage.Window window : windows) {
                 stage = (Stage) window;
                 if (stage.isFocused()) {
@@ -0,0 +1,125 @@
+package com.altran.gdc.robotframework.testfxlibrary.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formatting of a javadoc comment as keyword documentation, the same way Javadoc2Libdoc formats the xml-doclet
+ * output: the comment text followed by the parameters, the return value and the see also keywords.
+ */
+final class KeywordDocumentation {
+
+    private KeywordDocumentation() {
+    }
+
+    /**
+     * @return
+     *      The comment text without the block tags, empty for no comment
+     */
+    static String text(String comment) {
+        return comment == null ? "" : new Parsed(comment).text;
+    }
+
+    /**
+     * @return
+     *      The documentation of a keyword method
+     */
+    static String format(String comment) {
+        Parsed parsed = new Parsed(comment == null ? "" : comment);
+        return parsed.text + formatParam(parsed) + formatReturn(parsed) + formatSee(parsed);
+    }
+
+    private static String formatParam(Parsed parsed) {
+        StringBuilder builder = new StringBuilder("<br><b>Parameters:</b><br>");
+        boolean hasTag = false;
+        for (String[] tag : parsed.tags) {
+            if (!"@param".equals(tag[0])) {
+                continue;
+            }
+            hasTag = true;
+            String text = tag[1];
+            int index = text.indexOf('\n');
+            builder.append("&nbsp;&nbsp;&nbsp;&nbsp;<b>");
+            if (index > 0) {
+                builder.append(text.substring(0, index));
+            }
+            builder.append("</b>&nbsp;").append(text.substring(index + 1).trim()).append("<br>");
+        }
+        return hasTag ? builder.toString() : "";
+    }
+
+    private static String formatReturn(Parsed parsed) {
+        StringBuilder builder = new StringBuilder("<br><b>Returns:</b><br>");
+        boolean hasTag = false;
+        for (String[] tag : parsed.tags) {
+            if ("@return".equals(tag[0])) {
+                hasTag = true;
+                builder.append("&nbsp;&nbsp;&nbsp;&nbsp;").append(tag[1]).append("<br>");
+            }
+        }
+        return hasTag ? builder.toString() : "";
+    }
+
+    private static String formatSee(Parsed parsed) {
+        StringBuilder builder = new StringBuilder("<br><b>See Also:</b><br>");
+        boolean hasTag = false;
+        for (String[] tag : parsed.tags) {
+            if (!"@see".equals(tag[0]) || tag[1].trim().isEmpty()) {
+                continue;
+            }
+            hasTag = true;
+            String camelCasedKeyword = tag[1];
+            int index = camelCasedKeyword.indexOf('#');
+            if (index >= 0) {
+                camelCasedKeyword = camelCasedKeyword.substring(index + 1);
+            }
+            camelCasedKeyword = camelCasedKeyword.trim();
+            builder.append("&nbsp;&nbsp;&nbsp;&nbsp;`").append(Character.toUpperCase(camelCasedKeyword.charAt(0)));
+            for (int i = 1; i < camelCasedKeyword.length(); i++) {
+                char c = camelCasedKeyword.charAt(i);
+                if (c >= 'A' && c <= 'Z') {
+                    builder.append(' ');
+                }
+                builder.append(c);
+            }
+            builder.append("`<br>");
+        }
+        return hasTag ? builder.toString() : "";
+    }
+
+    /**
+     * A comment split in its text and its block tags, each tag as its name and its text.
+     */
+    private static final class Parsed {
+
+        private final String text;
+        private final List<String[]> tags = new ArrayList<>();
+
+        Parsed(String comment) {
+            StringBuilder description = new StringBuilder();
+            List<String> names = new ArrayList<>();
+            List<StringBuilder> texts = new ArrayList<>();
+            StringBuilder current = description;
+            for (String line : comment.split("\n", -1)) {
+                String trimmed = line.trim();
+                if (trimmed.length() > 1 && trimmed.charAt(0) == '@' && Character.isLetter(trimmed.charAt(1))) {
+                    int end = 1;
+                    while (end < trimmed.length() && !Character.isWhitespace(trimmed.charAt(end))) {
+                        end++;
+                    }
+                    names.add(trimmed.substring(0, end));
+                    current = new StringBuilder(trimmed.substring(end).trim());
+                    texts.add(current);
+                } else if (current == description) {
+                    description.append(line).append('\n');
+                } else {
+                    current.append(current.length() > 0 ? "\n" : "").append(trimmed);
+                }
+            }
+            text = description.toString().trim();
+            for (int i = 0; i < names.size(); i++) {
+                tags.add(new String[]{names.get(i), texts.get(i).toString().trim()});
+            }
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.altran.gdc.robotframework.testfxlibrary.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor writing the keyword registry of the library at build time.
+ *
+ * The registry lists the {@code @RobotKeywords} classes of the keyword package, their {@code @Autowired} fields and
+ * their keyword methods with the argument names and the overloads, so the library starts without scanning the
+ * classpath. It is a text resource of tab separated lines:
+ * <pre>
+ * class      &lt;class&gt;
+ * autowired  &lt;class&gt;  &lt;declaring class&gt;  &lt;field&gt;  &lt;field type&gt;
+ * keyword    &lt;class&gt;  &lt;method&gt;  primary|overload  &lt;parameter count&gt;  &lt;argument names...&gt;
+ * </pre>
+ * The argument names are the ones of {@code @ArgumentNames}, otherwise the parameter names with a <i>*</i> before a
+ * trailing array parameter. On an incremental build the classes of the previous registry that were not compiled again
+ * are read back from the class output.
+ *
+ * It also writes the documentation index of the keywords compiled from source, the documentation of each
+ * {@code @RobotKeyword} method formatted as Javadoc2Libdoc does, plus the <i>__intro__</i> and <i>__init__</i>
+ * documentation of the library class. The index is a binary resource: the magic <i>TFXD</i>, the version, the entry
+ * count, then one (key offset, documentation offset) pair of ints per entry sorted by key, then the length prefixed
+ * UTF-8 keys and documentations the offsets point to. The entries of the previous index are kept for the classes
+ * not compiled again.
+ */
+@SupportedAnnotationTypes(KeywordRegistryProcessor.ROBOT_KEYWORDS)
+@SupportedOptions({KeywordRegistryProcessor.KEYWORD_PACKAGE_OPTION, KeywordRegistryProcessor.LIBRARY_CLASS_OPTION})
+public class KeywordRegistryProcessor extends AbstractProcessor {
+
+    /**
+     * The registry resource, relative to the class output
+     */
+    public static final String REGISTRY = "META-INF/testfxlibrary/keywords.registry";
+
+    /**
+     * The documentation index resource, relative to the class output
+     */
+    public static final String DOCUMENTATION_INDEX = "META-INF/testfxlibrary/keywords.docindex";
+
+    /**
+     * The magic number starting the documentation index, <i>TFXD</i>
+     */
+    public static final int DOCUMENTATION_MAGIC = 0x54465844;
+
+    /**
+     * The version of the documentation index format
+     */
+    public static final int DOCUMENTATION_VERSION = 1;
+
+    /**
+     * The option giving the library class, whose comments are the introduction and the importing documentation
+     */
+    public static final String LIBRARY_CLASS_OPTION = "testfxlibrary.libraryClass";
+
+    /**
+     * The option giving the package of the keyword classes, its sub-packages included
+     */
+    public static final String KEYWORD_PACKAGE_OPTION = "testfxlibrary.keywordPackage";
+
+    static final String ROBOT_KEYWORDS = "org.robotframework.javalib.annotation.RobotKeywords";
+
+    private static final String ROBOT_KEYWORD = "org.robotframework.javalib.annotation.RobotKeyword";
+    private static final String ROBOT_KEYWORD_OVERLOAD = "org.robotframework.javalib.annotation.RobotKeywordOverload";
+    private static final String ARGUMENT_NAMES = "org.robotframework.javalib.annotation.ArgumentNames";
+    private static final String AUTOWIRED = "org.robotframework.javalib.annotation.Autowired";
+    private static final String DEFAULT_KEYWORD_PACKAGE = "com.altran.gdc.robotframework.testfxlibrary.keywords";
+    private static final String DEFAULT_LIBRARY_CLASS = "TestFXLibrary";
+    private static final String SEPARATOR = "\t";
+
+    private final Map<String, TypeElement> keywordClasses = new TreeMap<>();
+    private final Set<String> previousClasses = new TreeSet<>();
+    private final Map<String, String> documentation = new TreeMap<>();
+    private boolean previousRead;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (!previousRead) {
+            readPreviousRegistry();
+            readPreviousDocumentation();
+            previousRead = true;
+        }
+        if (!roundEnv.processingOver()) {
+            for (TypeElement annotation : annotations) {
+                for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                    if (addKeywordClass(element)) {
+                        addDocumentation((TypeElement) element);
+                    }
+                }
+            }
+            addLibraryDocumentation(roundEnv);
+            return false;
+        }
+        for (String previous : previousClasses) {
+            if (!keywordClasses.containsKey(previous)) {
+                TypeElement type = processingEnv.getElementUtils().getTypeElement(previous);
+                if (type != null && annotation(type, ROBOT_KEYWORDS) != null) {
+                    addKeywordClass(type);
+                }
+            }
+        }
+        writeRegistry();
+        if (!documentation.isEmpty()) {
+            writeDocumentationIndex();
+        }
+        return false;
+    }
+
+    private boolean addKeywordClass(Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            return false;
+        }
+        TypeElement type = (TypeElement) element;
+        String keywordPackage = processingEnv.getOptions().getOrDefault(KEYWORD_PACKAGE_OPTION,
+                DEFAULT_KEYWORD_PACKAGE);
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        // Same classes as the keyword pattern of the library: no nested classes, no classes out of the package
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL || type.getModifiers().contains(Modifier.ABSTRACT)
+                || !(packageName.equals(keywordPackage) || packageName.startsWith(keywordPackage + "."))) {
+            return false;
+        }
+        keywordClasses.put(type.getQualifiedName().toString(), type);
+        return true;
+    }
+
+    private void addDocumentation(TypeElement type) {
+        Elements elements = processingEnv.getElementUtils();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (method.getModifiers().contains(Modifier.PUBLIC) && annotation(method, ROBOT_KEYWORD) != null) {
+                documentation.put(method.getSimpleName().toString(),
+                        KeywordDocumentation.format(elements.getDocComment(method)));
+            }
+        }
+    }
+
+    private void addLibraryDocumentation(RoundEnvironment roundEnv) {
+        String libraryClass = processingEnv.getOptions().getOrDefault(LIBRARY_CLASS_OPTION, DEFAULT_LIBRARY_CLASS);
+        Elements elements = processingEnv.getElementUtils();
+        for (Element root : roundEnv.getRootElements()) {
+            if (!(root instanceof TypeElement)
+                    || !((TypeElement) root).getQualifiedName().contentEquals(libraryClass)) {
+                continue;
+            }
+            documentation.put("__intro__", KeywordDocumentation.text(elements.getDocComment(root)));
+            String init = "";
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(root.getEnclosedElements())) {
+                String comment = elements.getDocComment(constructor);
+                if (comment != null && !comment.trim().isEmpty()) {
+                    init = KeywordDocumentation.text(comment);
+                }
+            }
+            documentation.put("__init__", init);
+        }
+    }
+
+    private void readPreviousRegistry() {
+        try {
+            FileObject registry = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", REGISTRY);
+            try (Reader reader = registry.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+                for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                    if (line.startsWith("class" + SEPARATOR)) {
+                        previousClasses.add(line.substring(line.indexOf(SEPARATOR) + 1));
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // No previous registry: a full build
+        }
+    }
+
+    private void readPreviousDocumentation() {
+        try {
+            FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                    DOCUMENTATION_INDEX);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(index.openInputStream()))) {
+                if (in.readInt() != DOCUMENTATION_MAGIC || in.readInt() != DOCUMENTATION_VERSION) {
+                    return;
+                }
+                int count = in.readInt();
+                in.skipBytes(2 * Integer.BYTES * count);
+                for (int i = 0; i < count; i++) {
+                    documentation.put(readString(in), readString(in));
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // No previous index: a full build
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void writeRegistry() {
+        List<String> lines = new ArrayList<>();
+        lines.add("# Keyword registry of TestFXLibrary, generated by " + getClass().getSimpleName());
+        for (TypeElement type : keywordClasses.values()) {
+            describe(type, lines);
+        }
+        try {
+            FileObject registry = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    REGISTRY);
+            try (Writer writer = registry.openWriter()) {
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can't write the keyword registry "
+                    + REGISTRY + ": " + e.getMessage());
+        }
+    }
+
+    private void writeDocumentationIndex() {
+        List<byte[]> keys = new ArrayList<>();
+        List<byte[]> values = new ArrayList<>();
+        for (Map.Entry<String, String> entry : documentation.entrySet()) {
+            keys.add(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            values.add(entry.getValue().getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    DOCUMENTATION_INDEX);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(index.openOutputStream()))) {
+                out.writeInt(DOCUMENTATION_MAGIC);
+                out.writeInt(DOCUMENTATION_VERSION);
+                out.writeInt(keys.size());
+                int offset = 3 * Integer.BYTES + 2 * Integer.BYTES * keys.size();
+                for (int i = 0; i < keys.size(); i++) {
+                    out.writeInt(offset);
+                    offset += Integer.BYTES + keys.get(i).length;
+                    out.writeInt(offset);
+                    offset += Integer.BYTES + values.get(i).length;
+                }
+                for (int i = 0; i < keys.size(); i++) {
+                    out.writeInt(keys.get(i).length);
+                    out.write(keys.get(i));
+                    out.writeInt(values.get(i).length);
+                    out.write(values.get(i));
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can't write the documentation index "
+                    + DOCUMENTATION_INDEX + ": " + e.getMessage());
+        }
+    }
+
+    private void describe(TypeElement type, List<String> lines) {
+        String name = binaryName(type);
+        lines.add(join("class", name));
+        for (TypeElement declaring = type; declaring != null; declaring = superclass(declaring)) {
+            for (VariableElement field : ElementFilter.fieldsIn(declaring.getEnclosedElements())) {
+                if (annotation(field, AUTOWIRED) != null) {
+                    lines.add(join("autowired", name, binaryName(declaring), field.getSimpleName().toString(),
+                            typeName(field.asType())));
+                }
+            }
+        }
+        for (ExecutableElement method : ElementFilter.methodsIn(
+                processingEnv.getElementUtils().getAllMembers(type))) {
+            boolean primary = annotation(method, ROBOT_KEYWORD) != null;
+            if (!method.getModifiers().contains(Modifier.PUBLIC)
+                    || !primary && annotation(method, ROBOT_KEYWORD_OVERLOAD) == null) {
+                continue;
+            }
+            List<String> fields = new ArrayList<>();
+            fields.add("keyword");
+            fields.add(name);
+            fields.add(method.getSimpleName().toString());
+            fields.add(primary ? "primary" : "overload");
+            fields.add(String.valueOf(method.getParameters().size()));
+            fields.addAll(argumentNames(method));
+            lines.add(String.join(SEPARATOR, fields));
+        }
+    }
+
+    private List<String> argumentNames(ExecutableElement method) {
+        List<String> names = new ArrayList<>();
+        AnnotationMirror argumentNames = annotation(method, ARGUMENT_NAMES);
+        if (argumentNames != null) {
+            for (AnnotationValue value : argumentNames.getElementValues().values()) {
+                for (Object name : (List<?>) value.getValue()) {
+                    names.add(String.valueOf(((AnnotationValue) name).getValue()));
+                }
+            }
+            return names;
+        }
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            VariableElement parameter = parameters.get(i);
+            boolean varargs = i == parameters.size() - 1 && parameter.asType().getKind() == TypeKind.ARRAY;
+            names.add((varargs ? "*" : "") + parameter.getSimpleName());
+        }
+        return names;
+    }
+
+    private static AnnotationMirror annotation(Element element, String annotationType) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals(annotationType)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals(Object.class.getName()) ? null : element;
+    }
+
+    private String typeName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind() == TypeKind.DECLARED) {
+            return binaryName((TypeElement) ((DeclaredType) erased).asElement());
+        }
+        return erased.toString();
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private static String join(String... fields) {
+        return String.join(SEPARATOR, fields);
+    }
+}
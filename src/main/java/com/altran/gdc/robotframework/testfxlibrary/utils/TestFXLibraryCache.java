@@ -7,10 +7,17 @@ public class TestFXLibraryCache {
 
     private static TestFXLibraryCache instance = null;
     private Map<String, Object> map = new HashMap<>();
-    private TestFXLibraryCache(){
+    TestFXLibraryCache(){
     }
 
+    /**
+     * Get the cache of the session bound to the current thread, or the cache shared when running without sessions.
+     */
     public static synchronized TestFXLibraryCache getIstance(){
+        TestFxLibrarySession session = TestFxLibrarySession.current();
+        if (session != null) {
+            return session.getCache();
+        }
         if (instance == null) {
             instance = new TestFXLibraryCache();
         }
@@ -0,0 +1,141 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryNonFatalException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Runs a batch of keywords in the library, in order and stopping at the first failure.
+ *
+ * The steps run through the runKeyword of the library running the batch keyword, bound to the current thread, so a
+ * remote client pays one round trip for the whole batch while each step still gets the dispatch, the session and the
+ * settling after actions of a keyword called by Robot.
+ */
+public final class TestFxLibraryBatch {
+
+    public static final String PASS = "PASS";
+    public static final String FAIL = "FAIL";
+    public static final String NOT_RUN = "NOT RUN";
+
+    private static final ThreadLocal<BiFunction<String, Object[], Object>> RUNNER = new ThreadLocal<>();
+
+    private TestFxLibraryBatch() {
+    }
+
+    /**
+     * Bind the runKeyword of the library to the current thread.
+     *
+     * @param runner
+     *      The runKeyword of the library, or null to unbind it
+     * @return
+     *      The runner bound before, to bind again once the keyword is run
+     */
+    public static BiFunction<String, Object[], Object> bind(BiFunction<String, Object[], Object> runner) {
+        BiFunction<String, Object[], Object> previous = RUNNER.get();
+        if (runner == null) {
+            RUNNER.remove();
+        } else {
+            RUNNER.set(runner);
+        }
+        return previous;
+    }
+
+    /**
+     * Run the steps in order, the steps after a failed one are not run.
+     *
+     * @param steps
+     *      The steps, each a list or array of the keyword name followed by its arguments, or a keyword name alone
+     * @param failOnError
+     *      true to throw a TestFxLibraryNonFatalException when a step fails, false to only report it
+     * @return
+     *      The report of each step: index, keyword, status (PASS, FAIL or NOT RUN), millis, and the return value or
+     *      the error when there is one
+     */
+    public static List<Map<String, Object>> run(Object steps, boolean failOnError) {
+        BiFunction<String, Object[], Object> runner = RUNNER.get();
+        if (runner == null) {
+            throw new TestFxLibraryNonFatalException("The batch can only be run by the library");
+        }
+        List<Object> parsed = toList(steps);
+        List<Map<String, Object>> report = new ArrayList<>(parsed.size());
+        String failure = null;
+        for (int i = 0; i < parsed.size(); i++) {
+            List<Object> step = toList(parsed.get(i));
+            if (step.isEmpty()) {
+                throw new TestFxLibraryNonFatalException(String.format("Step %d of the batch has no keyword", i + 1));
+            }
+            String keyword = step.get(0).toString();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("index", i + 1);
+            result.put("keyword", keyword);
+            report.add(result);
+            if (failure != null) {
+                result.put("status", NOT_RUN);
+                result.put("millis", 0d);
+                continue;
+            }
+
+            long start = System.nanoTime();
+            try {
+                Object value = runner.apply(keyword, step.subList(1, step.size()).toArray());
+                result.put("status", PASS);
+                if (value != null) {
+                    result.put("return", value);
+                }
+            } catch (RuntimeException e) {
+                String error = TestFxLibraryBinaryServer.error(keywordException(e));
+                result.put("status", FAIL);
+                result.put("error", error);
+                failure = String.format("Step %d of the batch, '%s', failed: %s", i + 1, keyword, error);
+            } finally {
+                result.put("millis", (System.nanoTime() - start) / 1_000_000d);
+            }
+        }
+        if (failure != null && failOnError) {
+            throw new TestFxLibraryNonFatalException(failure);
+        }
+        return report;
+    }
+
+    /**
+     * The exception thrown by the keyword, without the RuntimeException and InvocationTargetException wrapping it on
+     * its way out of the dispatcher or of the javalib keyword invoker.
+     */
+    private static Throwable keywordException(Throwable thrown) {
+        Throwable t = thrown;
+        while ((t.getClass() == RuntimeException.class || t instanceof InvocationTargetException)
+                && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+
+    /**
+     * A list from a list, an array as given by the remote server, or a single value.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Object> toList(Object value) {
+        if (value instanceof List) {
+            return (List<Object>) value;
+        }
+        if (value instanceof Object[]) {
+            return Arrays.asList((Object[]) value);
+        }
+        if (value instanceof Iterable) {
+            List<Object> list = new ArrayList<>();
+            for (Object item : (Iterable<Object>) value) {
+                list.add(item);
+            }
+            return list;
+        }
+        List<Object> list = new ArrayList<>(1);
+        list.add(value);
+        return list;
+    }
+}
@@ -0,0 +1,220 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encoding of the binary remote protocol of {@link TestFxLibraryBinaryServer}.
+ *
+ * A message is a frame: its length as a big-endian int followed by one value. A value is a one byte tag followed by
+ * its content, with the ints, longs and doubles big-endian and the lengths and counts as ints:
+ * <pre>
+ * N                            null
+ * T / F                        true / false
+ * I int                        int, short and byte
+ * L long                       long
+ * D double                     double and float
+ * S length utf8                string, char and any other object by its toString
+ * B length bytes               byte[]
+ * A count value...             list, other arrays and iterables
+ * M count (key value)...       map, the keys as strings
+ * </pre>
+ */
+public final class TestFxLibraryBinaryCodec {
+
+    /**
+     * Sent by the client then answered by the server when the connection opens, followed by {@link #VERSION}
+     */
+    public static final byte[] MAGIC = {'T', 'F', 'X', 'B'};
+    public static final int VERSION = 1;
+
+    /**
+     * The largest frame read, bigger frames are a protocol error
+     */
+    public static final int MAX_FRAME = 256 * 1024 * 1024;
+
+    private static final byte NULL = 'N';
+    private static final byte TRUE = 'T';
+    private static final byte FALSE = 'F';
+    private static final byte INT = 'I';
+    private static final byte LONG = 'L';
+    private static final byte DOUBLE = 'D';
+    private static final byte STRING = 'S';
+    private static final byte BYTES = 'B';
+    private static final byte LIST = 'A';
+    private static final byte MAP = 'M';
+
+    private TestFxLibraryBinaryCodec() {
+    }
+
+    /**
+     * Write the value as one frame.
+     *
+     * @param out
+     *      The stream, flushed after the frame
+     * @param value
+     *      The value
+     */
+    public static void writeFrame(DataOutputStream out, Object value) throws IOException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream(256);
+        encode(new DataOutputStream(frame), value);
+        out.writeInt(frame.size());
+        frame.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Read the value of one frame.
+     *
+     * @param in
+     *      The stream
+     * @return
+     *      The value: null, Boolean, Integer, Long, Double, String, byte[], List or Map
+     */
+    public static Object readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME) {
+            throw new IOException("Invalid frame length " + length);
+        }
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        Object value;
+        try {
+            value = decode(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated frame", e);
+        }
+        if (buffer.hasRemaining()) {
+            throw new IOException(buffer.remaining() + " bytes left after the value of the frame");
+        }
+        return value;
+    }
+
+    private static void encode(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(INT);
+            out.writeInt(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            out.writeByte(BYTES);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            out.writeByte(LIST);
+            out.writeInt(length);
+            for (int i = 0; i < length; i++) {
+                encode(out, Array.get(value, i));
+            }
+        } else if (value instanceof Iterable) {
+            List<Object> items = new ArrayList<>();
+            for (Object item : (Iterable<?>) value) {
+                items.add(item);
+            }
+            out.writeByte(LIST);
+            out.writeInt(items.size());
+            for (Object item : items) {
+                encode(out, item);
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(out, String.valueOf(entry.getKey()));
+                encode(out, entry.getValue());
+            }
+        } else {
+            writeString(out, value.toString());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(STRING);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static Object decode(ByteBuffer buffer) throws IOException {
+        byte tag = buffer.get();
+        switch (tag) {
+            case NULL:
+                return null;
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INT:
+                return buffer.getInt();
+            case LONG:
+                return buffer.getLong();
+            case DOUBLE:
+                return buffer.getDouble();
+            case STRING: {
+                int length = length(buffer);
+                String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                        StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+                return value;
+            }
+            case BYTES: {
+                byte[] bytes = new byte[length(buffer)];
+                buffer.get(bytes);
+                return bytes;
+            }
+            case LIST: {
+                int count = length(buffer);
+                List<Object> list = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    list.add(decode(buffer));
+                }
+                return list;
+            }
+            case MAP: {
+                int count = length(buffer);
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < count; i++) {
+                    Object key = decode(buffer);
+                    if (!(key instanceof String)) {
+                        throw new IOException("Invalid map key " + key);
+                    }
+                    map.put((String) key, decode(buffer));
+                }
+                return map;
+            }
+            default:
+                throw new IOException("Invalid value tag " + tag);
+        }
+    }
+
+    private static int length(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Invalid length " + length);
+        }
+        return length;
+    }
+
+}
@@ -0,0 +1,257 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import org.robotframework.javalib.util.StdStreamRedirecter;
+import org.robotframework.remoteserver.library.RemoteLibrary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Listener of the binary remote protocol, next to the XML-RPC remote server and serving the same libraries.
+ *
+ * A client opens a connection by sending {@link TestFxLibraryBinaryCodec#MAGIC} and the protocol version, which the
+ * server answers alike, then sends requests and reads their responses one at a time, each a frame of the
+ * {@link TestFxLibraryBinaryCodec}. A request is a list of the method, the library path and the method arguments:
+ * <pre>
+ * [get_keyword_names, path]                        the list of keyword names
+ * [get_keyword_arguments, path, name]              the list of argument names
+ * [get_keyword_documentation, path, name]          the documentation
+ * [run_keyword, path, name, args, kwargs]          the result: status, return, output, error, traceback, fatal
+ *                                                  and continuable, as the XML-RPC run_keyword
+ * </pre>
+ * A request the server can't answer, e.g. an unknown path, gets a FAIL result with the error. Each connection is
+ * served by its own thread, so the connections, e.g. of the sessions, are served concurrently.
+ */
+public final class TestFxLibraryBinaryServer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TestFxLibraryBinaryServer.class);
+
+    private static final String PASS = "PASS";
+    private static final String FAIL = "FAIL";
+    private static final List<String> GENERIC_EXCEPTIONS = Arrays.asList("AssertionError", "AssertionFailedError",
+            "Exception", "Error", "RuntimeError", "RuntimeException", "DataError", "TimeoutError", "RemoteError");
+
+    private final Map<String, RemoteLibrary> libraries;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+
+    /**
+     * @param libraries
+     *      The libraries by path, as mapped on the XML-RPC remote server
+     * @param port
+     *      The port, 0 for any free port
+     */
+    public TestFxLibraryBinaryServer(Map<String, RemoteLibrary> libraries, int port) throws IOException {
+        this.libraries = Collections.unmodifiableMap(new HashMap<>(libraries));
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.setReuseAddress(true);
+        this.serverSocket.bind(new InetSocketAddress(port));
+        AtomicInteger count = new AtomicInteger();
+        this.connections = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "testfxlibrary-binary-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Accept the connections on a daemon thread.
+     */
+    public void start() {
+        Thread acceptor = new Thread(this::accept, "testfxlibrary-binary-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        LOG.info("Binary remote server started on port {}", getLocalPort());
+    }
+
+    public int getLocalPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stop accepting connections and close the open ones.
+     */
+    public void stop() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    LOG.error("Binary remote server failed to accept a connection", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket connection = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()))) {
+            byte[] magic = new byte[TestFxLibraryBinaryCodec.MAGIC.length];
+            in.readFully(magic);
+            int version = in.readInt();
+            if (!Arrays.equals(magic, TestFxLibraryBinaryCodec.MAGIC) || version != TestFxLibraryBinaryCodec.VERSION) {
+                LOG.warn("Binary remote server closed a connection from {}: not a protocol version {} client",
+                        connection.getRemoteSocketAddress(), TestFxLibraryBinaryCodec.VERSION);
+                return;
+            }
+            out.write(TestFxLibraryBinaryCodec.MAGIC);
+            out.writeInt(TestFxLibraryBinaryCodec.VERSION);
+            out.flush();
+            while (true) {
+                Object request = TestFxLibraryBinaryCodec.readFrame(in);
+                TestFxLibraryBinaryCodec.writeFrame(out, handle(request));
+            }
+        } catch (EOFException | SocketException e) {
+            // the client closed the connection
+        } catch (IOException e) {
+            LOG.warn("Binary remote server closed a connection", e);
+        }
+    }
+
+    /**
+     * Answer one request.
+     */
+    private Object handle(Object request) {
+        if (!(request instanceof List) || ((List<?>) request).size() < 2) {
+            return failure("Invalid request, expected [method, path, arguments...]: " + request);
+        }
+        List<?> call = (List<?>) request;
+        String method = String.valueOf(call.get(0));
+        String path = String.valueOf(call.get(1));
+        RemoteLibrary library = libraries.get(path);
+        if (library == null) {
+            return failure(String.format("No library mapped to %s", path));
+        }
+        try {
+            switch (method) {
+                case "get_keyword_names":
+                    return library.getKeywordNames();
+                case "get_keyword_arguments":
+                    return library.getKeywordArguments(argument(call, 2).toString());
+                case "get_keyword_documentation":
+                    return library.getKeywordDocumentation(argument(call, 2).toString());
+                case "run_keyword":
+                    return runKeyword(library, argument(call, 2).toString(), call.size() > 3 ? call.get(3) : null,
+                            call.size() > 4 ? call.get(4) : null);
+                default:
+                    return failure("Unknown method " + method);
+            }
+        } catch (RuntimeException e) {
+            return failure(e);
+        }
+    }
+
+    /**
+     * Run the keyword as the XML-RPC run_keyword of jrobotremoteserver does, with the standard streams captured.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> runKeyword(RemoteLibrary library, String keywordName, Object args,
+                                                  Object kwargs) {
+        Object[] arguments = args instanceof List ? ((List<?>) args).toArray() : new Object[0];
+        Map<String, Object> keywordArguments = kwargs instanceof Map ? (Map<String, Object>) kwargs
+                : Collections.emptyMap();
+        Map<String, Object> result = new HashMap<>();
+        StdStreamRedirecter redirecter = new StdStreamRedirecter();
+        redirecter.redirectStdStreams();
+        try {
+            Object value = library.runKeyword(keywordName, arguments, keywordArguments);
+            result.put("status", PASS);
+            if (value != null) {
+                result.put("return", value);
+            }
+        } catch (Throwable t) {
+            result = failure(t);
+        } finally {
+            String output = redirecter.getStdOutAsString();
+            String error = redirecter.getStdErrAsString();
+            redirecter.resetStdStreams();
+            StringBuilder captured = new StringBuilder(output == null ? "" : output);
+            if (error != null && !error.isEmpty()) {
+                if (captured.length() > 0 && captured.charAt(captured.length() - 1) != '\n') {
+                    captured.append('\n');
+                }
+                captured.append("*INFO*").append(error);
+            }
+            result.put("output", captured.toString());
+        }
+        return result;
+    }
+
+    private static Object argument(List<?> call, int index) {
+        if (call.size() <= index) {
+            throw new IllegalArgumentException(String.format("Missing argument %d of %s", index - 1, call.get(0)));
+        }
+        return call.get(index);
+    }
+
+    private static Map<String, Object> failure(String error) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("status", FAIL);
+        result.put("error", error);
+        return result;
+    }
+
+    private static Map<String, Object> failure(Throwable thrown) {
+        // unwrapped once, as ServerMethods.run_keyword does
+        Throwable t = thrown.getCause() == null ? thrown : thrown.getCause();
+        Map<String, Object> result = failure(error(t));
+        StringWriter traceback = new StringWriter();
+        t.printStackTrace(new PrintWriter(traceback));
+        result.put("traceback", traceback.toString());
+        if (isFlagSet("ROBOT_CONTINUE_ON_FAILURE", t)) {
+            result.put("continuable", true);
+        }
+        if (isFlagSet("ROBOT_EXIT_ON_FAILURE", t)) {
+            result.put("fatal", true);
+        }
+        return result;
+    }
+
+    /**
+     * The message, prefixed by the exception class name unless generic or suppressed, as ServerMethods.getError.
+     */
+    static String error(Throwable t) {
+        String name = t.getClass().getSimpleName();
+        if (GENERIC_EXCEPTIONS.contains(name) || isFlagSet("ROBOT_SUPPRESS_NAME", t)) {
+            String message = t.getMessage();
+            return message == null || message.isEmpty() ? name : message;
+        }
+        return String.format("%s: %s", t.getClass().getName(), t.getMessage());
+    }
+
+    private static boolean isFlagSet(String flag, Throwable t) {
+        try {
+            return t.getClass().getField(flag).getBoolean(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -2,21 +2,13 @@ package com.altran.gdc.robotframework.testfxlibrary.utils;
 
 import javafx.scene.Node;
 import org.python.google.common.collect.Iterables;
-import org.testfx.api.FxRobot;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class TestFxLibraryCommon {
 
-    private static final String PATTERN_COMPILE = ".*\\[\\d].*";
-    private static final int FIRST_POSITION = 1;
-    private static final int SECOND_POSITION = 2;
-    private static final int THIRD_POSITION = 3;
-
     private TestFxLibraryCommon() {
     }
 
@@ -33,72 +25,82 @@ public class TestFxLibraryCommon {
      *      The Node
      */
     public static <T extends Node> T lookup(String lookup){
-        T node;
-
-        List<Node> nodes = new ArrayList<>();
-        String nth = null;
-        String identifier;
-
-        String[] lookupStr = lookup.split("//");
-
-        // Check if has position to get element from Node list
-        String position = lookupStr[lookupStr.length-1];
+        return lookup(TestFxLibrarySelector.of(lookup));
+    }
 
-        int positionLength = position.length();
+    /**
+     * Method lookup to search specific Node from an already parsed selector.
+     *
+     * @param selector
+     *      The selector to search
+     * @param <T>
+     *      Generic Node Object
+     * @return
+     *      The Node
+     */
+    public static <T extends Node> T lookup(TestFxLibrarySelector selector){
+        TestFxLibraryFlightRecorder.NodeLookup event = TestFxLibraryFlightRecorder.nodeLookup();
+        long start = TestFxLibraryKeywordStatistics.start();
+        long traced = TestFxLibraryTracer.start();
+        int[] matched = {-1};
+        String outcome = "FAIL";
+        try {
+            T node = TestFxLibrarySession.withFxLock(() -> TestFxLibraryCommon.<T>lookupNode(selector, matched));
+            outcome = node == null ? "NOT FOUND" : "FOUND";
+            if (matched[0] < 0) {
+                matched[0] = node == null ? 0 : 1;
+            }
+            return node;
+        } finally {
+            TestFxLibraryKeywordStatistics.stop(TestFxLibraryKeywordStatistics.LOOKUP, start);
+            TestFxLibraryTracer.stop(TestFxLibraryTracer.LOOKUP, selector.getIdentifier(), traced);
+            if (event != null) {
+                event.finish(selector.getIdentifier(), Math.max(0, matched[0]), outcome);
+            }
+        }
+    }
 
-        if(hasPosition(position)){
-            nth = position.substring(positionLength-SECOND_POSITION, positionLength-FIRST_POSITION);
-            identifier = position.substring(0, positionLength-THIRD_POSITION);
+    @SuppressWarnings("unchecked")
+    private static <T extends Node> T lookupNode(TestFxLibrarySelector selector, int[] matched){
+        T node;
 
-        } else {
-            identifier = position.substring(0, positionLength);
-        }
+        String identifier = selector.getQuery();
+        Integer nth = selector.getNth();
 
         // Search Nodes and check if have children
-        if(lookupStr.length > 1){
-
-            if(hasPosition(lookupStr[0])){
+        if(selector.hasParents()){
 
-                String index = lookupStr[0].substring(lookupStr[0].length()-SECOND_POSITION, lookupStr[0].length()-FIRST_POSITION);
-                String id = lookupStr[0].substring(0, lookupStr[0].length()-THIRD_POSITION);
-                Set<T> n = new FxRobot().lookup(id).queryAll();
-                nodes.add(Iterables.get(n,Integer.valueOf(index)));
+            List<Node> nodes = new ArrayList<>();
+            if(selector.getParentNth() != null){
+                Set<T> n = TestFxLibraryRobot.get().lookup(selector.getParents().get(0)).queryAll();
+                nodes.add(Iterables.get(n, selector.getParentNth()));
             } else {
-                for(int i=0 ; i<lookupStr.length - 1; i++){
-                    Node n = new FxRobot().lookup(lookupStr[i]).query();
+                for(String parent : selector.getParents()){
+                    Node n = TestFxLibraryRobot.get().lookup(parent).query();
                     nodes.add(n);
                 }
             }
 
             if(nth != null){
-                Set<T> nodeList = new FxRobot().from(nodes).lookup(identifier).queryAll();
-                node = Iterables.get(nodeList, Integer.valueOf(nth));
+                Set<T> nodeList = TestFxLibraryRobot.get().from(nodes).lookup(identifier).queryAll();
+                matched[0] = nodeList.size();
+                node = Iterables.get(nodeList, nth);
             } else {
-                node = new FxRobot().from(nodes).lookup(identifier).query();
+                node = TestFxLibraryRobot.get().from(nodes).lookup(identifier).query();
             }
 
         }else{
-            if(nth != null){
-                Set<T> nodeList = new FxRobot().lookup(identifier).queryAll();
-                node = Iterables.get(nodeList, Integer.valueOf(nth));
+            Node indexed = nth == null ? TestFxLibrarySceneIndex.lookup(selector) : null;
+            if(indexed != null){
+                node = (T) indexed;
+            } else if(nth != null){
+                Set<T> nodeList = TestFxLibraryRobot.get().lookup(identifier).queryAll();
+                matched[0] = nodeList.size();
+                node = Iterables.get(nodeList, nth);
             } else {
-                node = new FxRobot().lookup(identifier).query();
+                node = TestFxLibraryRobot.get().lookup(identifier).query();
             }
         }
         return node;
     }
-
-    /**
-     * Verify if the string has the characters [x]
-     *
-     * @param position
-     *      The string to validate the text
-     * @return
-     *      true if contains or false if not contains.
-     */
-    private static boolean hasPosition(String position){
-        Pattern pattern = Pattern.compile(PATTERN_COMPILE);
-        Matcher matcher = pattern.matcher(position);
-        return matcher.matches();
-    }
 }
@@ -0,0 +1,122 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The keyword documentation index written at build time by the KeywordRegistryProcessor.
+ *
+ * The index is memory-mapped when it is a file, as in the classes directory, and read in one buffer when it is in a
+ * jar. The entries are sorted by keyword, so a documentation is found by a binary search of the entry table and only
+ * the keys probed and the documentation found are decoded.
+ */
+public final class TestFxLibraryDocumentationIndex {
+
+    /**
+     * The index resource, as written by the KeywordRegistryProcessor
+     */
+    public static final String RESOURCE = "META-INF/testfxlibrary/keywords.docindex";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TestFxLibraryDocumentationIndex.class);
+    private static final int MAGIC = 0x54465844;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+    private static final int ENTRY_SIZE = 2 * Integer.BYTES;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ByteBuffer buffer;
+    private final int count;
+
+    private TestFxLibraryDocumentationIndex(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IllegalArgumentException("Not a documentation index of version " + VERSION);
+        }
+        this.buffer = buffer;
+        this.count = buffer.getInt(2 * Integer.BYTES);
+    }
+
+    /**
+     * Load the index.
+     *
+     * @param loader
+     *      The class loader of the library
+     * @return
+     *      The index, or null when the library was built without it or it can't be read
+     */
+    public static TestFxLibraryDocumentationIndex load(ClassLoader loader) {
+        URL url = loader.getResource(RESOURCE);
+        if (url == null) {
+            return null;
+        }
+        try {
+            if ("file".equals(url.getProtocol())) {
+                try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+                    return new TestFxLibraryDocumentationIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                            channel.size()));
+                }
+            }
+            try (InputStream in = url.openStream()) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(BUFFER_SIZE);
+                byte[] chunk = new byte[BUFFER_SIZE];
+                for (int read = in.read(chunk); read != -1; read = in.read(chunk)) {
+                    bytes.write(chunk, 0, read);
+                }
+                return new TestFxLibraryDocumentationIndex(ByteBuffer.wrap(bytes.toByteArray()));
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            LOG.warn("The documentation index {} can't be read", RESOURCE, e);
+            return null;
+        }
+    }
+
+    /**
+     * @param keywordName
+     *      The keyword name, as the method name of the keyword, or <i>__intro__</i> or <i>__init__</i>
+     * @return
+     *      The documentation, or null if the keyword is not in the index
+     */
+    public String getKeywordDocumentation(String keywordName) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = HEADER_SIZE + middle * ENTRY_SIZE;
+            int comparison = string(buffer.getInt(entry)).compareTo(keywordName);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return string(buffer.getInt(entry + Integer.BYTES));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return
+     *      The number of documented keywords
+     */
+    public int size() {
+        return count;
+    }
+
+    private String string(int offset) {
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + Integer.BYTES);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,124 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Java Flight Recorder events of the library, in the <i>TestFX Library</i> category of a recording.
+ *
+ * Each factory method returns a begun event, or null when the event is not enabled in a running recording, so the
+ * cost without a recording is one check of the enabled flag of the event type, without creating the event. The
+ * events are implemented by <i>TestFxLibraryJfrEvents</i>, compiled from src/main/jfr by the <i>jfr</i> profile,
+ * active when building with JDK 11 or later, and found with the {@link ServiceLoader}. Without it, e.g. built or run
+ * with a JDK 8 without the jdk.jfr package, the factory methods always return null.
+ */
+public final class TestFxLibraryFlightRecorder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TestFxLibraryFlightRecorder.class);
+
+    private static final Events EVENTS = load();
+
+    private TestFxLibraryFlightRecorder() {
+    }
+
+    private static Events load() {
+        try {
+            Iterator<Events> providers = ServiceLoader.load(Events.class,
+                    TestFxLibraryFlightRecorder.class.getClassLoader()).iterator();
+            return providers.hasNext() ? providers.next() : null;
+        } catch (ServiceConfigurationError | LinkageError e) {
+            // built with the jfr profile, run on a JVM without jdk.jfr
+            LOG.debug("Flight Recorder events not available", e);
+            return null;
+        }
+    }
+
+    public static KeywordExecution keywordExecution() {
+        return EVENTS == null ? null : EVENTS.keywordExecution();
+    }
+
+    public static NodeLookup nodeLookup() {
+        return EVENTS == null ? null : EVENTS.nodeLookup();
+    }
+
+    public static WaitCondition waitCondition() {
+        return EVENTS == null ? null : EVENTS.waitCondition();
+    }
+
+    public static ScreenCapture screenCapture() {
+        return EVENTS == null ? null : EVENTS.screenCapture();
+    }
+
+    public static FxThreadHop fxThreadHop() {
+        return EVENTS == null ? null : EVENTS.fxThreadHop();
+    }
+
+    /**
+     * Provider of the events, each factory method returning a begun event or null when the event is not enabled.
+     */
+    public interface Events {
+
+        KeywordExecution keywordExecution();
+
+        NodeLookup nodeLookup();
+
+        WaitCondition waitCondition();
+
+        ScreenCapture screenCapture();
+
+        FxThreadHop fxThreadHop();
+    }
+
+    /**
+     * A keyword run by the library.
+     */
+    public interface KeywordExecution {
+
+        void finish(String keyword, String session, boolean passed);
+    }
+
+    /**
+     * A lookup of a node by its identifier.
+     */
+    public interface NodeLookup {
+
+        /**
+         * @param outcome
+         *      FOUND, NOT FOUND or FAIL
+         */
+        void finish(String identifier, int matchedNodes, String outcome);
+    }
+
+    /**
+     * A wait until a condition holds.
+     */
+    public interface WaitCondition {
+
+        void finish(long timeoutMillis, long polls, long wakeUps, boolean satisfied);
+    }
+
+    /**
+     * A screenshot of the primary stage.
+     */
+    public interface ScreenCapture {
+
+        void finish(String path, boolean passed);
+    }
+
+    /**
+     * A read run on the JavaFX application thread and awaited by the keyword.
+     */
+    public interface FxThreadHop {
+
+        /**
+         * Mark the start of the read, on the JavaFX application thread.
+         */
+        void started();
+
+        void finish(boolean passed);
+    }
+}
@@ -0,0 +1,119 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryNonFatalException;
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs reads and changes of the controls on the JavaFX application thread.
+ *
+ * A whole read closure runs in a single Platform.runLater hop, so the keyword gets a consistent snapshot of the
+ * control for the cost of one thread handoff, instead of many property reads racing the application from the Robot
+ * thread.
+ */
+public final class TestFxLibraryFxThread {
+
+    private TestFxLibraryFxThread() {
+    }
+
+    /**
+     * Run the read on the JavaFX application thread, directly if already on it.
+     *
+     * @param read
+     *      The read closure
+     * @return
+     *      The future result of the read
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> read) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        String keyword = TestFxLibraryTracer.isEnabled() ? TestFxLibraryPollStatistics.getCurrentKeyword() : null;
+        // the lookups and properties of the read are those of the session of the keyword
+        TestFxLibrarySession session = TestFxLibrarySession.current();
+        Runnable task = () -> {
+            long traced = TestFxLibraryTracer.start();
+            try {
+                future.complete(TestFxLibrarySession.bind(session, read));
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+            } finally {
+                TestFxLibraryTracer.stop(TestFxLibraryTracer.RUN_LATER, TestFxLibraryTracer.RUN_LATER, keyword, traced);
+            }
+        };
+        if (Platform.isFxApplicationThread()) {
+            task.run();
+        } else {
+            Platform.runLater(task);
+        }
+        return future;
+    }
+
+    /**
+     * Run a change of the controls, e.g. expanding or selecting an item, on the JavaFX application thread and wait
+     * for it, at most the generic timeout.
+     *
+     * @param write
+     *      The change
+     */
+    public static void run(Runnable write) {
+        read(() -> {
+            write.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run the read on the JavaFX application thread and wait for its result, at most the generic timeout.
+     *
+     * @param read
+     *      The read closure
+     * @return
+     *      The result of the read. A RuntimeException thrown by the read is rethrown as is.
+     */
+    public static <T> T read(Supplier<T> read) {
+        int timeout = Integer.parseInt(TestFxLibraryProperties.getProperty(TimeoutConstants.GENERIC_TIMEOUT,
+                String.valueOf(TestFxLibraryConstants.DEFAULT_TIMEOUT)));
+        TestFxLibraryFlightRecorder.FxThreadHop event = TestFxLibraryFlightRecorder.fxThreadHop();
+        long start = TestFxLibraryKeywordStatistics.start();
+        long traced = TestFxLibraryTracer.start();
+        boolean passed = false;
+        try {
+            T result = TestFxLibrarySession.withFxLock(() -> await(supply(event == null ? read : () -> {
+                event.started();
+                return read.get();
+            }), timeout));
+            passed = true;
+            return result;
+        } finally {
+            TestFxLibraryKeywordStatistics.stop(TestFxLibraryKeywordStatistics.FX_THREAD, start);
+            TestFxLibraryTracer.stop(TestFxLibraryTracer.FX_THREAD, TestFxLibraryTracer.FX_THREAD, traced);
+            if (event != null) {
+                event.finish(passed);
+            }
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future, int timeout) {
+        try {
+            return future.get(timeout, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new TestFxLibraryNonFatalException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new TestFxLibraryNonFatalException(String.format(
+                    "The JavaFX application thread did not run the read in %d seconds", timeout), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TestFxLibraryNonFatalException("Read interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryNonFatalException;
+import javafx.animation.Animation;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Detection of an idle JavaFX application thread, synchronized on the pulses.
+ *
+ * The UI is settled when a number of consecutive pulses found the event queue drained (a marker posted with
+ * Platform.runLater at the previous pulse has run), no scene needing a layout pass and no running Animation or
+ * Transition. Running animations are read from the pulse receivers of the toolkit master timer, which is internal
+ * API: when it can't be read, animations are not detected. Animations with an INDEFINITE cycle count never stop,
+ * e.g. the caret blink of a focused text field or an indeterminate progress indicator, so they are ignored.
+ */
+public final class TestFxLibraryIdle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TestFxLibraryIdle.class);
+
+    /**
+     * Property enabling the settle after each action keyword, see {@link #settleAfterAction(String)}.
+     */
+    public static final String SETTLE_AFTER_ACTION = "SettleAfterAction";
+
+    /**
+     * Property with the number of quiet pulses used by the settle after each action keyword.
+     */
+    public static final String SETTLE_PULSES = "SettlePulses";
+
+    public static final int DEFAULT_QUIET_PULSES = 3;
+
+    // The keywords acting on the UI, by normalized name; the keywords reading, asserting or waiting don't settle
+    private static final Set<String> ACTION_KEYWORDS = new HashSet<>(Arrays.asList(
+            "clearselectionfromlist", "cleartextarea", "cleartextfield", "cleartreeselection",
+            "clickcomponentatcoordinates", "clickoncomponent", "closecurrentwindow", "collapsetreenode",
+            "doubleclickoncomponent", "drag", "drop", "dropto", "erasetext", "expandtreenode", "focustocomponent",
+            "maximizewindow", "moveby", "moveto", "press", "release", "rightclickoncomponent",
+            "scrollcomponenttoview", "scrolldown", "scrollleft", "scrollright", "scrollup", "selectallfromlist",
+            "selectfirstfromcombobox", "selectfromcomboboxbyposition", "selectfromcomboboxbytext",
+            "selectfromlistviewbyposition", "selectfromlistviewbytext", "selectfrompopupmenu",
+            "selectitemsfromlistview", "selectmainwindow", "selecttreenodebyindex", "selecttreeviewnodebypath",
+            "selectwindow", "setcheckboxstate", "setcolorpickercolor", "setdatepickerdate", "sethyperlinkstatus",
+            "setscrollbarvalue", "setscrollpanehorizontalvalue", "setscrollpaneverticalvalue", "spinnerdecrement",
+            "spinnerincrement", "spinnersetvalue", "startapplication", "startjarapplication", "switchapplication",
+            "textareaappendtext", "textfieldappendtext", "type", "unselectfromlistbyposition",
+            "unselectfromlistbytext", "unselecttreenodebyindex", "write"));
+
+    private static final AtomicBoolean ANIMATIONS_UNAVAILABLE = new AtomicBoolean();
+
+    private static volatile Field receiversLength;
+    private static volatile Field receivers;
+    private static volatile Object masterTimer;
+
+    private TestFxLibraryIdle() {
+    }
+
+    /**
+     * Wait until the UI is settled.
+     *
+     * @param quietPulses
+     *      The number of consecutive pulses without work
+     * @param policy
+     *      The wait policy, only its timeout is used
+     */
+    public static void waitUntilSettled(int quietPulses, TestFxLibraryWaitPolicy policy) {
+        if (Platform.isFxApplicationThread()) {
+            throw new TestFxLibraryNonFatalException("Can't wait for the UI to settle on the JavaFX application thread");
+        }
+        CompletableFuture<Void> settled = new CompletableFuture<>();
+        PulseCounter counter = new PulseCounter(Math.max(1, quietPulses), settled);
+        try {
+            Platform.runLater(counter::start);
+        } catch (IllegalStateException e) {
+            // The toolkit isn't running, there is nothing to settle
+            return;
+        }
+        // the pulses don't need the JavaFX lock of the session, let the other sessions run meanwhile
+        int holds = TestFxLibrarySession.releaseFxLock();
+        try {
+            settled.get(policy.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new TestFxLibraryNonFatalException(String.format(
+                    "The UI did not settle in %d ms", policy.getTimeoutMillis()), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TestFxLibraryNonFatalException("Wait interrupted", e);
+        } catch (ExecutionException e) {
+            throw new TestFxLibraryNonFatalException(e.getCause());
+        } finally {
+            TestFxLibrarySession.reacquireFxLock(holds);
+            Platform.runLater(counter::stop);
+        }
+    }
+
+    /**
+     * Wait until the UI is settled after an action keyword, if enabled with the {@link #SETTLE_AFTER_ACTION} property.
+     * The action keywords are the keywords of clicks, typing, drags, scrolls, selections and window changes.
+     *
+     * @param keywordName
+     *      The name of the keyword just run
+     */
+    public static void settleAfterAction(String keywordName) {
+        if (!Boolean.parseBoolean(TestFxLibraryProperties.getProperty(SETTLE_AFTER_ACTION, "false"))
+                || !isAction(keywordName)) {
+            return;
+        }
+        int pulses = Integer.parseInt(TestFxLibraryProperties.getProperty(SETTLE_PULSES,
+                String.valueOf(DEFAULT_QUIET_PULSES)));
+        int timeout = Integer.parseInt(TestFxLibraryProperties.getProperty(TimeoutConstants.GENERIC_TIMEOUT,
+                String.valueOf(TestFxLibraryConstants.DEFAULT_TIMEOUT)));
+        waitUntilSettled(pulses, TestFxLibraryWaitPolicy.ofSeconds(timeout));
+    }
+
+    private static boolean isAction(String keywordName) {
+        return ACTION_KEYWORDS.contains(keywordName.replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Check that no scene of a showing window needs a layout pass. Must run on the JavaFX application thread.
+     */
+    private static boolean layoutClean() {
+        ObservableList<? extends Window> windows = TestFxLibrarySceneIndex.windowList();
+        if (windows == null) {
+            return true;
+        }
+        for (Window window : windows) {
+            Scene scene = window.getScene();
+            if (window.isShowing() && scene != null && scene.getRoot() != null && scene.getRoot().isNeedsLayout()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check that no Animation or Transition with a finite cycle count is running. Must run on the JavaFX application
+     * thread.
+     */
+    private static boolean animationsStopped() {
+        if (ANIMATIONS_UNAVAILABLE.get()) {
+            return true;
+        }
+        try {
+            if (receiversLength == null) {
+                Object toolkit = Class.forName("com.sun.javafx.tk.Toolkit").getMethod("getToolkit").invoke(null);
+                Method getTimer;
+                try {
+                    getTimer = toolkit.getClass().getMethod("getPrimaryTimer");
+                } catch (NoSuchMethodException e) {
+                    getTimer = toolkit.getClass().getMethod("getMasterTimer");
+                }
+                Object timer = getTimer.invoke(toolkit);
+                Class<?> type = timer.getClass();
+                Field length = declaredField(type, "receiversLength");
+                Field array = declaredField(type, "receivers");
+                masterTimer = timer;
+                receivers = array;
+                receiversLength = length;
+            }
+            int length = receiversLength.getInt(masterTimer);
+            Object[] running = (Object[]) receivers.get(masterTimer);
+            for (int i = 0; i < length && i < running.length; i++) {
+                Animation animation = animationOf(running[i]);
+                if (animation.getCycleCount() != Animation.INDEFINITE) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            if (ANIMATIONS_UNAVAILABLE.compareAndSet(false, true)) {
+                LOG.warn("Unable to read the running animations, they are ignored by the UI settle detection", e);
+            }
+            return true;
+        }
+    }
+
+    private static Field declaredField(Class<?> type, String name) throws NoSuchFieldException {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            try {
+                Field field = current.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException e) {
+                // declared by a superclass
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+
+    /**
+     * Get the Animation of a pulse receiver of the master timer, an inner class or lambda capturing its animation.
+     */
+    private static Animation animationOf(Object receiver) throws ReflectiveOperationException {
+        if (receiver instanceof Animation) {
+            return (Animation) receiver;
+        }
+        for (Field field : receiver.getClass().getDeclaredFields()) {
+            if (Animation.class.isAssignableFrom(field.getType())) {
+                field.setAccessible(true);
+                Object animation = field.get(receiver);
+                if (animation != null) {
+                    return (Animation) animation;
+                }
+            }
+        }
+        throw new NoSuchFieldException("No Animation in the pulse receiver " + receiver.getClass().getName());
+    }
+
+    /**
+     * Counts the consecutive quiet pulses.
+     */
+    private static final class PulseCounter extends AnimationTimer {
+
+        private final int quietPulses;
+        private final CompletableFuture<Void> settled;
+        private volatile boolean markerRun;
+        private int quiet;
+
+        PulseCounter(int quietPulses, CompletableFuture<Void> settled) {
+            this.quietPulses = quietPulses;
+            this.settled = settled;
+        }
+
+        @Override
+        public void start() {
+            if (!settled.isDone()) {
+                super.start();
+            }
+        }
+
+        @Override
+        public void handle(long now) {
+            if (markerRun && layoutClean() && animationsStopped()) {
+                quiet++;
+            } else {
+                quiet = 0;
+            }
+            if (quiet >= quietPulses) {
+                stop();
+                settled.complete(null);
+                return;
+            }
+            markerRun = false;
+            Platform.runLater(() -> markerRun = true);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import org.robotframework.javalib.annotation.RobotKeyword;
+import org.robotframework.javalib.util.KeywordNameNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Holder of the keyword class instances, created on first use from the keyword registry.
+ *
+ * A keyword class is loaded, created and autowired when one of its keywords is first run, with the keyword classes
+ * of its {@code @Autowired} fields created before it. As the fields are typed with the concrete keyword classes, a
+ * dependency is created with the first class needing it rather than behind a proxy. Each creation is recorded with
+ * its own duration, the durations of the dependencies it created excluded, for the initialization report.
+ */
+public final class TestFxLibraryKeywordClasses {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TestFxLibraryKeywordClasses.class);
+    private static final KeywordNameNormalizer NORMALIZER = new KeywordNameNormalizer();
+
+    private static volatile TestFxLibraryKeywordClasses current;
+
+    private final TestFxLibraryKeywordRegistry registry;
+    private final ClassLoader loader;
+    private final Consumer<Object> created;
+    private final Map<String, Object> instances = new HashMap<>();
+    private final List<Map<String, Object>> report = new ArrayList<>();
+    private long nestedNanos;
+
+    /**
+     * @param registry
+     *      The keyword registry
+     * @param loader
+     *      The class loader of the keyword classes
+     * @param created
+     *      Called with each keyword class instance once it is autowired
+     */
+    public TestFxLibraryKeywordClasses(TestFxLibraryKeywordRegistry registry, ClassLoader loader,
+                                       Consumer<Object> created) {
+        this.registry = registry;
+        this.loader = loader;
+        this.created = created;
+        current = this;
+    }
+
+    /**
+     * Create the keyword class declaring the keyword, if not created yet.
+     *
+     * @param keywordName
+     *      The keyword name, in any form Robot gives it
+     * @return
+     *      true if a keyword class was created
+     */
+    public synchronized boolean initialize(String keywordName) {
+        String className = registry.getKeywordClass(keywordName);
+        if (className == null || instances.containsKey(className)) {
+            return false;
+        }
+        get(className);
+        return true;
+    }
+
+    /**
+     * Get the instance of a keyword class, creating it and its dependencies if needed.
+     *
+     * @param className
+     *      The name of a keyword class of the registry
+     * @return
+     *      The autowired instance
+     */
+    public synchronized Object get(String className) {
+        Object instance = instances.get(className);
+        if (instance != null) {
+            return instance;
+        }
+        long outerNanos = nestedNanos;
+        nestedNanos = 0;
+        long start = System.nanoTime();
+        List<String> dependencies = new ArrayList<>();
+        boolean autowired = false;
+        try {
+            Class<?> keywordClass = Class.forName(className, true, loader);
+            instance = keywordClass.getDeclaredConstructor().newInstance();
+            // Registered before the autowiring, so that dependency cycles end on this instance
+            instances.put(className, instance);
+            for (TestFxLibraryKeywordRegistry.AutowiredField field : registry.getAutowiredFields(className)) {
+                Field target = Class.forName(field.getDeclaringClass(), false, loader)
+                        .getDeclaredField(field.getName());
+                target.setAccessible(true);
+                target.set(instance, get(field.getType()));
+                dependencies.add(field.getType());
+            }
+            autowired = true;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(String.format("Can't create the keyword class '%s'.", className), e);
+        } finally {
+            if (!autowired) {
+                instances.remove(className);
+                nestedNanos = outerNanos;
+            }
+        }
+        long totalNanos = System.nanoTime() - start;
+        long ownNanos = totalNanos - nestedNanos;
+        nestedNanos = outerNanos + totalNanos;
+
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("class", className);
+        record.put("order", report.size() + 1);
+        record.put("millis", TimeUnit.NANOSECONDS.toMicros(ownNanos) / 1000.0);
+        record.put("dependencies", dependencies);
+        report.add(record);
+        LOG.debug("Keyword class {} initialized in {} ms", className, record.get("millis"));
+        created.accept(instance);
+        return instance;
+    }
+
+    /**
+     * Get the documentation given in the {@code @RobotKeyword} annotation of the keyword. The keyword class is loaded
+     * but not created.
+     *
+     * @param keywordName
+     *      The keyword name, in any form Robot gives it
+     * @return
+     *      The documentation, empty if the annotation has none
+     * @throws IllegalArgumentException
+     *      If the keyword is not in the registry
+     */
+    public String getAnnotatedDocumentation(String keywordName) {
+        String className = registry.getKeywordClass(keywordName);
+        if (className == null) {
+            throw new IllegalArgumentException(String.format("No keyword '%s' in the library.", keywordName));
+        }
+        String normalized = NORMALIZER.normalize(keywordName);
+        try {
+            for (Method method : Class.forName(className, false, loader).getMethods()) {
+                RobotKeyword keyword = method.getAnnotation(RobotKeyword.class);
+                if (keyword != null && normalized.equals(NORMALIZER.normalize(method.getName()))) {
+                    return keyword.value();
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(String.format("Can't load the keyword class '%s'.", className), e);
+        }
+        return "";
+    }
+
+    /**
+     * @return
+     *      The number of keyword classes created
+     */
+    public synchronized int size() {
+        return instances.size();
+    }
+
+    /**
+     * The keyword classes created by the holder of the session bound to the current thread, or else by the last
+     * holder, in creation order, each with its order, its own creation
+     * duration in milliseconds and its dependencies.
+     *
+     * @return
+     *      The report, empty when the keyword classes were created up front by a classpath scan
+     */
+    public static List<Map<String, Object>> getReport() {
+        TestFxLibrarySession session = TestFxLibrarySession.current();
+        TestFxLibraryKeywordClasses classes = session == null ? current : session.getKeywordClasses();
+        if (classes == null) {
+            return Collections.emptyList();
+        }
+        synchronized (classes) {
+            List<Map<String, Object>> copy = new ArrayList<>();
+            for (Map<String, Object> record : classes.report) {
+                copy.add(new LinkedHashMap<>(record));
+            }
+            return copy;
+        }
+    }
+}
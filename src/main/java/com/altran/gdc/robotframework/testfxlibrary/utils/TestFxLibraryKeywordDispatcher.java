@@ -0,0 +1,355 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import org.robotframework.javalib.annotation.RobotKeyword;
+import org.robotframework.javalib.annotation.RobotKeywordOverload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keyword dispatch through precompiled MethodHandles, in front of the reflective dispatch of the AnnotationLibrary.
+ *
+ * Each keyword method of the keyword beans is compiled once to a handle taking the Robot arguments as an Object array,
+ * with the argument coercers of javalib-core bound in: the primitive and boxed numbers and booleans are parsed from
+ * the argument text, String parameters take the argument text and a trailing array parameter collects the remaining
+ * arguments as Strings. The overloads are chosen by argument count, as the AnnotationLibrary does. A call is a lookup
+ * of the keyword name followed by the invoke of the handle, with no copy of the arguments.
+ * The keyword beans created after the dispatcher, as the keyword classes created on first use, are compiled when
+ * they are added.
+ * Failures are rethrown wrapped as the KeywordInvoker of javalib-core does, so Robot and the remote server see the
+ * same exceptions: a failure of the keyword method as a RuntimeException caused by an InvocationTargetException caused
+ * by the failure, a failure of the argument conversion as a RuntimeException caused by the failure.
+ * The keywords are immutable and replaced when a bean adds an overload, so they are safely read without a lock.
+ */
+public final class TestFxLibraryKeywordDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TestFxLibraryKeywordDispatcher.class);
+
+    /**
+     * Returned by {@link #run(String, Object[])} when the keyword has no handle for the arguments.
+     */
+    public static final Object NOT_DISPATCHED = new Object();
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GENERIC = MethodType.methodType(Object.class, Object[].class);
+    private static final Map<Class<?>, MethodHandle> COERCERS = new HashMap<>();
+    private static final MethodHandle TARGET_FAILED;
+
+    static {
+        try {
+            TARGET_FAILED = LOOKUP.findStatic(TestFxLibraryKeywordDispatcher.class, "targetFailed",
+                    MethodType.methodType(Object.class, Throwable.class));
+            coercer(int.class, "toInt");
+            coercer(Integer.class, "toInteger");
+            coercer(long.class, "toLongValue");
+            coercer(Long.class, "toLong");
+            coercer(short.class, "toShortValue");
+            coercer(Short.class, "toShort");
+            coercer(byte.class, "toByteValue");
+            coercer(Byte.class, "toByte");
+            coercer(boolean.class, "toBooleanValue");
+            coercer(Boolean.class, "toBoolean");
+            coercer(float.class, "toFloatValue");
+            coercer(Float.class, "toFloat");
+            coercer(double.class, "toDoubleValue");
+            coercer(Double.class, "toDouble");
+            coercer(String.class, "toText");
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Map<String, Keyword> keywords = new ConcurrentHashMap<>();
+    private final Map<String, Keyword> resolved = new ConcurrentHashMap<>();
+    private final boolean invokeTargets;
+
+    /**
+     * Compile the keyword methods of the beans.
+     *
+     * @param beans
+     *      The keyword beans, as created and autowired by the AnnotationLibrary
+     */
+    public TestFxLibraryKeywordDispatcher(Collection<?> beans) {
+        this(beans, true);
+    }
+
+    private TestFxLibraryKeywordDispatcher(Collection<?> beans, boolean invokeTargets) {
+        this.invokeTargets = invokeTargets;
+        for (Object bean : beans) {
+            add(bean);
+        }
+    }
+
+    /**
+     * Create a dispatcher doing everything but running the keyword methods, to measure the dispatch overhead.
+     *
+     * @param beans
+     *      The keyword beans
+     * @return
+     *      The dispatcher, whose keywords return null
+     */
+    public static TestFxLibraryKeywordDispatcher withoutTargets(Collection<?> beans) {
+        return new TestFxLibraryKeywordDispatcher(beans, false);
+    }
+
+    /**
+     * Compile the keyword methods of a keyword bean created after the dispatcher.
+     *
+     * @param bean
+     *      The keyword bean, autowired
+     */
+    public synchronized void add(Object bean) {
+        for (Method method : bean.getClass().getMethods()) {
+            boolean primary = method.isAnnotationPresent(RobotKeyword.class);
+            if (!primary && !method.isAnnotationPresent(RobotKeywordOverload.class)) {
+                continue;
+            }
+            try {
+                MethodHandle handle = compile(bean, method, invokeTargets);
+                keywords.merge(normalize(method.getName()), Keyword.EMPTY.with(method, handle, primary),
+                        (known, added) -> known.with(method, handle, primary));
+            } catch (IllegalAccessException | RuntimeException e) {
+                LOG.debug("Keyword {} left to the reflective dispatch", method.getName(), e);
+            }
+        }
+        // The resolved names may map to the replaced keywords
+        resolved.clear();
+    }
+
+    /**
+     * Run the keyword.
+     *
+     * @param keywordName
+     *      The keyword name, as given by Robot
+     * @param args
+     *      The arguments, as given by Robot
+     * @return
+     *      The result of the keyword, or {@link #NOT_DISPATCHED} when the reflective dispatch must run it
+     */
+    public Object run(String keywordName, Object[] args) {
+        Keyword keyword = resolved.get(keywordName);
+        if (keyword == null) {
+            keyword = keywords.get(normalize(keywordName));
+            if (keyword == null) {
+                return NOT_DISPATCHED;
+            }
+            resolved.put(keywordName, keyword);
+        }
+        return keyword.invoke(args);
+    }
+
+    /**
+     * @return
+     *      The number of keywords compiled to handles
+     */
+    public int size() {
+        return keywords.size();
+    }
+
+    /**
+     * The keyword name as normalized by javalib-core.
+     */
+    private static String normalize(String keywordName) {
+        StringBuilder normalized = new StringBuilder(keywordName.length());
+        String lower = keywordName.toLowerCase(Locale.ENGLISH).trim();
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c != ' ' && c != '_' && c != '\t' && c != '\r' && c != '\n') {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Compile the method to a handle of type (Object[])Object with the coercers of its parameters bound in.
+     */
+    private static MethodHandle compile(Object bean, Method method, boolean invokeTargets) throws IllegalAccessException {
+        Class<?>[] types = method.getParameterTypes();
+        MethodHandle target;
+        if (invokeTargets) {
+            target = LOOKUP.unreflect(method).bindTo(bean);
+        } else {
+            MethodHandle empty = MethodHandles.constant(Object.class, null);
+            target = MethodHandles.dropArguments(empty, 0, types).asType(MethodType.methodType(method.getReturnType()
+                    == void.class ? void.class : Object.class, types));
+        }
+        // Only the failures of the method are wrapped, not those of the coercers bound in below
+        MethodHandle thrower = MethodHandles.dropArguments(TARGET_FAILED.asType(MethodType.methodType(target.type().returnType(),
+                Throwable.class)), 1, types);
+        target = MethodHandles.catchException(target, Throwable.class, thrower);
+        MethodHandle[] filters = new MethodHandle[types.length];
+        for (int i = 0; i < types.length; i++) {
+            filters[i] = coercerFor(types[i], i == types.length - 1);
+        }
+        target = MethodHandles.filterArguments(target, 0, filters);
+        return target.asType(target.type().changeReturnType(Object.class)).asSpreader(Object[].class, types.length)
+                .asType(GENERIC);
+    }
+
+    private static Object targetFailed(Throwable failure) throws InvocationTargetException {
+        throw new InvocationTargetException(failure);
+    }
+
+    private static MethodHandle coercerFor(Class<?> type, boolean last) {
+        MethodHandle coercer = COERCERS.get(type);
+        if (coercer != null) {
+            return coercer;
+        }
+        try {
+            if (last && type == String[].class) {
+                return LOOKUP.findStatic(TestFxLibraryKeywordDispatcher.class, "toTexts",
+                        MethodType.methodType(String[].class, Object.class));
+            }
+            // Any other type takes the argument when assignable, as javalib-core does
+            MethodHandle assignable = LOOKUP.findStatic(TestFxLibraryKeywordDispatcher.class, "toAssignable",
+                    MethodType.methodType(Object.class, Class.class, Object.class));
+            return MethodHandles.insertArguments(assignable, 0, type)
+                    .asType(MethodType.methodType(type, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void coercer(Class<?> type, String name) throws ReflectiveOperationException {
+        COERCERS.put(type, LOOKUP.findStatic(TestFxLibraryKeywordDispatcher.class, name,
+                MethodType.methodType(type, Object.class)));
+    }
+
+    private static int toInt(Object arg) {
+        return Integer.parseInt(arg.toString());
+    }
+
+    private static Integer toInteger(Object arg) {
+        return Integer.valueOf(arg.toString());
+    }
+
+    private static long toLongValue(Object arg) {
+        return Long.parseLong(arg.toString());
+    }
+
+    private static Long toLong(Object arg) {
+        return Long.valueOf(arg.toString());
+    }
+
+    private static short toShortValue(Object arg) {
+        return Short.parseShort(arg.toString());
+    }
+
+    private static Short toShort(Object arg) {
+        return Short.valueOf(arg.toString());
+    }
+
+    private static byte toByteValue(Object arg) {
+        return Byte.parseByte(arg.toString());
+    }
+
+    private static Byte toByte(Object arg) {
+        return Byte.valueOf(arg.toString());
+    }
+
+    private static boolean toBooleanValue(Object arg) {
+        return Boolean.parseBoolean(arg.toString());
+    }
+
+    private static Boolean toBoolean(Object arg) {
+        return Boolean.valueOf(arg.toString());
+    }
+
+    private static float toFloatValue(Object arg) {
+        return Float.parseFloat(arg.toString());
+    }
+
+    private static Float toFloat(Object arg) {
+        return Float.valueOf(arg.toString());
+    }
+
+    private static double toDoubleValue(Object arg) {
+        return Double.parseDouble(arg.toString());
+    }
+
+    private static Double toDouble(Object arg) {
+        return Double.valueOf(arg.toString());
+    }
+
+    private static String toText(Object arg) {
+        return arg.toString();
+    }
+
+    private static String[] toTexts(Object arg) {
+        Object[] args = (Object[]) arg;
+        String[] texts = new String[args.length];
+        for (int i = 0; i < args.length; i++) {
+            texts[i] = args[i].toString();
+        }
+        return texts;
+    }
+
+    private static Object toAssignable(Class<?> type, Object arg) {
+        return type.isInstance(arg) ? arg : null;
+    }
+
+    /**
+     * The handles of a keyword by argument count. A keyword whose primary method ends with an array parameter takes
+     * any count of trailing arguments. Immutable: adding a method creates a new keyword.
+     */
+    private static final class Keyword {
+
+        static final Keyword EMPTY = new Keyword(new MethodHandle[0], null, 0);
+
+        private final MethodHandle[] byCount;
+        private final MethodHandle varargs;
+        private final int fixedCount;
+
+        private Keyword(MethodHandle[] byCount, MethodHandle varargs, int fixedCount) {
+            this.byCount = byCount;
+            this.varargs = varargs;
+            this.fixedCount = fixedCount;
+        }
+
+        Keyword with(Method method, MethodHandle handle, boolean primary) {
+            int count = method.getParameterCount();
+            if (primary && count > 0 && method.getParameterTypes()[count - 1].isArray()) {
+                return new Keyword(byCount, handle, count - 1);
+            }
+            MethodHandle[] handles = Arrays.copyOf(byCount, Math.max(byCount.length, count + 1));
+            handles[count] = handle;
+            return new Keyword(handles, varargs, fixedCount);
+        }
+
+        Object invoke(Object[] args) {
+            MethodHandle handle = args.length < byCount.length ? byCount[args.length] : null;
+            Object[] actual = args;
+            if (handle == null) {
+                if (varargs == null || args.length < fixedCount) {
+                    return NOT_DISPATCHED;
+                }
+                handle = varargs;
+                actual = new Object[fixedCount + 1];
+                System.arraycopy(args, 0, actual, 0, fixedCount);
+                Object[] rest = new Object[args.length - fixedCount];
+                System.arraycopy(args, fixedCount, rest, 0, rest.length);
+                actual[fixedCount] = rest;
+            }
+            try {
+                return (Object) handle.invokeExact(actual);
+            } catch (Error e) {
+                // Not caught by the KeywordInvoker either
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+    }
+}
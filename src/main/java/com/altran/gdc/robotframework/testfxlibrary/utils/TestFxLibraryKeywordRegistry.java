@@ -0,0 +1,211 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import org.robotframework.javalib.util.KeywordNameNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The keyword registry written at build time by the KeywordRegistryProcessor: the keyword classes, their autowired
+ * fields, and the keyword names with their argument names. It lets the library list its keywords and create the
+ * keyword classes without scanning the classpath.
+ */
+public final class TestFxLibraryKeywordRegistry {
+
+    /**
+     * The registry resource, as written by the KeywordRegistryProcessor
+     */
+    public static final String RESOURCE = "META-INF/testfxlibrary/keywords.registry";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TestFxLibraryKeywordRegistry.class);
+    private static final String SEPARATOR = "\t";
+    private static final KeywordNameNormalizer NORMALIZER = new KeywordNameNormalizer();
+
+    private final Map<String, List<AutowiredField>> classes = new LinkedHashMap<>();
+    private final Map<String, String> keywordNames = new LinkedHashMap<>();
+    private final Map<String, String[]> argumentNames = new HashMap<>();
+    private final Map<String, String> keywordClasses = new HashMap<>();
+    private final Map<String, Set<Integer>> argumentCounts = new HashMap<>();
+    private final Map<String, Integer> varargsCounts = new HashMap<>();
+
+    private TestFxLibraryKeywordRegistry() {
+    }
+
+    /**
+     * Load the registry.
+     *
+     * @param loader
+     *      The class loader of the library
+     * @return
+     *      The registry, or null when the library was built without it or it can't be read
+     */
+    public static TestFxLibraryKeywordRegistry load(ClassLoader loader) {
+        InputStream stream = loader.getResourceAsStream(RESOURCE);
+        if (stream == null) {
+            return null;
+        }
+        TestFxLibraryKeywordRegistry registry = new TestFxLibraryKeywordRegistry();
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    registry.add(line.split(SEPARATOR, -1));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("The keyword registry {} can't be read, the keyword classes are scanned", RESOURCE, e);
+            return null;
+        }
+        return registry.classes.isEmpty() ? null : registry;
+    }
+
+    private void add(String[] fields) {
+        switch (fields[0]) {
+            case "class":
+                classes.put(fields[1], new ArrayList<>());
+                break;
+            case "autowired":
+                classes.get(fields[1]).add(new AutowiredField(fields[2], fields[3], fields[4]));
+                break;
+            case "keyword":
+                String normalized = NORMALIZER.normalize(fields[2]);
+                keywordNames.putIfAbsent(normalized, fields[2]);
+                keywordClasses.putIfAbsent(normalized, fields[1]);
+                boolean primary = "primary".equals(fields[3]);
+                if (primary || !argumentNames.containsKey(normalized)) {
+                    argumentNames.put(normalized, Arrays.copyOfRange(fields, 5, fields.length));
+                }
+                int count = Integer.parseInt(fields[4]);
+                if (primary && count > 0 && fields[fields.length - 1].startsWith("*")) {
+                    // a trailing array parameter takes the remaining arguments, as in the dispatcher
+                    varargsCounts.put(normalized, count - 1);
+                } else {
+                    argumentCounts.computeIfAbsent(normalized, key -> new TreeSet<>()).add(count);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown registry entry " + fields[0]);
+        }
+    }
+
+    /**
+     * @return
+     *      The names of the keyword classes
+     */
+    public Set<String> getClassNames() {
+        return Collections.unmodifiableSet(classes.keySet());
+    }
+
+    /**
+     * @param className
+     *      The name of a keyword class
+     * @return
+     *      The autowired fields of the class and of its superclasses
+     */
+    public List<AutowiredField> getAutowiredFields(String className) {
+        List<AutowiredField> fields = classes.get(className);
+        return fields == null ? Collections.<AutowiredField>emptyList() : Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * @return
+     *      The keyword names, as the method names of the keywords
+     */
+    public String[] getKeywordNames() {
+        return keywordNames.values().toArray(new String[0]);
+    }
+
+    /**
+     * @param keywordName
+     *      The keyword name, in any form Robot gives it
+     * @return
+     *      The argument names of the keyword, or null if it is not in the registry
+     */
+    public String[] getArgumentNames(String keywordName) {
+        String[] names = argumentNames.get(NORMALIZER.normalize(keywordName));
+        return names == null ? null : names.clone();
+    }
+
+    /**
+     * Check that a method of the keyword takes the count of arguments, as the AnnotationLibrary would, without
+     * creating its keyword class.
+     *
+     * @param keywordName
+     *      The keyword name, in any form Robot gives it
+     * @param count
+     *      The count of arguments of the call
+     * @throws IllegalArgumentException
+     *      If the keyword is not in the registry or none of its methods takes the count of arguments
+     */
+    public void checkArgumentCount(String keywordName, int count) {
+        String normalized = NORMALIZER.normalize(keywordName);
+        if (!keywordClasses.containsKey(normalized)) {
+            throw new IllegalArgumentException(String.format("No keyword '%s' in the library.", keywordName));
+        }
+        Set<Integer> counts = argumentCounts.getOrDefault(normalized, Collections.<Integer>emptySet());
+        Integer varargs = varargsCounts.get(normalized);
+        if (counts.contains(count) || varargs != null && count >= varargs) {
+            return;
+        }
+        StringBuilder expected = new StringBuilder();
+        for (Integer fixed : counts) {
+            expected.append(expected.length() == 0 ? "" : " or ").append(fixed);
+        }
+        if (varargs != null) {
+            expected.append(expected.length() == 0 ? "" : " or ").append(varargs).append(" or more");
+        }
+        throw new IllegalArgumentException(String.format("Keyword '%s' expected %s arguments, got %d.",
+                keywordName, expected, count));
+    }
+
+    /**
+     * @param keywordName
+     *      The keyword name, in any form Robot gives it
+     * @return
+     *      The name of the keyword class declaring the keyword, or null if it is not in the registry
+     */
+    public String getKeywordClass(String keywordName) {
+        return keywordClasses.get(NORMALIZER.normalize(keywordName));
+    }
+
+    /**
+     * An {@code @Autowired} field of a keyword class, an edge of the autowiring graph.
+     */
+    public static final class AutowiredField {
+
+        private final String declaringClass;
+        private final String name;
+        private final String type;
+
+        AutowiredField(String declaringClass, String name, String type) {
+            this.declaringClass = declaringClass;
+            this.name = name;
+            this.type = type;
+        }
+
+        public String getDeclaringClass() {
+            return declaringClass;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getType() {
+            return type;
+        }
+    }
+}
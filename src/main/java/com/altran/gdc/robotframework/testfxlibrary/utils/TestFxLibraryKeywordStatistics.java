@@ -0,0 +1,155 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms of the keywords and of their phases.
+ *
+ * Each keyword run by the library records its whole duration in the <i>keyword</i> phase, and the time it spends in
+ * node lookups, waits, reads on the JavaFX application thread and robot input in the <i>lookup</i>, <i>wait</i>,
+ * <i>fxThread</i> and <i>robotInput</i> phases. The phases nest, e.g. the lookups of a wait are recorded in both. The
+ * phases are accounted to the keyword run by the library on the current thread, as the poll statistics. The
+ * statistics are kept with the system property <i>testfxlibrary.statistics</i> unset or true.
+ */
+public final class TestFxLibraryKeywordStatistics {
+
+    public static final String KEYWORD = "keyword";
+    public static final String LOOKUP = "lookup";
+    public static final String WAIT = "wait";
+    public static final String FX_THREAD = "fxThread";
+    public static final String ROBOT_INPUT = "robotInput";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TestFxLibraryKeywordStatistics.class);
+
+    private static final String NO_KEYWORD = "(no keyword)";
+    private static final String OBJECT_NAME = "com.altran.gdc.robotframework.testfxlibrary:type=KeywordStatistics";
+
+    private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("testfxlibrary.statistics"));
+
+    private static final Map<String, Map<String, TestFxLibraryLatencyHistogram>> HISTOGRAMS =
+            new ConcurrentHashMap<>();
+
+    private TestFxLibraryKeywordStatistics() {
+    }
+
+    /**
+     * Start timing a phase.
+     *
+     * @return
+     *      The start to give to {@link #stop(String, long)}
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record a phase of the keyword run on the current thread.
+     *
+     * @param phase
+     *      The phase
+     * @param start
+     *      The start given by {@link #start()}
+     */
+    public static void stop(String phase, long start) {
+        if (ENABLED) {
+            record(TestFxLibraryPollStatistics.getCurrentKeyword(), phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Record a phase of a keyword.
+     *
+     * @param keyword
+     *      The keyword name, null for the phases run outside a keyword
+     * @param phase
+     *      The phase
+     * @param nanos
+     *      The duration
+     */
+    public static void record(String keyword, String phase, long nanos) {
+        if (ENABLED) {
+            HISTOGRAMS.computeIfAbsent(keyword == null ? NO_KEYWORD : keyword, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(phase, p -> new TestFxLibraryLatencyHistogram())
+                    .record(nanos);
+        }
+    }
+
+    /**
+     * Get the statistics of every keyword, sorted by keyword name.
+     *
+     * @return
+     *      For each keyword, for each recorded phase: count, totalMillis, meanMillis, minMillis, p50Millis,
+     *      p90Millis, p99Millis and maxMillis
+     */
+    public static Map<String, Map<String, Map<String, Object>>> snapshot() {
+        Map<String, Map<String, Map<String, Object>>> snapshot = new TreeMap<>();
+        for (Map.Entry<String, Map<String, TestFxLibraryLatencyHistogram>> keyword : HISTOGRAMS.entrySet()) {
+            Map<String, Map<String, Object>> phases = new TreeMap<>();
+            for (Map.Entry<String, TestFxLibraryLatencyHistogram> phase : keyword.getValue().entrySet()) {
+                phases.put(phase.getKey(), phase.getValue().snapshot());
+            }
+            snapshot.put(keyword.getKey(), phases);
+        }
+        return snapshot;
+    }
+
+    public static void reset() {
+        HISTOGRAMS.clear();
+    }
+
+    /**
+     * Register the MXBean of the statistics in the platform MBean server, once.
+     */
+    public static synchronized void registerMBean() {
+        if (!ENABLED) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MXBean(), new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // registered by another library instance
+        } catch (JMException | RuntimeException e) {
+            LOG.warn("Unable to register the keyword statistics MXBean", e);
+        }
+    }
+
+    private static final class MXBean implements TestFxLibraryKeywordStatisticsMXBean {
+
+        @Override
+        public Map<String, Map<String, Double>> getStatistics() {
+            Map<String, Map<String, Double>> statistics = new TreeMap<>();
+            for (Map.Entry<String, Map<String, Map<String, Object>>> keyword : snapshot().entrySet()) {
+                for (Map.Entry<String, Map<String, Object>> phase : keyword.getValue().entrySet()) {
+                    Map<String, Double> values = new LinkedHashMap<>();
+                    for (Map.Entry<String, Object> value : phase.getValue().entrySet()) {
+                        values.put(value.getKey(), ((Number) value.getValue()).doubleValue());
+                    }
+                    statistics.put(keyword.getKey() + "/" + phase.getKey(), values);
+                }
+            }
+            return statistics;
+        }
+
+        @Override
+        public double getPercentileMillis(String keyword, String phase, double percentile) {
+            Map<String, TestFxLibraryLatencyHistogram> phases = HISTOGRAMS.get(keyword);
+            TestFxLibraryLatencyHistogram histogram = phases == null ? null : phases.get(phase);
+            return histogram == null ? 0 : histogram.getPercentileMillis(percentile);
+        }
+
+        @Override
+        public void reset() {
+            TestFxLibraryKeywordStatistics.reset();
+        }
+    }
+}
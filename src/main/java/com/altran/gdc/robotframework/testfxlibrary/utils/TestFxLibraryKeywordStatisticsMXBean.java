@@ -0,0 +1,30 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link TestFxLibraryKeywordStatistics}, registered as
+ * <i>com.altran.gdc.robotframework.testfxlibrary:type=KeywordStatistics</i>.
+ */
+public interface TestFxLibraryKeywordStatisticsMXBean {
+
+    /**
+     * @return
+     *      The summary of each phase of each keyword, keyed by <i>keyword/phase</i>
+     */
+    Map<String, Map<String, Double>> getStatistics();
+
+    /**
+     * @param keyword
+     *      The keyword name
+     * @param phase
+     *      The phase: keyword, lookup, wait, fxThread or robotInput
+     * @param percentile
+     *      The percentile, from 0 to 100
+     * @return
+     *      The duration at the percentile in milliseconds, 0 when nothing is recorded
+     */
+    double getPercentileMillis(String keyword, String phase, double percentile);
+
+    void reset();
+}
@@ -0,0 +1,109 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import java.util.Objects;
+
+/**
+ * Schedule of the polls of a wait, between the wake-ups given by the watched properties.
+ *
+ * Implementations must be immutable: the same scheduler is shared by all the waits of a {@link TestFxLibraryWaitPolicy}.
+ */
+public interface TestFxLibraryPollScheduler {
+
+    /**
+     * @return
+     *      The delay before the first poll in milliseconds
+     */
+    long initialDelayMillis();
+
+    /**
+     * @param previousDelayMillis
+     *      The delay before the previous poll in milliseconds
+     * @return
+     *      The delay before the next poll in milliseconds
+     */
+    long nextDelayMillis(long previousDelayMillis);
+
+    /**
+     * Poll at a fixed interval.
+     *
+     * @param intervalMillis
+     *      The interval in milliseconds
+     * @return
+     *      The scheduler
+     */
+    static TestFxLibraryPollScheduler fixed(long intervalMillis) {
+        return new Backoff(intervalMillis, 1d, intervalMillis);
+    }
+
+    /**
+     * Poll fast first, then multiply the delay by <i>factor</i> after each poll, up to <i>maxDelayMillis</i>.
+     *
+     * @param initialDelayMillis
+     *      The delay before the first poll in milliseconds
+     * @param factor
+     *      The growth of the delay, at least 1
+     * @param maxDelayMillis
+     *      The maximum delay in milliseconds
+     * @return
+     *      The scheduler
+     */
+    static TestFxLibraryPollScheduler exponential(long initialDelayMillis, double factor, long maxDelayMillis) {
+        return new Backoff(initialDelayMillis, factor, maxDelayMillis);
+    }
+
+    /**
+     * Exponential backoff, capped.
+     */
+    final class Backoff implements TestFxLibraryPollScheduler {
+
+        private final long initialDelayMillis;
+        private final double factor;
+        private final long maxDelayMillis;
+
+        private Backoff(long initialDelayMillis, double factor, long maxDelayMillis) {
+            if (initialDelayMillis <= 0 || factor < 1d || maxDelayMillis < initialDelayMillis) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid poll schedule: initial=%d ms, factor=%s, max=%d ms",
+                        initialDelayMillis, factor, maxDelayMillis));
+            }
+            this.initialDelayMillis = initialDelayMillis;
+            this.factor = factor;
+            this.maxDelayMillis = maxDelayMillis;
+        }
+
+        @Override
+        public long initialDelayMillis() {
+            return initialDelayMillis;
+        }
+
+        @Override
+        public long nextDelayMillis(long previousDelayMillis) {
+            return Math.min(maxDelayMillis, Math.max(previousDelayMillis, Math.round(previousDelayMillis * factor)));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Backoff)) {
+                return false;
+            }
+            Backoff that = (Backoff) o;
+            return initialDelayMillis == that.initialDelayMillis
+                    && Double.compare(factor, that.factor) == 0
+                    && maxDelayMillis == that.maxDelayMillis;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(initialDelayMillis, factor, maxDelayMillis);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Backoff[initial=%d ms, factor=%s, max=%d ms]", initialDelayMillis, factor,
+                    maxDelayMillis);
+        }
+    }
+}
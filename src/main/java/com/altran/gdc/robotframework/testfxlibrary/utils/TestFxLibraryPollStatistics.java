@@ -0,0 +1,113 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Poll statistics of the waits, per Robot keyword.
+ *
+ * The waits are accounted to the keyword run by the library on the current thread, so the waits done by a keyword
+ * on behalf of another one (e.g. <i>Wait Until Page Contains</i> inside <i>Get Progress Bar Value</i>) are accounted
+ * to the keyword called by the test.
+ */
+public final class TestFxLibraryPollStatistics {
+
+    private static final String NO_KEYWORD = "(no keyword)";
+
+    private static final ThreadLocal<String> CURRENT_KEYWORD = new ThreadLocal<>();
+
+    private static final Map<String, Counters> COUNTERS = new ConcurrentHashMap<>();
+
+    private TestFxLibraryPollStatistics() {
+    }
+
+    /**
+     * Set the keyword run on the current thread.
+     *
+     * @param keywordName
+     *      The keyword name, or null when no keyword is running
+     */
+    public static void setCurrentKeyword(String keywordName) {
+        if (keywordName == null) {
+            CURRENT_KEYWORD.remove();
+        } else {
+            CURRENT_KEYWORD.set(keywordName);
+        }
+    }
+
+    /**
+     * Get the keyword run on the current thread.
+     *
+     * @return
+     *      The keyword name, or null when no keyword is running
+     */
+    public static String getCurrentKeyword() {
+        return CURRENT_KEYWORD.get();
+    }
+
+    /**
+     * Record one wait of the keyword run on the current thread.
+     *
+     * @param polls
+     *      The number of times the condition was polled from the waiting thread
+     * @param wakeUps
+     *      The number of times the condition was checked again after a change of a watched property
+     * @param elapsedNanos
+     *      The duration of the wait
+     * @param satisfied
+     *      false if the wait timed out
+     */
+    static void record(long polls, long wakeUps, long elapsedNanos, boolean satisfied) {
+        String keyword = CURRENT_KEYWORD.get();
+        Counters counters = COUNTERS.computeIfAbsent(keyword == null ? NO_KEYWORD : keyword, k -> new Counters());
+        counters.waits.increment();
+        counters.polls.add(polls);
+        counters.wakeUps.add(wakeUps);
+        counters.nanos.add(elapsedNanos);
+        if (!satisfied) {
+            counters.timeouts.increment();
+        }
+    }
+
+    /**
+     * Get the statistics of every keyword, sorted by keyword name.
+     *
+     * @return
+     *      For each keyword: waits, polls, wakeUps, timeouts and totalMillis
+     */
+    public static Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> snapshot = new TreeMap<>();
+        for (Map.Entry<String, Counters> entry : COUNTERS.entrySet()) {
+            Counters counters = entry.getValue();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("waits", toInt(counters.waits.sum()));
+            values.put("polls", toInt(counters.polls.sum()));
+            values.put("wakeUps", toInt(counters.wakeUps.sum()));
+            values.put("timeouts", toInt(counters.timeouts.sum()));
+            values.put("totalMillis", toInt(TimeUnit.NANOSECONDS.toMillis(counters.nanos.sum())));
+            snapshot.put(entry.getKey(), values);
+        }
+        return snapshot;
+    }
+
+    public static void reset() {
+        COUNTERS.clear();
+    }
+
+    // XML-RPC has no 64-bit integer type
+    private static int toInt(long value) {
+        return (int) Math.min(Integer.MAX_VALUE, value);
+    }
+
+    private static final class Counters {
+        private final LongAdder waits = new LongAdder();
+        private final LongAdder polls = new LongAdder();
+        private final LongAdder wakeUps = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+}
@@ -8,6 +8,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
 
+/**
+ * The properties of the library, read from TestFXLibrary.properties and set by the keywords. The properties set by a
+ * keyword run in a session of the session-aware remote server are kept in the session, so the sessions don't change
+ * the timeouts or the options of each other.
+ */
 public class TestFxLibraryProperties {
 
     private static final Logger LOG = LoggerFactory.getLogger(TestFxLibraryProperties.class);
@@ -27,15 +32,27 @@ public class TestFxLibraryProperties {
     }
 
     public static String getProperty(String key) {
-        return props.getProperty(key);
+        return current().getProperty(key);
     }
 
     public static String getProperty(String key, String defaultValue) {
-        return props.getProperty(key, defaultValue);
+        return current().getProperty(key, defaultValue);
     }
 
     public static void setProperty(String keyName, String propertyValue){
-        props.setProperty(keyName, propertyValue);
+        current().setProperty(keyName, propertyValue);
+    }
+
+    /**
+     * Create the properties of a session, falling back to the properties of the library.
+     */
+    static Properties newLayer() {
+        return new Properties(props);
+    }
+
+    private static Properties current() {
+        TestFxLibrarySession session = TestFxLibrarySession.current();
+        return session == null ? props : session.getProperties();
     }
 
     /**
@@ -0,0 +1,37 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import org.robotframework.javalib.beans.annotation.IBeanLoader;
+import org.robotframework.javalib.beans.common.IClassFilter;
+import org.robotframework.javalib.util.KeywordNameNormalizer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bean loader giving the keyword classes listed in the keyword registry, in place of the classpath scan of the
+ * KeywordBeanLoader. The instances are the ones of the keyword class holder, created if needed, so the
+ * AnnotationLibrary and the lazy dispatch share them. The beans are keyed as the KeywordBeanLoader keys them.
+ */
+public class TestFxLibraryRegistryBeanLoader implements IBeanLoader {
+
+    private final TestFxLibraryKeywordRegistry registry;
+    private final TestFxLibraryKeywordClasses classes;
+
+    public TestFxLibraryRegistryBeanLoader(TestFxLibraryKeywordRegistry registry, TestFxLibraryKeywordClasses classes) {
+        this.registry = registry;
+        this.classes = classes;
+    }
+
+    @Override
+    public Map loadBeanDefinitions(IClassFilter filter) {
+        KeywordNameNormalizer normalizer = new KeywordNameNormalizer();
+        Map<String, Object> beans = new HashMap<>();
+        for (String className : registry.getClassNames()) {
+            Object bean = classes.get(className);
+            if (filter.accept(bean.getClass())) {
+                beans.put(normalizer.normalize(className.replace('.', '/')), bean);
+            }
+        }
+        return beans;
+    }
+}
@@ -0,0 +1,113 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.MouseButton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testfx.api.FxRobot;
+import org.testfx.api.FxRobotContext;
+
+import java.util.function.Consumer;
+
+/**
+ * Provider of the FxRobot shared by all the keywords.
+ *
+ * Every FxRobot builds its own FxRobotContext with a full service graph (window and node finders, base, mouse and
+ * keyboard robots...), so the robot is created once on first use and reused until the application is closed. Sharing
+ * it also keeps the target window, pressed keys and pressed mouse buttons between keywords, e.g. between
+ * <i>Drag</i> and <i>Drop</i>. A failed keyword releases the keys and buttons it left pressed, so they don't leak into
+ * the next keywords.
+ *
+ * On the session-aware remote server each {@link TestFxLibrarySession} has its own robot instead.
+ */
+public final class TestFxLibraryRobot {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TestFxLibraryRobot.class);
+
+    private static volatile FxRobot robot;
+
+    private TestFxLibraryRobot() {
+    }
+
+    /**
+     * Get the shared robot, or the robot of the session bound to the current thread, creating it on first use.
+     *
+     * @return
+     *      The shared FxRobot
+     */
+    public static FxRobot get() {
+        TestFxLibrarySession session = TestFxLibrarySession.current();
+        if (session != null) {
+            return session.getRobot();
+        }
+        FxRobot current = robot;
+        if (current == null) {
+            synchronized (TestFxLibraryRobot.class) {
+                current = robot;
+                if (current == null) {
+                    current = new FxRobot();
+                    robot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Get the context of the shared robot.
+     *
+     * @return
+     *      The FxRobotContext of the shared FxRobot
+     */
+    public static FxRobotContext context() {
+        return get().robotContext();
+    }
+
+    /**
+     * Run mouse or keyboard input with the robot, timed in the robot input statistics of the keyword.
+     *
+     * @param action
+     *      The input, e.g. <i>robot -&gt; robot.clickOn(node)</i>
+     */
+    public static void input(Consumer<FxRobot> action) {
+        long start = TestFxLibraryKeywordStatistics.start();
+        long traced = TestFxLibraryTracer.start();
+        try {
+            TestFxLibrarySession.withFxLock(() -> action.accept(get()));
+        } finally {
+            TestFxLibraryKeywordStatistics.stop(TestFxLibraryKeywordStatistics.ROBOT_INPUT, start);
+            TestFxLibraryTracer.stop(TestFxLibraryTracer.ROBOT_INPUT, TestFxLibraryTracer.ROBOT_INPUT, traced);
+        }
+    }
+
+    /**
+     * Release all the keys and mouse buttons pressed by the shared robot, or the robot of the session bound to the
+     * current thread. Nothing is done if the robot was not created yet.
+     */
+    public static void releaseInput() {
+        TestFxLibrarySession session = TestFxLibrarySession.current();
+        FxRobot current = session != null ? session.getCreatedRobot() : robot;
+        if (current == null) {
+            return;
+        }
+        try {
+            // without arguments, release every key and button still pressed
+            current.release(new KeyCode[0]);
+            current.release(new MouseButton[0]);
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to release the pressed keys and mouse buttons", e);
+        }
+    }
+
+    /**
+     * Discard the shared robot, or the robot of the session bound to the current thread. A new one is created on the next use.
+     */
+    public static synchronized void reset() {
+        TestFxLibrarySession session = TestFxLibrarySession.current();
+        if (session != null) {
+            session.resetRobot();
+            return;
+        }
+        robot = null;
+    }
+}
@@ -0,0 +1,435 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in index of the scene graph of every window, mapping fx:id and style class to nodes for each Scene.
+ *
+ * The index is kept current by listeners on the window list, the scene and root of each window, the children of
+ * each Parent and the id and style classes of each Node, so simple <i>#id</i> and <i>.class</i> lookups become hash
+ * probes instead of scene graph walks. All the updates happen on the JavaFX application thread.
+ *
+ * On JavaFX 8 the observable window list only holds the stages, so the popup windows (context menus, combo box
+ * popups, tooltips) are not indexed and the index doesn't answer while one of them is showing.
+ */
+public final class TestFxLibrarySceneIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TestFxLibrarySceneIndex.class);
+
+    private static final Map<Scene, SceneIndex> SCENES = new ConcurrentHashMap<>();
+    private static final AtomicLong HITS = new AtomicLong();
+
+    private static volatile boolean enabled;
+    private static volatile boolean attached;
+    private static boolean attachScheduled;
+    private static ObservableList<? extends Window> windows;
+    private static volatile Method allWindows;
+
+    private static final ListChangeListener<Window> WINDOWS_LISTENER = change -> {
+        while (change.next()) {
+            for (Window window : change.getRemoved()) {
+                detachWindow(window);
+            }
+            for (Window window : change.getAddedSubList()) {
+                attachWindow(window);
+            }
+        }
+    };
+
+    private static final ChangeListener<Scene> SCENE_LISTENER = (observable, oldScene, newScene) -> {
+        if (oldScene != null) {
+            detachScene(oldScene);
+        }
+        if (newScene != null) {
+            attachScene(newScene);
+        }
+    };
+
+    private TestFxLibrarySceneIndex() {
+    }
+
+    /**
+     * Enable the index. The scene graph is indexed on the JavaFX application thread before returning when the toolkit
+     * is running, as soon as it runs otherwise.
+     */
+    public static void enable() {
+        synchronized (TestFxLibrarySceneIndex.class) {
+            enabled = true;
+            attachScheduled = true;
+        }
+        try {
+            TestFxLibraryFxThread.read(() -> {
+                attach();
+                return null;
+            });
+        } catch (IllegalStateException e) {
+            // The toolkit isn't running yet, the index is built on the next lookup
+            LOG.debug("JavaFX toolkit not initialized, the scene index will be built later", e);
+            synchronized (TestFxLibrarySceneIndex.class) {
+                attachScheduled = false;
+            }
+        }
+    }
+
+    /**
+     * Disable the index and remove all its listeners from the scene graph.
+     */
+    public static synchronized void disable() {
+        enabled = false;
+        attached = false;
+        if (attachScheduled) {
+            attachScheduled = false;
+            Platform.runLater(TestFxLibrarySceneIndex::detach);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the number of lookups answered by the index since the library was loaded.
+     *
+     * @return
+     *      The number of lookups answered by the index
+     */
+    public static long getHits() {
+        return HITS.get();
+    }
+
+    /**
+     * Search the single node of a showing window matching a simple <i>#id</i> or <i>.class</i> selector.
+     *
+     * @param selector
+     *      The selector to search
+     * @return
+     *      The node, or null if the index can't answer and the scene graph must be walked: the index is disabled,
+     *      the selector is not a simple id or style class, no node matches or more than one node matches.
+     */
+    public static Node lookup(TestFxLibrarySelector selector) {
+        if (!enabled) {
+            return null;
+        }
+        if (!attached) {
+            scheduleAttach();
+            return null;
+        }
+        if (allWindows != null && isPopupShowing()) {
+            // TestFX would also search the popups, which are not indexed
+            return null;
+        }
+
+        String key = selector.getQuery().substring(1);
+        TestFxLibrarySession session = TestFxLibrarySession.current();
+        Node found = null;
+        for (SceneIndex index : SCENES.values()) {
+            Set<Node> nodes;
+            if (selector.getQueryType() == TestFxLibrarySelector.QueryType.ID) {
+                nodes = index.ids.get(key);
+            } else if (selector.getQueryType() == TestFxLibrarySelector.QueryType.STYLE_CLASS) {
+                nodes = index.styleClasses.get(key);
+            } else {
+                return null;
+            }
+            if (nodes == null) {
+                continue;
+            }
+            for (Node node : nodes) {
+                if (!isShowing(node) || session != null && !session.owns(node.getScene().getWindow())) {
+                    continue;
+                }
+                if (found != null) {
+                    // More than one match, let TestFX keep its own ordering
+                    return null;
+                }
+                found = node;
+            }
+        }
+        if (found != null) {
+            HITS.incrementAndGet();
+        }
+        return found;
+    }
+
+    private static boolean isPopupShowing() {
+        try {
+            Iterator<?> all = (Iterator<?>) allWindows.invoke(null);
+            while (all.hasNext()) {
+                Window window = (Window) all.next();
+                if (!(window instanceof Stage) && window.isShowing()) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.debug("Unable to list the JavaFX popup windows", e);
+            return true;
+        }
+    }
+
+    private static synchronized void scheduleAttach() {
+        if (!enabled || attachScheduled) {
+            return;
+        }
+        try {
+            Platform.runLater(TestFxLibrarySceneIndex::attach);
+            attachScheduled = true;
+        } catch (IllegalStateException e) {
+            // The toolkit isn't running yet, retry on the next lookup
+            LOG.debug("JavaFX toolkit not initialized, the scene index will be built later", e);
+        }
+    }
+
+    private static void attach() {
+        if (!enabled || attached) {
+            return;
+        }
+        windows = windowList();
+        if (windows == null) {
+            return;
+        }
+        windows.addListener(WINDOWS_LISTENER);
+        for (Window window : windows) {
+            attachWindow(window);
+        }
+        attached = true;
+    }
+
+    private static void detach() {
+        if (windows != null) {
+            windows.removeListener(WINDOWS_LISTENER);
+            for (Window window : windows) {
+                detachWindow(window);
+            }
+            windows = null;
+        }
+        for (Scene scene : SCENES.keySet()) {
+            detachScene(scene);
+        }
+    }
+
+    private static void attachWindow(Window window) {
+        window.sceneProperty().addListener(SCENE_LISTENER);
+        if (window.getScene() != null) {
+            attachScene(window.getScene());
+        }
+    }
+
+    private static void detachWindow(Window window) {
+        window.sceneProperty().removeListener(SCENE_LISTENER);
+        if (window.getScene() != null) {
+            detachScene(window.getScene());
+        }
+    }
+
+    private static void attachScene(Scene scene) {
+        SCENES.computeIfAbsent(scene, SceneIndex::new);
+    }
+
+    private static void detachScene(Scene scene) {
+        SceneIndex index = SCENES.remove(scene);
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    private static boolean isShowing(Node node) {
+        Scene scene = node.getScene();
+        return scene != null && scene.getWindow() != null && scene.getWindow().isShowing();
+    }
+
+    /**
+     * Get the observable list of all the windows: Window.getWindows() from JavaFX 9, StageHelper.getStages() on
+     * JavaFX 8. On JavaFX 8 the popups are then listed by Window.impl_getWindows() instead.
+     */
+    @SuppressWarnings("unchecked")
+    static ObservableList<? extends Window> windowList() {
+        try {
+            return (ObservableList<? extends Window>) Window.class.getMethod("getWindows").invoke(null);
+        } catch (NoSuchMethodException e) {
+            try {
+                ObservableList<? extends Window> stages = (ObservableList<? extends Window>) Class
+                        .forName("com.sun.javafx.stage.StageHelper").getMethod("getStages").invoke(null);
+                allWindows = Window.class.getMethod("impl_getWindows");
+                return stages;
+            } catch (ReflectiveOperationException ex) {
+                LOG.error("Unable to list the JavaFX windows, the scene index is not available", ex);
+            }
+        } catch (ReflectiveOperationException e) {
+            LOG.error("Unable to list the JavaFX windows, the scene index is not available", e);
+        }
+        return null;
+    }
+
+    /**
+     * The ids and style classes of the nodes of one Scene.
+     */
+    private static final class SceneIndex {
+
+        private final Scene scene;
+        private final Map<String, Set<Node>> ids = new ConcurrentHashMap<>();
+        private final Map<String, Set<Node>> styleClasses = new ConcurrentHashMap<>();
+        private final Map<Node, IndexedNode> nodes = new ConcurrentHashMap<>();
+
+        private final ChangeListener<Parent> rootListener = (observable, oldRoot, newRoot) -> {
+            if (oldRoot != null) {
+                remove(oldRoot);
+            }
+            if (newRoot != null) {
+                add(newRoot);
+            }
+        };
+
+        private final ListChangeListener<Node> childrenListener = change -> {
+            while (change.next()) {
+                for (Node node : change.getRemoved()) {
+                    remove(node);
+                }
+                for (Node node : change.getAddedSubList()) {
+                    add(node);
+                }
+            }
+        };
+
+        private final ChangeListener<String> idListener = this::idChanged;
+
+        SceneIndex(Scene scene) {
+            this.scene = scene;
+            scene.rootProperty().addListener(rootListener);
+            if (scene.getRoot() != null) {
+                add(scene.getRoot());
+            }
+        }
+
+        void close() {
+            scene.rootProperty().removeListener(rootListener);
+            if (scene.getRoot() != null) {
+                remove(scene.getRoot());
+            }
+        }
+
+        private void add(Node root) {
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                if (nodes.containsKey(node)) {
+                    continue;
+                }
+                IndexedNode indexed = new IndexedNode(node);
+                nodes.put(node, indexed);
+                put(ids, node.getId(), node);
+                for (String styleClass : indexed.styleClasses) {
+                    put(styleClasses, styleClass, node);
+                }
+                node.idProperty().addListener(idListener);
+                node.getStyleClass().addListener(indexed);
+                if (node instanceof Parent) {
+                    ObservableList<Node> children = ((Parent) node).getChildrenUnmodifiable();
+                    children.addListener(childrenListener);
+                    for (Node child : children) {
+                        pending.push(child);
+                    }
+                }
+            }
+        }
+
+        private void remove(Node root) {
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                IndexedNode indexed = nodes.remove(node);
+                if (indexed == null) {
+                    continue;
+                }
+                delete(ids, node.getId(), node);
+                for (String styleClass : indexed.styleClasses) {
+                    delete(styleClasses, styleClass, node);
+                }
+                node.idProperty().removeListener(idListener);
+                node.getStyleClass().removeListener(indexed);
+                if (node instanceof Parent) {
+                    ObservableList<Node> children = ((Parent) node).getChildrenUnmodifiable();
+                    children.removeListener(childrenListener);
+                    for (Node child : children) {
+                        pending.push(child);
+                    }
+                }
+            }
+        }
+
+        private void idChanged(ObservableValue<? extends String> observable, String oldId, String newId) {
+            Node node = (Node) ((ReadOnlyProperty<?>) observable).getBean();
+            delete(ids, oldId, node);
+            put(ids, newId, node);
+        }
+
+        private static void put(Map<String, Set<Node>> map, String key, Node node) {
+            if (key != null) {
+                map.computeIfAbsent(key, k -> Collections.newSetFromMap(new ConcurrentHashMap<>())).add(node);
+            }
+        }
+
+        private static void delete(Map<String, Set<Node>> map, String key, Node node) {
+            if (key == null) {
+                return;
+            }
+            Set<Node> set = map.get(key);
+            if (set != null) {
+                set.remove(node);
+                if (set.isEmpty()) {
+                    map.remove(key, set);
+                }
+            }
+        }
+
+        /**
+         * A node of the index and the style classes it was indexed with.
+         */
+        private final class IndexedNode implements ListChangeListener<String> {
+
+            private final Node node;
+            private Set<String> styleClasses;
+
+            IndexedNode(Node node) {
+                this.node = node;
+                this.styleClasses = new HashSet<>(node.getStyleClass());
+            }
+
+            @Override
+            public void onChanged(Change<? extends String> change) {
+                for (String styleClass : styleClasses) {
+                    delete(SceneIndex.this.styleClasses, styleClass, node);
+                }
+                styleClasses = new HashSet<>(node.getStyleClass());
+                for (String styleClass : styleClasses) {
+                    put(SceneIndex.this.styleClasses, styleClass, node);
+                }
+            }
+        }
+    }
+}
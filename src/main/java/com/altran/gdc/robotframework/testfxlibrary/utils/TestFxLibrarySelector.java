@@ -0,0 +1,184 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable, pre-parsed form of a lookup identifier.
+ *
+ * Example: {id_parent}//{id_component}[x]
+ *
+ * Identifiers are parsed once and kept in a bounded cache, so repeated lookups of the same identifier skip the
+ * string splitting and position parsing done by {@link TestFxLibraryCommon#lookup(String)}.
+ */
+public final class TestFxLibrarySelector {
+
+    /**
+     * The kind of query of the last segment of the identifier. Only simple selectors with a single id or style class
+     * are of type ID or STYLE_CLASS.
+     */
+    public enum QueryType {
+        ID,
+        STYLE_CLASS,
+        OTHER
+    }
+
+    private static final Pattern POSITION_PATTERN = Pattern.compile(".*\\[\\d].*");
+    private static final Pattern SIMPLE_PATTERN = Pattern.compile("[#.][\\w-]+");
+    private static final String SEPARATOR = "//";
+    private static final int FIRST_POSITION = 1;
+    private static final int SECOND_POSITION = 2;
+    private static final int THIRD_POSITION = 3;
+    private static final int CACHE_SIZE = 1024;
+
+    private static final LoadingCache<String, TestFxLibrarySelector> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build(new CacheLoader<String, TestFxLibrarySelector>() {
+                @Override
+                public TestFxLibrarySelector load(String identifier) {
+                    return parse(identifier);
+                }
+            });
+
+    private final String identifier;
+    private final List<String> parents;
+    private final Integer parentNth;
+    private final String query;
+    private final Integer nth;
+    private final QueryType queryType;
+
+    private TestFxLibrarySelector(String identifier, List<String> parents, Integer parentNth, String query, Integer nth) {
+        this.identifier = identifier;
+        this.parents = parents;
+        this.parentNth = parentNth;
+        this.query = query;
+        this.nth = nth;
+        this.queryType = queryTypeOf(query);
+    }
+
+    /**
+     * Get the selector of an identifier from the cache, parsing it on the first use.
+     *
+     * @param identifier
+     *      The identifier to parse
+     * @return
+     *      The parsed selector
+     */
+    public static TestFxLibrarySelector of(String identifier) {
+        return CACHE.getUnchecked(identifier);
+    }
+
+    /**
+     * Parse an identifier without using the cache.
+     *
+     * @param identifier
+     *      The identifier to parse
+     * @return
+     *      The parsed selector
+     */
+    public static TestFxLibrarySelector parse(String identifier) {
+        String[] lookupStr = identifier.split(SEPARATOR);
+
+        // Check if has position to get element from Node list
+        String position = lookupStr[lookupStr.length - 1];
+        String query = position;
+        Integer nth = null;
+        if (hasPosition(position)) {
+            nth = positionOf(position);
+            query = withoutPosition(position);
+        }
+
+        List<String> parents = Collections.emptyList();
+        Integer parentNth = null;
+        if (lookupStr.length > 1) {
+            if (hasPosition(lookupStr[0])) {
+                parentNth = positionOf(lookupStr[0]);
+                parents = Collections.singletonList(withoutPosition(lookupStr[0]));
+            } else {
+                parents = Collections.unmodifiableList(new ArrayList<>(
+                        Arrays.asList(lookupStr).subList(0, lookupStr.length - 1)));
+            }
+        }
+
+        return new TestFxLibrarySelector(identifier, parents, parentNth, query, nth);
+    }
+
+    /**
+     * Discard all the cached selectors.
+     */
+    public static void clearCache() {
+        CACHE.invalidateAll();
+    }
+
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    public List<String> getParents() {
+        return parents;
+    }
+
+    public boolean hasParents() {
+        return !parents.isEmpty();
+    }
+
+    public Integer getParentNth() {
+        return parentNth;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public Integer getNth() {
+        return nth;
+    }
+
+    public QueryType getQueryType() {
+        return queryType;
+    }
+
+    @Override
+    public String toString() {
+        return identifier;
+    }
+
+    /**
+     * Verify if the string has the characters [x]
+     *
+     * @param position
+     *      The string to validate the text
+     * @return
+     *      true if contains or false if not contains.
+     */
+    private static boolean hasPosition(String position) {
+        return POSITION_PATTERN.matcher(position).matches();
+    }
+
+    private static Integer positionOf(String segment) {
+        int length = segment.length();
+        return Integer.valueOf(segment.substring(length - SECOND_POSITION, length - FIRST_POSITION));
+    }
+
+    private static String withoutPosition(String segment) {
+        return segment.substring(0, segment.length() - THIRD_POSITION);
+    }
+
+    private static QueryType queryTypeOf(String query) {
+        if (!SIMPLE_PATTERN.matcher(query).matches()) {
+            return QueryType.OTHER;
+        } else if (query.startsWith("#")) {
+            return QueryType.ID;
+        } else if (query.startsWith(".")) {
+            return QueryType.STYLE_CLASS;
+        }
+        return QueryType.OTHER;
+    }
+}
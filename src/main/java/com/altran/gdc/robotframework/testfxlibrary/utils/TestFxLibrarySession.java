@@ -0,0 +1,435 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.stage.PopupWindow;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import org.hamcrest.Matcher;
+import org.testfx.api.FxRobot;
+import org.testfx.api.FxRobotContext;
+import org.testfx.service.finder.WindowFinder;
+import org.testfx.service.finder.impl.NodeFinderImpl;
+import org.testfx.service.finder.impl.WindowFinderImpl;
+import org.testfx.service.query.NodeQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Context of one Robot client of the session-aware remote server.
+ *
+ * Each session has its own cache, its own FxRobot and the windows it opened, while all the sessions share the JavaFX
+ * toolkit. A keyword run binds its session to the request thread, so the keywords of the sessions run concurrently;
+ * only the sections driving the toolkit, i.e. the node lookups, the robot input, the reads on the JavaFX application
+ * thread and the start and close of the applications, hold the FX lock and run one at a time. The waits and sleeps
+ * hold no lock while they block.
+ *
+ * A top level window belongs to the session that registered it, or else to the session holding the FX lock when the
+ * window was shown, the last one to hold it if none does: the window was opened by its input or its application. The
+ * windows it owns, e.g. dialogs and popups, belong to the same session. The robot and the scene index of a session
+ * only see the windows of the session. The properties set by the keywords of a session, e.g. the timeouts, only
+ * apply to the session.
+ */
+public final class TestFxLibrarySession {
+
+    private static final ThreadLocal<TestFxLibrarySession> CURRENT = new ThreadLocal<>();
+
+    private static final ReentrantLock FX_LOCK = new ReentrantLock(true);
+
+    private static final TestFxLibrarySession NO_SESSION = new TestFxLibrarySession("(no session)");
+
+    private static final Map<Window, TestFxLibrarySession> OWNERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final ListChangeListener<Window> WINDOWS_LISTENER = change -> {
+        while (change.next()) {
+            for (Window window : change.getAddedSubList()) {
+                claim(window);
+            }
+        }
+    };
+
+    // the session holding the FX lock, or the last one that held it
+    private static volatile TestFxLibrarySession fxLockSession;
+    private static boolean watching;
+
+    private final String name;
+    private final TestFXLibraryCache cache = new TestFXLibraryCache();
+    private final Properties properties = TestFxLibraryProperties.newLayer();
+    private volatile FxRobot robot;
+    private volatile TestFxLibraryKeywordClasses keywordClasses;
+
+    /**
+     * @param name
+     *      The name of the session, e.g. the path of its library on the remote server
+     */
+    public TestFxLibrarySession(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the session bound to the current thread.
+     *
+     * @return
+     *      The session, or null when the library runs without sessions
+     */
+    public static TestFxLibrarySession current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run a keyword of this session: bind the session to the current thread. The sections of the keyword driving the
+     * toolkit take the FX lock with {@link #withFxLock(Supplier)}.
+     *
+     * @param keyword
+     *      The keyword run
+     * @return
+     *      The result of the keyword
+     */
+    public <T> T run(Supplier<T> keyword) {
+        TestFxLibrarySession previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return keyword.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Run a section of a keyword driving the toolkit, e.g. a lookup, robot input or a read on the JavaFX application
+     * thread, holding the FX lock so the sections of the sessions run one at a time. Without a session bound to the
+     * current thread, or on the JavaFX application thread, the section runs without the lock.
+     *
+     * @param section
+     *      The section
+     * @return
+     *      The result of the section
+     */
+    public static <T> T withFxLock(Supplier<T> section) {
+        TestFxLibrarySession session = CURRENT.get();
+        if (session == null || Platform.isFxApplicationThread()) {
+            return section.get();
+        }
+        FX_LOCK.lock();
+        try {
+            fxLockSession = session;
+            return section.get();
+        } finally {
+            FX_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Run a section of a keyword driving the toolkit, holding the FX lock, see {@link #withFxLock(Supplier)}.
+     *
+     * @param section
+     *      The section
+     */
+    public static void withFxLock(Runnable section) {
+        withFxLock(() -> {
+            section.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run a part of a keyword of the session on another thread, e.g. a read or a check of a wait on the JavaFX
+     * application thread: bind the session to the current thread, without taking the FX lock held by the keyword.
+     *
+     * @param session
+     *      The session of the keyword, null when the library runs without sessions
+     * @param call
+     *      The part of the keyword
+     * @return
+     *      The result of the call
+     */
+    public static <T> T bind(TestFxLibrarySession session, Supplier<T> call) {
+        TestFxLibrarySession previous = CURRENT.get();
+        if (session == previous) {
+            return call.get();
+        }
+        CURRENT.set(session);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Release the FX lock held by the current thread before blocking.
+     *
+     * @return
+     *      The number of holds released, to give to {@link #reacquireFxLock(int)}
+     */
+    public static int releaseFxLock() {
+        int holds = FX_LOCK.getHoldCount();
+        for (int i = 0; i < holds; i++) {
+            FX_LOCK.unlock();
+        }
+        return holds;
+    }
+
+    /**
+     * Take again the FX lock released by {@link #releaseFxLock()}.
+     *
+     * @param holds
+     *      The number of holds released
+     */
+    public static void reacquireFxLock(int holds) {
+        for (int i = 0; i < holds; i++) {
+            FX_LOCK.lock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the cache of the session.
+     *
+     * @return
+     *      The cache, in place of the cache shared when running without sessions
+     */
+    public TestFXLibraryCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Get the properties of the session.
+     *
+     * @return
+     *      The properties set in the session, over the properties of the library
+     */
+    Properties getProperties() {
+        return properties;
+    }
+
+    /**
+     * Get the keyword classes of the library of the session.
+     *
+     * @return
+     *      The holder, null when the keyword classes were created up front by a classpath scan
+     */
+    public TestFxLibraryKeywordClasses getKeywordClasses() {
+        return keywordClasses;
+    }
+
+    public void setKeywordClasses(TestFxLibraryKeywordClasses keywordClasses) {
+        this.keywordClasses = keywordClasses;
+    }
+
+    /**
+     * Get the robot of the session, creating it on first use. Its window and node finders only see the windows of
+     * the session.
+     *
+     * @return
+     *      The FxRobot of the session
+     */
+    public FxRobot getRobot() {
+        FxRobot current = robot;
+        if (current == null) {
+            synchronized (this) {
+                current = robot;
+                if (current == null) {
+                    current = new FxRobot();
+                    FxRobotContext context = current.robotContext();
+                    WindowFinder windowFinder = new SessionWindowFinder();
+                    context.setWindowFinder(windowFinder);
+                    context.setNodeFinder(new SessionNodeFinder(windowFinder));
+                    robot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Get the robot of the session if it was created.
+     *
+     * @return
+     *      The FxRobot of the session, null before its first use
+     */
+    FxRobot getCreatedRobot() {
+        return robot;
+    }
+
+    /**
+     * Discard the robot of the session. A new one is created on the next use.
+     */
+    public synchronized void resetRobot() {
+        robot = null;
+    }
+
+    /**
+     * Register a window opened by the session.
+     *
+     * @param window
+     *      The window
+     */
+    public void own(Window window) {
+        if (window != null) {
+            OWNERS.put(window, this);
+        }
+    }
+
+    /**
+     * Register a window of no session, e.g. the primary stage shared by the sessions.
+     *
+     * @param window
+     *      The window
+     */
+    public static void share(Window window) {
+        if (window != null) {
+            OWNERS.put(window, NO_SESSION);
+        }
+    }
+
+    /**
+     * Give the top level windows shown from now on to the session holding the FX lock, or the last one that held
+     * it, unless registered. Runs once, on the first start of an application in a session.
+     */
+    public static void watchWindows() {
+        synchronized (OWNERS) {
+            if (watching) {
+                return;
+            }
+            @SuppressWarnings("unchecked")
+            ObservableList<Window> windows = (ObservableList<Window>) TestFxLibrarySceneIndex.windowList();
+            if (windows != null) {
+                windows.addListener(WINDOWS_LISTENER);
+                watching = true;
+            }
+        }
+    }
+
+    private static void claim(Window window) {
+        TestFxLibrarySession session = fxLockSession;
+        if (session != null && ownerOf(window) == null) {
+            OWNERS.putIfAbsent(window, session);
+        }
+    }
+
+    /**
+     * Tell if a window belongs to the session.
+     *
+     * @param window
+     *      The window
+     * @return
+     *      true if the window, or the top level window owning it, belongs to the session
+     */
+    public boolean owns(Window window) {
+        Window root = window;
+        for (Window owner = ownerOf(root); owner != null; owner = ownerOf(owner)) {
+            root = owner;
+        }
+        return OWNERS.get(root) == this;
+    }
+
+    /**
+     * Get the showing windows of the session.
+     *
+     * @return
+     *      The windows, in the order of the JavaFX window list
+     */
+    public List<Window> getWindows() {
+        List<Window> windows = new ArrayList<>();
+        ObservableList<? extends Window> all = TestFxLibrarySceneIndex.windowList();
+        if (all != null) {
+            for (Window window : new ArrayList<>(all)) {
+                if (window.isShowing() && owns(window)) {
+                    windows.add(window);
+                }
+            }
+        }
+        return windows;
+    }
+
+    private static Window ownerOf(Window window) {
+        if (window instanceof Stage) {
+            return ((Stage) window).getOwner();
+        }
+        if (window instanceof PopupWindow) {
+            return ((PopupWindow) window).getOwnerWindow();
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Node finder walking the windows of the session, holding the FX lock. The queries of TestFX walk the scene graph
+     * when they are created, by the lookups.
+     */
+    private static final class SessionNodeFinder extends NodeFinderImpl {
+
+        SessionNodeFinder(WindowFinder windowFinder) {
+            super(windowFinder);
+        }
+
+        @Override
+        public NodeQuery lookup(String query) {
+            return withFxLock(() -> super.lookup(query));
+        }
+
+        @Override
+        public <T> NodeQuery lookup(Matcher<T> matcher) {
+            return withFxLock(() -> super.lookup(matcher));
+        }
+
+        @Override
+        public <T extends Node> NodeQuery lookup(Predicate<T> predicate) {
+            return withFxLock(() -> super.lookup(predicate));
+        }
+    }
+
+    /**
+     * Window finder listing the windows of the session only.
+     */
+    private final class SessionWindowFinder extends WindowFinderImpl {
+
+        @Override
+        public List<Window> listWindows() {
+            List<Window> windows = new ArrayList<>();
+            for (Window window : super.listWindows()) {
+                if (owns(window)) {
+                    windows.add(window);
+                }
+            }
+            return windows;
+        }
+
+        @Override
+        public List<Window> listTargetWindows() {
+            List<Window> windows = new ArrayList<>();
+            for (Window window : super.listTargetWindows()) {
+                if (owns(window)) {
+                    windows.add(window);
+                }
+            }
+            return windows;
+        }
+    }
+}
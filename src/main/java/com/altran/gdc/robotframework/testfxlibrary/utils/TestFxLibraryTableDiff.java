@@ -0,0 +1,235 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryNonFatalException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row and cell level comparison of a table snapshot with an expected dataset.
+ *
+ * The columns are matched by header. The rows are matched through a hash map of their key: the cell of the key column
+ * when one is given, otherwise the whole row. Without a key column a changed row is reported as one missing and one
+ * extra row, with a key column the differing cells of the matched rows are reported. Empty and null cells are equal.
+ * The result counts all the differences and lists the first {@link #SAMPLE_SIZE} of each kind.
+ */
+public final class TestFxLibraryTableDiff {
+
+    public static final int SAMPLE_SIZE = 10;
+
+    private static final char SEPARATOR = '\u001f';
+    private static final int NONE = -1;
+
+    private TestFxLibraryTableDiff() {
+    }
+
+    /**
+     * Compare the actual table with the expected dataset.
+     *
+     * @param expected
+     *      The expected dataset
+     * @param actual
+     *      The snapshot of the table
+     * @param keyColumn
+     *      The header or the index of the key column in the expected dataset, or null to match whole rows
+     * @return
+     *      The summary of the differences
+     */
+    public static Map<String, Object> compare(TestFxLibraryTableSnapshot expected, TestFxLibraryTableSnapshot actual,
+                                              String keyColumn) {
+        int[] mapping = mapColumns(expected, actual);
+        int key = keyColumn == null ? NONE : keyIndex(expected, keyColumn);
+        if (key != NONE && mapping[key] == NONE) {
+            throw new TestFxLibraryNonFatalException(String.format("The key column %s is not in the table",
+                    keyColumn));
+        }
+        String[][] expectedCells = expected.cells();
+        String[][] actualCells = actual.cells();
+
+        // First actual row of each key, the next rows of the same key are chained through next
+        int actualRows = actual.getRowCount();
+        Map<String, Integer> first = new HashMap<>(Math.max(16, (int) (actualRows / 0.75f) + 1));
+        int[] next = new int[actualRows];
+        for (int row = actualRows - 1; row >= 0; row--) {
+            Integer previous = first.put(rowKey(actualCells, row, key, mapping, true), row);
+            next[row] = previous == null ? NONE : previous;
+        }
+
+        boolean[] matched = new boolean[actualRows];
+        int matchedRows = 0;
+        int changedRows = 0;
+        int changedCells = 0;
+        List<Object> missing = new ArrayList<>();
+        List<Object> changed = new ArrayList<>();
+        int missingRows = 0;
+        for (int row = 0; row < expected.getRowCount(); row++) {
+            String rowKey = rowKey(expectedCells, row, key, mapping, false);
+            Integer match = first.get(rowKey);
+            if (match == null) {
+                missingRows++;
+                if (missing.size() < SAMPLE_SIZE) {
+                    missing.add(sampleRow(row, expected.getRow(row)));
+                }
+                continue;
+            }
+            if (next[match] == NONE) {
+                first.remove(rowKey);
+            } else {
+                first.put(rowKey, next[match]);
+            }
+            matched[match] = true;
+            matchedRows++;
+            if (key == NONE) {
+                continue;
+            }
+            int cells = 0;
+            for (int c = 0; c < mapping.length; c++) {
+                if (mapping[c] == NONE) {
+                    continue;
+                }
+                String expectedCell = normalize(expectedCells[c][row]);
+                String actualCell = normalize(actualCells[mapping[c]][match]);
+                if (!expectedCell.equals(actualCell)) {
+                    cells++;
+                    if (changed.size() < SAMPLE_SIZE) {
+                        changed.add(sampleCell(match, rowKey, expected.getHeader(c), expectedCell, actualCell));
+                    }
+                }
+            }
+            if (cells > 0) {
+                changedRows++;
+                changedCells += cells;
+            }
+        }
+
+        List<Object> extra = new ArrayList<>();
+        int extraRows = 0;
+        for (int row = 0; row < actualRows; row++) {
+            if (!matched[row]) {
+                extraRows++;
+                if (extra.size() < SAMPLE_SIZE) {
+                    extra.add(sampleRow(row, actual.getRow(row)));
+                }
+            }
+        }
+
+        List<String> missingColumns = new ArrayList<>();
+        for (int c = 0; c < mapping.length; c++) {
+            if (mapping[c] == NONE) {
+                missingColumns.add(normalize(expected.getHeader(c)));
+            }
+        }
+        List<String> extraColumns = new ArrayList<>();
+        boolean[] mapped = new boolean[actual.getColumnCount()];
+        for (int column : mapping) {
+            if (column != NONE) {
+                mapped[column] = true;
+            }
+        }
+        for (int c = 0; c < mapped.length; c++) {
+            if (!mapped[c]) {
+                extraColumns.add(normalize(actual.getHeader(c)));
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("identical", missingRows == 0 && extraRows == 0 && changedCells == 0 && missingColumns.isEmpty()
+                && extraColumns.isEmpty());
+        summary.put("expectedRows", expected.getRowCount());
+        summary.put("actualRows", actualRows);
+        summary.put("matchedRows", matchedRows);
+        summary.put("missingRows", missingRows);
+        summary.put("extraRows", extraRows);
+        summary.put("changedRows", changedRows);
+        summary.put("changedCells", changedCells);
+        summary.put("missingColumns", missingColumns);
+        summary.put("extraColumns", extraColumns);
+        summary.put("missing", missing);
+        summary.put("extra", extra);
+        summary.put("changed", changed);
+        return summary;
+    }
+
+    /**
+     * Map each expected column to the first unused actual column of the same header.
+     */
+    private static int[] mapColumns(TestFxLibraryTableSnapshot expected, TestFxLibraryTableSnapshot actual) {
+        int[] mapping = new int[expected.getColumnCount()];
+        boolean[] used = new boolean[actual.getColumnCount()];
+        for (int c = 0; c < mapping.length; c++) {
+            mapping[c] = NONE;
+            String header = normalize(expected.getHeader(c));
+            for (int a = 0; a < used.length; a++) {
+                if (!used[a] && header.equals(normalize(actual.getHeader(a)))) {
+                    used[a] = true;
+                    mapping[c] = a;
+                    break;
+                }
+            }
+        }
+        return mapping;
+    }
+
+    private static int keyIndex(TestFxLibraryTableSnapshot expected, String keyColumn) {
+        for (int c = 0; c < expected.getColumnCount(); c++) {
+            if (keyColumn.equals(normalize(expected.getHeader(c)))) {
+                return c;
+            }
+        }
+        try {
+            int index = Integer.parseInt(keyColumn);
+            if (index >= 0 && index < expected.getColumnCount()) {
+                return index;
+            }
+        } catch (NumberFormatException e) {
+            // Not an index either, reported below
+        }
+        throw new TestFxLibraryNonFatalException(String.format("The key column %s is not in the expected dataset %s",
+                keyColumn, expected.getHeaders()));
+    }
+
+    /**
+     * The key of a row: the key cell, or the cells of the mapped columns in the expected order.
+     */
+    private static String rowKey(String[][] cells, int row, int key, int[] mapping, boolean actual) {
+        if (key != NONE) {
+            return normalize(cells[actual ? mapping[key] : key][row]);
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int c = 0; c < mapping.length; c++) {
+            if (mapping[c] != NONE) {
+                builder.append(normalize(cells[actual ? mapping[c] : c][row])).append(SEPARATOR);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static Map<String, Object> sampleRow(int row, List<String> values) {
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("row", row);
+        List<String> cells = new ArrayList<>(values.size());
+        for (String value : values) {
+            cells.add(normalize(value));
+        }
+        sample.put("values", cells);
+        return sample;
+    }
+
+    private static Map<String, Object> sampleCell(int row, String key, String column, String expected,
+                                                  String actual) {
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("row", row);
+        sample.put("key", key);
+        sample.put("column", normalize(column));
+        sample.put("expected", expected);
+        sample.put("actual", actual);
+        return sample;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,407 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Files with the contents of a TableView: a header with the visible column names, then the cells as text.
+ *
+ * The table is read on the JavaFX application thread in chunks of rows and each chunk is written before the next one
+ * is read, so the memory used doesn't depend on the size of the table. Rows changed by the application while the file
+ * is written may be exported partly before and partly after the change.
+ *
+ * Two formats are available:
+ * <ul>
+ *     <li>CSV: RFC 4180, UTF-8, a header line then one line per row. Null cells are written empty and read back as
+ *     empty strings, a row of one empty cell is written as a quoted empty field. When read, a UTF-8 byte order mark is
+ *     skipped and so are the blank lines.</li>
+ *     <li>COLUMNAR: binary, big endian. The magic <i>TFXC</i>, a version byte, the column count and the column
+ *     names, then batches of rows, each one made of its row count and, column after column, the length of each cell
+ *     (-1 for null) followed by the UTF-8 bytes of the cells of the column. A batch with 0 rows and the total row count
+ *     end the file.</li>
+ * </ul>
+ */
+public final class TestFxLibraryTableFile {
+
+    /**
+     * The file formats.
+     */
+    public enum Format {
+        CSV,
+        COLUMNAR;
+
+        public static Format of(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format(
+                        "Unknown table file format %s, expected csv or columnar", name), e);
+            }
+        }
+    }
+
+    static final byte[] MAGIC = {'T', 'F', 'X', 'C'};
+    static final int VERSION = 1;
+    static final int NULL_LENGTH = -1;
+
+    private static final int CHUNK_ROWS = 2048;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private TestFxLibraryTableFile() {
+    }
+
+    /**
+     * Write the visible columns of the table to a file.
+     *
+     * @param table
+     *      The table
+     * @param path
+     *      The file, replaced if it exists
+     * @param format
+     *      The file format
+     * @return
+     *      The number of rows written
+     * @throws IOException
+     *      If the file can't be written
+     */
+    public static int write(TableView<?> table, Path path, Format format) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        String[] headers = TestFxLibraryFxThread.read(() -> headers(table));
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            return format == Format.CSV ? writeCsv(table, headers, out) : writeColumnar(table, headers, out);
+        }
+    }
+
+    /**
+     * Read a file written by {@link #write(TableView, Path, Format)}, or any CSV file with a header line. The format
+     * is detected from the first bytes of the file.
+     *
+     * @param path
+     *      The file
+     * @return
+     *      The headers and cells of the file
+     * @throws IOException
+     *      If the file can't be read or is not valid
+     */
+    public static TestFxLibraryTableSnapshot read(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            in.mark(MAGIC.length);
+            byte[] magic = new byte[MAGIC.length];
+            int read = in.read(magic);
+            in.reset();
+            return read == MAGIC.length && Arrays.equals(magic, MAGIC) ? readColumnar(in) : readCsv(in);
+        }
+    }
+
+    private static TestFxLibraryTableSnapshot readCsv(InputStream in) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        reader.mark(1);
+        if (reader.read() != BYTE_ORDER_MARK) {
+            reader.reset();
+        }
+        List<String> headers = readCsvRecord(reader);
+        if (headers == null) {
+            return TestFxLibraryTableSnapshot.of(new String[0], new String[0][]);
+        }
+        List<List<String>> columns = new ArrayList<>();
+        for (int c = 0; c < headers.size(); c++) {
+            columns.add(new ArrayList<>());
+        }
+        List<String> line;
+        while ((line = readCsvRecord(reader)) != null) {
+            for (int c = 0; c < columns.size(); c++) {
+                columns.get(c).add(c < line.size() ? line.get(c) : "");
+            }
+        }
+        String[][] cells = new String[columns.size()][];
+        for (int c = 0; c < cells.length; c++) {
+            cells[c] = columns.get(c).toArray(new String[0]);
+        }
+        return TestFxLibraryTableSnapshot.of(headers.toArray(new String[0]), cells);
+    }
+
+    /**
+     * Read the next record, skipping the blank lines.
+     *
+     * @return
+     *      The fields, or null at the end of the file
+     */
+    private static List<String> readCsvRecord(Reader reader) throws IOException {
+        List<String> fields;
+        do {
+            fields = readCsvLine(reader);
+        } while (fields != null && fields.isEmpty());
+        return fields;
+    }
+
+    /**
+     * Read one RFC 4180 record, quoted fields may span several lines.
+     *
+     * @return
+     *      The fields, empty for a blank line, or null at the end of the file
+     */
+    private static List<String> readCsvLine(Reader reader) throws IOException {
+        int ch = reader.read();
+        if (ch < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean blank = true;
+        while (ch >= 0) {
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next >= 0) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+                blank = false;
+            } else if (ch == ',') {
+                blank = false;
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\r' || ch == '\n') {
+                if (ch == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                break;
+            } else {
+                field.append((char) ch);
+                blank = false;
+            }
+            ch = reader.read();
+        }
+        if (!blank) {
+            fields.add(field.toString());
+        }
+        return fields;
+    }
+
+    private static TestFxLibraryTableSnapshot readColumnar(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        data.readFully(new byte[MAGIC.length]);
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException(String.format("Unsupported columnar table file version %d", version));
+        }
+        String[] headers = new String[data.readInt()];
+        for (int c = 0; c < headers.length; c++) {
+            headers[c] = readCell(data, readLength(data));
+        }
+        List<List<String>> columns = new ArrayList<>();
+        for (int c = 0; c < headers.length; c++) {
+            columns.add(new ArrayList<>());
+        }
+        int rows;
+        while ((rows = data.readInt()) > 0) {
+            int[] lengths = new int[rows];
+            for (List<String> column : columns) {
+                for (int r = 0; r < rows; r++) {
+                    lengths[r] = readLength(data);
+                }
+                for (int r = 0; r < rows; r++) {
+                    column.add(readCell(data, lengths[r]));
+                }
+            }
+        }
+        long total = data.readLong();
+        String[][] cells = new String[headers.length][];
+        for (int c = 0; c < cells.length; c++) {
+            cells[c] = columns.get(c).toArray(new String[0]);
+            if (cells[c].length != total) {
+                throw new IOException(String.format("Truncated columnar table file: %d rows of %d", cells[c].length,
+                        total));
+            }
+        }
+        return TestFxLibraryTableSnapshot.of(headers, cells);
+    }
+
+    private static int readLength(DataInputStream data) throws IOException {
+        int length = data.readInt();
+        if (length < NULL_LENGTH) {
+            throw new IOException(String.format("Invalid cell length %d in columnar table file", length));
+        }
+        return length;
+    }
+
+    private static String readCell(DataInputStream data, int length) throws IOException {
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int writeCsv(TableView<?> table, String[] headers, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvLine(writer, headers);
+        int rows = 0;
+        String[][] chunk;
+        while ((chunk = readChunk(table, headers.length, rows)) != null) {
+            int chunkRows = chunk.length == 0 ? 0 : chunk[0].length;
+            String[] line = new String[headers.length];
+            for (int r = 0; r < chunkRows; r++) {
+                for (int c = 0; c < line.length; c++) {
+                    line[c] = chunk[c][r];
+                }
+                writeCsvLine(writer, line);
+            }
+            rows += chunkRows;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsvLine(Writer writer, String[] values) throws IOException {
+        if (values.length == 1 && (values[0] == null || values[0].isEmpty())) {
+            // a blank line would be skipped when read
+            writer.write("\"\"\r\n");
+            return;
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                    || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static int writeColumnar(TableView<?> table, String[] headers, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(headers.length);
+        for (String header : headers) {
+            writeCell(data, header);
+        }
+        int rows = 0;
+        String[][] chunk;
+        while ((chunk = readChunk(table, headers.length, rows)) != null) {
+            int chunkRows = chunk.length == 0 ? 0 : chunk[0].length;
+            data.writeInt(chunkRows);
+            for (String[] column : chunk) {
+                byte[][] bytes = new byte[chunkRows][];
+                for (int r = 0; r < chunkRows; r++) {
+                    bytes[r] = column[r] == null ? null : column[r].getBytes(StandardCharsets.UTF_8);
+                    data.writeInt(bytes[r] == null ? NULL_LENGTH : bytes[r].length);
+                }
+                for (byte[] cell : bytes) {
+                    if (cell != null) {
+                        data.write(cell);
+                    }
+                }
+            }
+            rows += chunkRows;
+        }
+        data.writeInt(0);
+        data.writeLong(rows);
+        data.flush();
+        return rows;
+    }
+
+    private static void writeCell(DataOutputStream data, String value) throws IOException {
+        if (value == null) {
+            data.writeInt(NULL_LENGTH);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            data.writeInt(bytes.length);
+            data.write(bytes);
+        }
+    }
+
+    private static String[] headers(TableView<?> table) {
+        List<? extends TableColumn<?, ?>> columns = table.getVisibleLeafColumns();
+        String[] headers = new String[columns.size()];
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = columns.get(i).getText();
+        }
+        return headers;
+    }
+
+    /**
+     * Read the cells of the next rows, by column, on the JavaFX application thread.
+     *
+     * @return
+     *      The cells of the rows from <i>firstRow</i>, or null if there are no more rows
+     */
+    private static String[][] readChunk(TableView<?> table, int columnCount, int firstRow) {
+        return TestFxLibraryFxThread.read(() -> {
+            List<? extends TableColumn<?, ?>> columns = table.getVisibleLeafColumns();
+            int size = table.getItems() == null ? 0 : table.getItems().size();
+            if (columns.size() != columnCount) {
+                throw new IllegalStateException("The columns of the table changed during the export");
+            }
+            if (firstRow >= size || columnCount == 0) {
+                return null;
+            }
+            int rows = Math.min(CHUNK_ROWS, size - firstRow);
+            String[][] chunk = new String[columnCount][rows];
+            for (int r = 0; r < rows; r++) {
+                Object item = table.getItems().get(firstRow + r);
+                for (int c = 0; c < columnCount; c++) {
+                    chunk[c][r] = cellText(columns.get(c), item);
+                }
+            }
+            return chunk;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String cellText(TableColumn<?, ?> column, Object item) {
+        ObservableValue<?> value = ((TableColumn<Object, ?>) column).getCellObservableValue(item);
+        Object cell = value == null ? null : value.getValue();
+        return cell == null ? null : cell.toString();
+    }
+}
@@ -0,0 +1,267 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import java.lang.ref.WeakReference;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Text search in the cells of a TableView.
+ *
+ * The search is a full scan of the {@link TestFxLibraryTableSnapshot} of the table, split in chunks of rows scanned
+ * in parallel for large tables and stopping at the first match. An optional inverted index of the cell tokens of a
+ * table, kept current by a ListChangeListener on its items, answers the searches of a whole token without a scan.
+ * The index only proves a match: a text that is not an indexed token may still be part of a cell, so it is scanned.
+ */
+public final class TestFxLibraryTableSearch {
+
+    private static final int CHUNK_ROWS = 4096;
+    private static final int PARALLEL_THRESHOLD = 16384;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern SINGLE_TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private static final Map<TableView<?>, TokenIndex> INDEXES = new WeakHashMap<>();
+
+    private TestFxLibraryTableSearch() {
+    }
+
+    /**
+     * Check whether a cell of the table contains the text.
+     *
+     * @param table
+     *      The table
+     * @param text
+     *      The text to search
+     * @return
+     *      true if a cell contains the text
+     */
+    public static boolean contains(TableView<?> table, String text) {
+        if (SINGLE_TOKEN.matcher(text).matches()) {
+            TokenIndex index;
+            synchronized (INDEXES) {
+                index = INDEXES.get(table);
+            }
+            if (index != null && index.contains(text)) {
+                return true;
+            }
+        }
+        return contains(TestFxLibraryTableSnapshot.of(table), text);
+    }
+
+    /**
+     * Check whether a cell of the snapshot contains the text, scanning all the cells.
+     *
+     * @param snapshot
+     *      The table snapshot
+     * @param text
+     *      The text to search
+     * @return
+     *      true if a cell contains the text
+     */
+    public static boolean contains(TestFxLibraryTableSnapshot snapshot, String text) {
+        String[][] columns = snapshot.cells();
+        int rows = snapshot.getRowCount();
+        int chunksPerColumn = (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+        IntStream chunks = IntStream.range(0, chunksPerColumn * columns.length);
+        if ((long) rows * columns.length >= PARALLEL_THRESHOLD) {
+            chunks = chunks.parallel();
+        }
+        return chunks.anyMatch(chunk -> {
+            String[] column = columns[chunk / chunksPerColumn];
+            int from = (chunk % chunksPerColumn) * CHUNK_ROWS;
+            int to = Math.min(rows, from + CHUNK_ROWS);
+            for (int row = from; row < to; row++) {
+                String cell = column[row];
+                if (cell != null && cell.contains(text)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Build the token index of the table and keep it current until {@link #disableIndex(TableView)}.
+     *
+     * @param table
+     *      The table
+     */
+    public static void enableIndex(TableView<?> table) {
+        TestFxLibraryFxThread.read(() -> {
+            synchronized (INDEXES) {
+                INDEXES.computeIfAbsent(table, TokenIndex::new);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Drop the token index of the table.
+     *
+     * @param table
+     *      The table
+     */
+    public static void disableIndex(TableView<?> table) {
+        TestFxLibraryFxThread.read(() -> {
+            TokenIndex index;
+            synchronized (INDEXES) {
+                index = INDEXES.remove(table);
+            }
+            if (index != null) {
+                index.close(table);
+            }
+            return null;
+        });
+    }
+
+    private static Set<String> tokens(TableView<?> table, Object item) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (TableColumn<?, ?> column : table.getColumns()) {
+            Object value = cellValue(column, item);
+            if (value == null) {
+                continue;
+            }
+            for (String token : TOKEN_SEPARATOR.split(value.toString())) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object cellValue(TableColumn<?, ?> column, Object item) {
+        ObservableValue<?> value = ((TableColumn<Object, ?>) column).getCellObservableValue(item);
+        return value == null ? null : value.getValue();
+    }
+
+    /**
+     * Inverted index from the cell tokens to the number of items having them. Updated on the JavaFX application thread
+     * and read from any thread.
+     */
+    private static final class TokenIndex {
+
+        private final WeakReference<TableView<?>> table;
+        private final Map<String, Integer> counts = new ConcurrentHashMap<>();
+        private final Map<Object, Set<String>> itemTokens = new IdentityHashMap<>();
+
+        private final ListChangeListener<Object> itemsListener = this::itemsChanged;
+        private final InvalidationListener columnsListener = observable -> rebuild();
+        private final ChangeListener<ObservableList<Object>> itemsReplaced = (observable, oldItems, newItems) -> {
+            if (oldItems != null) {
+                oldItems.removeListener(itemsListener);
+            }
+            if (newItems != null) {
+                newItems.addListener(itemsListener);
+            }
+            rebuild();
+        };
+
+        TokenIndex(TableView<?> table) {
+            this.table = new WeakReference<>(table);
+            itemsProperty(table).addListener(itemsReplaced);
+            if (table.getItems() != null) {
+                itemsProperty(table).get().addListener(itemsListener);
+            }
+            table.getColumns().addListener(columnsListener);
+            rebuild();
+        }
+
+        boolean contains(String token) {
+            return counts.containsKey(token);
+        }
+
+        void close(TableView<?> table) {
+            itemsProperty(table).removeListener(itemsReplaced);
+            if (table.getItems() != null) {
+                itemsProperty(table).get().removeListener(itemsListener);
+            }
+            table.getColumns().removeListener(columnsListener);
+            counts.clear();
+            itemTokens.clear();
+        }
+
+        private void rebuild() {
+            counts.clear();
+            itemTokens.clear();
+            TableView<?> current = table.get();
+            if (current == null || current.getItems() == null) {
+                return;
+            }
+            for (Object item : current.getItems()) {
+                add(current, item);
+            }
+        }
+
+        private void itemsChanged(ListChangeListener.Change<?> change) {
+            TableView<?> current = table.get();
+            if (current == null) {
+                return;
+            }
+            while (change.next()) {
+                if (change.wasPermutated()) {
+                    continue;
+                }
+                if (change.wasUpdated()) {
+                    for (int i = change.getFrom(); i < change.getTo(); i++) {
+                        Object item = change.getList().get(i);
+                        remove(item);
+                        add(current, item);
+                    }
+                    continue;
+                }
+                for (Object item : change.getRemoved()) {
+                    remove(item);
+                }
+                for (Object item : change.getAddedSubList()) {
+                    add(current, item);
+                }
+            }
+        }
+
+        private void add(TableView<?> current, Object item) {
+            Set<String> tokens = tokens(current, item);
+            Set<String> previous = itemTokens.put(item, tokens);
+            if (previous != null) {
+                // The same item is more than once in the list: count it once
+                decrement(previous);
+            }
+            for (String token : tokens) {
+                counts.merge(token, 1, Integer::sum);
+            }
+        }
+
+        private void remove(Object item) {
+            Set<String> tokens = itemTokens.remove(item);
+            if (tokens != null) {
+                decrement(tokens);
+            }
+        }
+
+        private void decrement(Set<String> tokens) {
+            for (String token : tokens) {
+                counts.computeIfPresent(token, (key, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static ObjectProperty<ObservableList<Object>> itemsProperty(TableView<?> table) {
+            return ((TableView<Object>) table).itemsProperty();
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Immutable copy of the headers and cell values of a TableView, captured in one pass on the JavaFX application thread.
+ *
+ * The cells are stored by column, one String array per column of the table, so a column is read without touching the
+ * other columns. When reuse is enabled the snapshot of a table is kept until its items list, its items property or
+ * its columns change. Changes of the properties of an item are not seen: disable reuse when the tested application
+ * edits its items in place.
+ *
+ * The keywords reading only the counts, the headers, a row or a cell use the static readers, which read just that
+ * part of the table in one pass on the JavaFX application thread, or the kept snapshot when reuse is enabled.
+ */
+public final class TestFxLibraryTableSnapshot {
+
+    /**
+     * Property enabling the reuse of the snapshots across keywords.
+     */
+    public static final String REUSE = "TableSnapshotReuse";
+
+    private static final Map<TableView<?>, Reuse> REUSED = new WeakHashMap<>();
+
+    private final String[] headers;
+    private final String[][] columns;
+    private final int rowCount;
+
+    private TestFxLibraryTableSnapshot(String[] headers, String[][] columns, int rowCount) {
+        this.headers = headers;
+        this.columns = columns;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Get the snapshot of the table, reused if enabled and still valid.
+     *
+     * @param table
+     *      The table
+     * @return
+     *      The snapshot
+     */
+    public static TestFxLibraryTableSnapshot of(TableView<?> table) {
+        if (!isReuseEnabled()) {
+            return capture(table);
+        }
+        return TestFxLibraryFxThread.read(() -> {
+            Reuse reuse;
+            synchronized (REUSED) {
+                reuse = REUSED.computeIfAbsent(table, Reuse::new);
+            }
+            if (reuse.snapshot == null) {
+                reuse.snapshot = captureOnFxThread(table);
+            }
+            return reuse.snapshot;
+        });
+    }
+
+    /**
+     * Capture a new snapshot of the table.
+     *
+     * @param table
+     *      The table
+     * @return
+     *      The snapshot
+     */
+    public static TestFxLibraryTableSnapshot capture(TableView<?> table) {
+        return TestFxLibraryFxThread.read(() -> captureOnFxThread(table));
+    }
+
+    /**
+     * Capture a new snapshot of the visible leaf columns of the table, the columns showing cells, without the hidden
+     * columns and the parents of nested columns, as in the exported files.
+     *
+     * @param table
+     *      The table
+     * @return
+     *      The snapshot
+     */
+    public static TestFxLibraryTableSnapshot captureVisibleLeafColumns(TableView<?> table) {
+        return TestFxLibraryFxThread.read(() -> captureVisibleLeafColumnsOnFxThread(table));
+    }
+
+    private static <S> TestFxLibraryTableSnapshot captureVisibleLeafColumnsOnFxThread(TableView<S> table) {
+        return captureOnFxThread(table, table.getVisibleLeafColumns());
+    }
+
+    /**
+     * Create a snapshot from cells read elsewhere, e.g. from a file.
+     *
+     * @param headers
+     *      The column names
+     * @param columns
+     *      The cells by column, all of the same length
+     * @return
+     *      The snapshot
+     */
+    static TestFxLibraryTableSnapshot of(String[] headers, String[][] columns) {
+        return new TestFxLibraryTableSnapshot(headers, columns, columns.length == 0 ? 0 : columns[0].length);
+    }
+
+    /**
+     * Read the number of rows of the table.
+     */
+    public static int rowCount(TableView<?> table) {
+        if (isReuseEnabled()) {
+            return of(table).getRowCount();
+        }
+        return TestFxLibraryFxThread.read(() -> table.getItems() == null ? 0 : table.getItems().size());
+    }
+
+    /**
+     * Read the number of columns of the table.
+     */
+    public static int columnCount(TableView<?> table) {
+        if (isReuseEnabled()) {
+            return of(table).getColumnCount();
+        }
+        return TestFxLibraryFxThread.read(() -> columnsOf(table).size());
+    }
+
+    /**
+     * Read the column names of the table.
+     */
+    public static List<String> headers(TableView<?> table) {
+        if (isReuseEnabled()) {
+            return of(table).getHeaders();
+        }
+        return TestFxLibraryFxThread.read(() -> {
+            List<? extends TableColumn<?, ?>> tableColumns = columnsOf(table);
+            List<String> headers = new ArrayList<>(tableColumns.size());
+            for (TableColumn<?, ?> column : tableColumns) {
+                headers.add(column.getText());
+            }
+            return headers;
+        });
+    }
+
+    /**
+     * Read the values of a row of the table.
+     *
+     * @param table
+     *      The table
+     * @param row
+     *      The row index
+     * @return
+     *      The values of the row, by column
+     */
+    public static List<String> row(TableView<?> table, int row) {
+        if (isReuseEnabled()) {
+            return of(table).getRow(row);
+        }
+        return TestFxLibraryFxThread.read(() -> {
+            checkRow(table, row);
+            List<? extends TableColumn<?, ?>> tableColumns = columnsOf(table);
+            List<String> values = new ArrayList<>(tableColumns.size());
+            for (TableColumn<?, ?> column : tableColumns) {
+                values.add(cellOnFxThread(column, row));
+            }
+            return values;
+        });
+    }
+
+    /**
+     * Read the value of a cell of the table.
+     *
+     * @param table
+     *      The table
+     * @param row
+     *      The row index
+     * @param column
+     *      The column index
+     * @return
+     *      The value of the cell
+     */
+    public static String cell(TableView<?> table, int row, int column) {
+        if (isReuseEnabled()) {
+            return of(table).getCell(row, column);
+        }
+        return TestFxLibraryFxThread.read(() -> {
+            checkRow(table, row);
+            return cellOnFxThread(columnsOf(table).get(column), row);
+        });
+    }
+
+    public static boolean isReuseEnabled() {
+        return Boolean.parseBoolean(TestFxLibraryProperties.getProperty(REUSE, "false"));
+    }
+
+    /**
+     * Enable or disable the reuse of the snapshots. Disabling it discards all the kept snapshots.
+     *
+     * @param enabled
+     *      true to reuse the snapshots
+     */
+    public static void setReuseEnabled(boolean enabled) {
+        TestFxLibraryProperties.setProperty(REUSE, String.valueOf(enabled));
+        if (!enabled) {
+            TestFxLibraryFxThread.read(() -> {
+                synchronized (REUSED) {
+                    REUSED.forEach((table, reuse) -> reuse.close(table));
+                    REUSED.clear();
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * The columns read by the snapshots and the readers.
+     */
+    private static <S> List<TableColumn<S, ?>> columnsOf(TableView<S> table) {
+        return table.getColumns();
+    }
+
+    private static String cellOnFxThread(TableColumn<?, ?> column, int row) {
+        Object value = column.getCellData(row);
+        return value == null ? null : value.toString();
+    }
+
+    private static void checkRow(TableView<?> table, int row) {
+        int rowCount = table.getItems() == null ? 0 : table.getItems().size();
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException(String.format("Row %d out of %d rows", row, rowCount));
+        }
+    }
+
+    private static <S> TestFxLibraryTableSnapshot captureOnFxThread(TableView<S> table) {
+        return captureOnFxThread(table, columnsOf(table));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S> TestFxLibraryTableSnapshot captureOnFxThread(TableView<S> table,
+                                                                     List<TableColumn<S, ?>> tableColumns) {
+        List<S> items = table.getItems();
+        int rowCount = items == null ? 0 : items.size();
+
+        String[] headers = new String[tableColumns.size()];
+        String[][] columns = new String[tableColumns.size()][];
+        for (int c = 0; c < headers.length; c++) {
+            TableColumn<S, Object> column = (TableColumn<S, Object>) tableColumns.get(c);
+            headers[c] = column.getText();
+            String[] cells = new String[rowCount];
+            for (int r = 0; r < rowCount; r++) {
+                cells[r] = cellOnFxThread(column, r);
+            }
+            columns[c] = cells;
+        }
+        return new TestFxLibraryTableSnapshot(headers, columns, rowCount);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public List<String> getHeaders() {
+        return new ArrayList<>(Arrays.asList(headers));
+    }
+
+    public String getHeader(int column) {
+        return headers[column];
+    }
+
+    public String getCell(int row, int column) {
+        checkRow(row);
+        return columns[column][row];
+    }
+
+    public List<String> getColumn(int column) {
+        return new ArrayList<>(Arrays.asList(columns[column]));
+    }
+
+    public List<String> getRow(int row) {
+        checkRow(row);
+        List<String> values = new ArrayList<>(columns.length);
+        for (String[] column : columns) {
+            values.add(column[row]);
+        }
+        return values;
+    }
+
+    /**
+     * The cells by column, shared with the search. Must not be modified.
+     */
+    String[][] cells() {
+        return columns;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException(String.format("Row %d out of %d rows", row, rowCount));
+        }
+    }
+
+    /**
+     * The kept snapshot of a table and the listeners discarding it. Holds no reference to the table, so the table can
+     * be collected.
+     */
+    private static final class Reuse {
+
+        private volatile TestFxLibraryTableSnapshot snapshot;
+        private final InvalidationListener invalidate = observable -> snapshot = null;
+        private final ChangeListener<ObservableList<Object>> itemsReplaced = (observable, oldItems, newItems) -> {
+            if (oldItems != null) {
+                oldItems.removeListener(invalidate);
+            }
+            if (newItems != null) {
+                newItems.addListener(invalidate);
+            }
+            snapshot = null;
+        };
+
+        Reuse(TableView<?> table) {
+            itemsProperty(table).addListener(itemsReplaced);
+            if (table.getItems() != null) {
+                table.getItems().addListener(invalidate);
+            }
+            table.getColumns().addListener(invalidate);
+        }
+
+        void close(TableView<?> table) {
+            itemsProperty(table).removeListener(itemsReplaced);
+            if (table.getItems() != null) {
+                table.getItems().removeListener(invalidate);
+            }
+            table.getColumns().removeListener(invalidate);
+            snapshot = null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static ObjectProperty<ObservableList<Object>> itemsProperty(TableView<?> table) {
+            return ((TableView<Object>) table).itemsProperty();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Timeline of the keywords and of their lookups, waits, reads on the JavaFX application thread and screenshots, in the
+ * Chrome Trace Event format, to open in chrome://tracing or the Perfetto UI.
+ *
+ * The tracer is on with the system property <i>testfxlibrary.trace</i> giving the path of the trace file. The spans are
+ * recorded in a lock-free ring buffer of <i>testfxlibrary.trace.capacity</i> spans, 262144 by default, the oldest
+ * spans being overwritten, and written when Robot closes the library or the JVM exits.
+ */
+public final class TestFxLibraryTracer {
+
+    public static final String KEYWORD = "keyword";
+    public static final String LOOKUP = "lookup";
+    public static final String WAIT = "wait";
+    public static final String FX_THREAD = "fxThread";
+    public static final String RUN_LATER = "runLater";
+    public static final String SCREENSHOT = "screenshot";
+    public static final String ROBOT_INPUT = "robotInput";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TestFxLibraryTracer.class);
+
+    private static final String TRACE_PROPERTY = "testfxlibrary.trace";
+    private static final String CAPACITY_PROPERTY = "testfxlibrary.trace.capacity";
+    private static final int DEFAULT_CAPACITY = 1 << 18;
+
+    private static final String PATH = System.getProperty(TRACE_PROPERTY);
+    private static final Ring RING = PATH == null || PATH.isEmpty() ? null : new Ring(capacity());
+    private static final long ORIGIN = System.nanoTime();
+
+    private static final Map<Long, String> THREAD_NAMES = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Long> THREAD_ID = ThreadLocal.withInitial(() -> {
+        Thread thread = Thread.currentThread();
+        THREAD_NAMES.put(thread.getId(), thread.getName());
+        return thread.getId();
+    });
+    private static final AtomicBoolean WRITTEN = new AtomicBoolean();
+
+    static {
+        if (RING != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(TestFxLibraryTracer::write, "testfxlibrary-trace"));
+        }
+    }
+
+    private TestFxLibraryTracer() {
+    }
+
+    private static int capacity() {
+        int capacity = Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY);
+        // a power of two, to map the sequence numbers to slots with a mask
+        return Integer.highestOneBit(Math.max(2, Math.min(capacity, 1 << 30)));
+    }
+
+    public static boolean isEnabled() {
+        return RING != null;
+    }
+
+    /**
+     * Start a span.
+     *
+     * @return
+     *      The start to give to {@link #stop(String, String, long)}
+     */
+    public static long start() {
+        return RING == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Record a span ending now on the current thread. Its arguments show the keyword run on the current thread.
+     *
+     * @param category
+     *      The category of the span
+     * @param name
+     *      The name of the span
+     * @param start
+     *      The start given by {@link #start()}
+     */
+    public static void stop(String category, String name, long start) {
+        if (RING != null) {
+            stop(category, name, TestFxLibraryPollStatistics.getCurrentKeyword(), start);
+        }
+    }
+
+    /**
+     * Record a span ending now on the current thread, run for a keyword of another thread.
+     *
+     * @param category
+     *      The category of the span
+     * @param name
+     *      The name of the span
+     * @param keyword
+     *      The keyword shown in the arguments of the span
+     * @param start
+     *      The start given by {@link #start()}
+     */
+    public static void stop(String category, String name, String keyword, long start) {
+        if (RING != null) {
+            RING.record(category, name, keyword, start, System.nanoTime(), THREAD_ID.get());
+        }
+    }
+
+    /**
+     * Write the trace file, once.
+     */
+    public static void write() {
+        if (RING == null || !WRITTEN.compareAndSet(false, true)) {
+            return;
+        }
+        try (Writer out = Files.newBufferedWriter(Paths.get(PATH), StandardCharsets.UTF_8)) {
+            int spans = RING.write(out, THREAD_NAMES);
+            LOG.info("Wrote {} trace spans to {}", spans, PATH);
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Unable to write the trace to " + PATH, e);
+        }
+    }
+
+    /**
+     * Listener of Robot writing the trace when the library is closed.
+     */
+    public static final class Listener {
+
+        public static final int ROBOT_LISTENER_API_VERSION = 2;
+
+        public void close() {
+            write();
+        }
+    }
+
+    /**
+     * Ring buffer of complete spans. A writer claims a sequence number and stores its span, immutable, in the slot of
+     * that number, so the reader sees each slot either before or after a whole span is stored, and skips the spans
+     * overwritten by a later sequence number.
+     */
+    private static final class Ring {
+
+        private final int mask;
+        private final AtomicLong next = new AtomicLong();
+        private final AtomicReferenceArray<Span> spans;
+
+        Ring(int capacity) {
+            mask = capacity - 1;
+            spans = new AtomicReferenceArray<>(capacity);
+        }
+
+        void record(String category, String name, String keyword, long start, long end, long thread) {
+            long sequence = next.getAndIncrement();
+            spans.set((int) (sequence & mask), new Span(sequence, category, name, keyword, start, end, thread));
+        }
+
+        int write(Writer out, Map<Long, String> threadNames) throws IOException {
+            out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+            boolean first = true;
+            for (Map.Entry<Long, String> thread : threadNames.entrySet()) {
+                first = separate(out, first);
+                out.write("{\"ph\":\"M\",\"name\":\"thread_name\",\"pid\":1,\"tid\":" + thread.getKey()
+                        + ",\"args\":{\"name\":");
+                string(out, thread.getValue());
+                out.write("}}");
+            }
+            int written = 0;
+            long last = next.get();
+            for (long sequence = Math.max(0, last - mask - 1); sequence < last; sequence++) {
+                Span span = spans.get((int) (sequence & mask));
+                if (span == null || span.sequence != sequence) {
+                    // not stored yet, or overwritten since
+                    continue;
+                }
+                first = separate(out, first);
+                out.write("{\"ph\":\"X\",\"cat\":");
+                string(out, span.category);
+                out.write(",\"name\":");
+                string(out, span.name == null ? span.category : span.name);
+                out.write(",\"pid\":1,\"tid\":" + span.thread + ",\"ts\":" + micros(span.start - ORIGIN)
+                        + ",\"dur\":" + micros(span.end - span.start));
+                if (span.keyword != null) {
+                    out.write(",\"args\":{\"keyword\":");
+                    string(out, span.keyword);
+                    out.write('}');
+                }
+                out.write('}');
+                written++;
+            }
+            out.write("]}");
+            return written;
+        }
+
+        private static boolean separate(Writer out, boolean first) throws IOException {
+            if (!first) {
+                out.write(",\n");
+            }
+            return false;
+        }
+
+        private static double micros(long nanos) {
+            return nanos / 1000d;
+        }
+
+        private static void string(Writer out, String value) throws IOException {
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    out.write('\\');
+                    out.write(c);
+                } else if (c < 0x20) {
+                    out.write(String.format("\\u%04x", (int) c));
+                } else {
+                    out.write(c);
+                }
+            }
+            out.write('"');
+        }
+    }
+
+    /**
+     * A complete span, with the sequence number of its slot.
+     */
+    private static final class Span {
+
+        final long sequence;
+        final String category;
+        final String name;
+        final String keyword;
+        final long start;
+        final long end;
+        final long thread;
+
+        Span(long sequence, String category, String name, String keyword, long start, long end, long thread) {
+            this.sequence = sequence;
+            this.category = category;
+            this.name = name;
+            this.keyword = keyword;
+            this.start = start;
+            this.end = end;
+            this.thread = thread;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import javafx.beans.value.ChangeListener;
+import javafx.event.EventHandler;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeView;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Search of the TreeItem model of a TreeView, whether the items are expanded or not.
+ *
+ * The searches are iterative depth first or breadth first walks stopping at the first match, and path expressions
+ * such as <i>Root/Europe/Lisbon</i> follow one branch only. An item is found without expanding anything: only the
+ * keywords acting on the found item expand its ancestors. An optional index from the item text to the items of a
+ * TreeView is updated from the childrenModificationEvent and valueChangedEvent bubbling up to the root.
+ * All the methods must be called on the JavaFX application thread.
+ */
+public final class TestFxLibraryTreeTraversal {
+
+    /**
+     * The order of the walk of the tree.
+     */
+    public enum Order {
+        DEPTH, BREADTH;
+
+        public static Order of(String order) {
+            return valueOf(order.trim().toUpperCase());
+        }
+    }
+
+    private static final Pattern PATH_SEPARATOR = Pattern.compile("(?<!\\\\)/");
+
+    private static final Map<TreeView<?>, NameIndex> INDEXES = new WeakHashMap<>();
+
+    private TestFxLibraryTreeTraversal() {
+    }
+
+    /**
+     * Find the first item matching the predicate.
+     *
+     * @param root
+     *      The root of the walk, may be null
+     * @param match
+     *      The predicate
+     * @param order
+     *      The order of the walk
+     * @return
+     *      The first item found, or null
+     */
+    public static <T> TreeItem<T> find(TreeItem<T> root, Predicate<? super TreeItem<T>> match, Order order) {
+        if (root == null) {
+            return null;
+        }
+        Deque<TreeItem<T>> pending = new ArrayDeque<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            TreeItem<T> item = pending.poll();
+            if (match.test(item)) {
+                return item;
+            }
+            List<TreeItem<T>> children = item.getChildren();
+            if (order == Order.DEPTH) {
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    pending.push(children.get(i));
+                }
+            } else {
+                pending.addAll(children);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the first item of the TreeView with the text, through the index of the TreeView if enabled.
+     *
+     * @param treeView
+     *      The TreeView
+     * @param text
+     *      The text of the item
+     * @param order
+     *      The order of the walk. With an index, the indexed items with the text are ordered by their position in
+     *      the walk, so the same item is found with or without an index.
+     * @return
+     *      The first item found, or null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TreeItem<T> findByText(TreeView<T> treeView, String text, Order order) {
+        NameIndex index;
+        synchronized (INDEXES) {
+            index = INDEXES.get(treeView);
+        }
+        if (index != null) {
+            return (TreeItem<T>) index.first(treeView.getRoot(), text, order);
+        }
+        return find(treeView.getRoot(), item -> text.equals(textOf(item)), order);
+    }
+
+    /**
+     * Find the item at the end of a path of item texts separated by <i>/</i>, a <i>/</i> in a text is escaped as
+     * <i>\/</i>. The path starts with the text of the root, which may be left out.
+     *
+     * @param root
+     *      The root of the tree, may be null
+     * @param path
+     *      The path
+     * @return
+     *      The item found, or null
+     */
+    public static <T> TreeItem<T> findByPath(TreeItem<T> root, String path) {
+        if (root == null) {
+            return null;
+        }
+        String[] segments = PATH_SEPARATOR.split(path);
+        int first = 0;
+        if (unescape(segments[0]).equals(textOf(root))) {
+            if (segments.length == 1) {
+                return root;
+            }
+            first = 1;
+        }
+        TreeItem<T> current = root;
+        for (int s = first; s < segments.length && current != null; s++) {
+            String segment = unescape(segments[s]);
+            TreeItem<T> next = null;
+            for (TreeItem<T> child : current.getChildren()) {
+                if (segment.equals(textOf(child))) {
+                    next = child;
+                    break;
+                }
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    /**
+     * Expand the ancestors of the item so that it is shown, leaving the item itself as it is.
+     *
+     * @param item
+     *      The item
+     */
+    public static void expandAncestors(TreeItem<?> item) {
+        for (TreeItem<?> parent = item.getParent(); parent != null; parent = parent.getParent()) {
+            if (!parent.isExpanded()) {
+                parent.setExpanded(true);
+            }
+        }
+    }
+
+    /**
+     * Build the text index of the TreeView and keep it current until {@link #disableIndex(TreeView)}.
+     *
+     * @param treeView
+     *      The TreeView
+     */
+    public static void enableIndex(TreeView<?> treeView) {
+        synchronized (INDEXES) {
+            INDEXES.computeIfAbsent(treeView, NameIndex::new);
+        }
+    }
+
+    /**
+     * Drop the text index of the TreeView.
+     *
+     * @param treeView
+     *      The TreeView
+     */
+    public static void disableIndex(TreeView<?> treeView) {
+        NameIndex index;
+        synchronized (INDEXES) {
+            index = INDEXES.remove(treeView);
+        }
+        if (index != null) {
+            index.close(treeView);
+        }
+    }
+
+    /**
+     * The text of an item as compared by the searches.
+     */
+    public static String textOf(TreeItem<?> item) {
+        return String.valueOf(item.getValue());
+    }
+
+    private static String unescape(String segment) {
+        return segment.replace("\\/", "/");
+    }
+
+    /**
+     * Index from the item text to the items.
+     */
+    private static final class NameIndex {
+
+        private final Map<String, Set<TreeItem<?>>> items = new HashMap<>();
+        private final Map<TreeItem<?>, String> names = new IdentityHashMap<>();
+
+        private final EventHandler<TreeItem.TreeModificationEvent<Object>> childrenChanged = this::childrenChanged;
+        private final EventHandler<TreeItem.TreeModificationEvent<Object>> valueChanged = this::valueChanged;
+        private final ChangeListener<TreeItem<Object>> rootReplaced = this::rootReplaced;
+
+        @SuppressWarnings("unchecked")
+        NameIndex(TreeView<?> treeView) {
+            TreeView<Object> tree = (TreeView<Object>) treeView;
+            tree.rootProperty().addListener(rootReplaced);
+            rootReplaced(null, null, tree.getRoot());
+        }
+
+        @SuppressWarnings("unchecked")
+        void close(TreeView<?> treeView) {
+            TreeView<Object> tree = (TreeView<Object>) treeView;
+            tree.rootProperty().removeListener(rootReplaced);
+            rootReplaced(null, tree.getRoot(), null);
+        }
+
+        TreeItem<?> first(TreeItem<?> root, String text, Order order) {
+            Set<TreeItem<?>> found = items.get(text);
+            if (found == null) {
+                return null;
+            }
+            TreeItem<?> first = null;
+            int[] firstPosition = null;
+            for (TreeItem<?> item : found) {
+                int[] position = position(item, root);
+                if (position != null && (first == null || precedes(position, firstPosition, order))) {
+                    first = item;
+                    firstPosition = position;
+                }
+            }
+            return first;
+        }
+
+        private void rootReplaced(Object observable, TreeItem<Object> oldRoot, TreeItem<Object> newRoot) {
+            if (oldRoot != null) {
+                oldRoot.removeEventHandler(TreeItem.childrenModificationEvent(), childrenChanged);
+                oldRoot.removeEventHandler(TreeItem.valueChangedEvent(), valueChanged);
+            }
+            items.clear();
+            names.clear();
+            if (newRoot != null) {
+                newRoot.addEventHandler(TreeItem.childrenModificationEvent(), childrenChanged);
+                newRoot.addEventHandler(TreeItem.valueChangedEvent(), valueChanged);
+                addSubtree(newRoot);
+            }
+        }
+
+        private void childrenChanged(TreeItem.TreeModificationEvent<Object> event) {
+            for (TreeItem<Object> removed : event.getRemovedChildren()) {
+                removeSubtree(removed);
+            }
+            for (TreeItem<Object> added : event.getAddedChildren()) {
+                addSubtree(added);
+            }
+        }
+
+        private void valueChanged(TreeItem.TreeModificationEvent<Object> event) {
+            TreeItem<Object> item = event.getTreeItem();
+            if (names.containsKey(item)) {
+                remove(item);
+                add(item);
+            }
+        }
+
+        private void addSubtree(TreeItem<?> root) {
+            find(root, item -> {
+                add(item);
+                return false;
+            }, Order.DEPTH);
+        }
+
+        private void removeSubtree(TreeItem<?> root) {
+            find(root, item -> {
+                remove(item);
+                return false;
+            }, Order.DEPTH);
+        }
+
+        private void add(TreeItem<?> item) {
+            // The item may be indexed already, under another text if it was renamed while detached
+            remove(item);
+            String name = textOf(item);
+            names.put(item, name);
+            items.computeIfAbsent(name, key -> new LinkedHashSet<>()).add(item);
+        }
+
+        private void remove(TreeItem<?> item) {
+            String name = names.remove(item);
+            if (name == null) {
+                return;
+            }
+            Set<TreeItem<?>> named = items.get(name);
+            named.remove(item);
+            if (named.isEmpty()) {
+                items.remove(name);
+            }
+        }
+
+        /**
+         * The indexes of the item and of its ancestors in their parents, from the root down.
+         *
+         * @return
+         *      The position, or null if the item is not under the root
+         */
+        private static int[] position(TreeItem<?> item, TreeItem<?> root) {
+            Deque<Integer> indexes = new ArrayDeque<>();
+            TreeItem<?> current = item;
+            while (current != root) {
+                TreeItem<?> parent = current.getParent();
+                if (parent == null) {
+                    return null;
+                }
+                indexes.push(parent.getChildren().indexOf(current));
+                current = parent;
+            }
+            int[] position = new int[indexes.size()];
+            int i = 0;
+            for (int index : indexes) {
+                position[i++] = index;
+            }
+            return position;
+        }
+
+        /**
+         * Whether the walk in the order visits the item at position <i>a</i> before the item at position <i>b</i>:
+         * the depth first walk visits the items in the lexicographic order of their positions, the breadth first
+         * walk by depth first, then in this order.
+         */
+        private static boolean precedes(int[] a, int[] b, Order order) {
+            if (order == Order.BREADTH && a.length != b.length) {
+                return a.length < b.length;
+            }
+            for (int i = 0; i < Math.min(a.length, b.length); i++) {
+                if (a[i] != b[i]) {
+                    return a[i] < b[i];
+                }
+            }
+            return a.length < b.length;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryNonFatalException;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.Control;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.Labeled;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TreeView;
+import javafx.scene.text.Text;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Access to the rendered cells of the virtualized controls: TableView, ListView and TreeView.
+ *
+ * The control is scrolled to the index and laid out in the same JavaFX application thread hop, then the cell is taken
+ * from the VirtualFlow of the control skin, so only the cells of the visible rows exist and no scene lookup is needed.
+ * When the cell is not ready yet, e.g. the skin is not created, the read is repeated after each layout of the flow.
+ * VirtualFlow moved from com.sun.javafx.scene.control.skin to javafx.scene.control.skin in JavaFX 9, so its
+ * getVisibleCell method is called reflectively.
+ */
+public final class TestFxLibraryVirtualCells {
+
+    private static final String VIRTUAL_FLOW = ".virtual-flow";
+
+    private static volatile Method getVisibleCell;
+
+    private TestFxLibraryVirtualCells() {
+    }
+
+    /**
+     * Get the text rendered by the cell of a row of a ListView or a TreeView, waiting at most the generic timeout.
+     */
+    public static String getText(Control control, int index) {
+        return getText(control, index, genericPolicy());
+    }
+
+    /**
+     * Get the text rendered by a cell of a TableView, waiting at most the generic timeout.
+     */
+    public static String getText(TableView<?> table, int row, int column) {
+        return getText(table, row, column, genericPolicy());
+    }
+
+    /**
+     * Get the text rendered by the cell of a row of a ListView or a TreeView.
+     *
+     * @param control
+     *      The ListView or TreeView
+     * @param index
+     *      The index of the row, counting only the expanded items of a TreeView
+     * @param policy
+     *      The wait policy of the cell layout
+     * @return
+     *      The rendered text, empty if the cell has none
+     */
+    public static String getText(Control control, int index, TestFxLibraryWaitPolicy policy) {
+        return readCell(control, index, null, policy, TestFxLibraryVirtualCells::textOf);
+    }
+
+    /**
+     * Get the text rendered by a cell of a TableView.
+     *
+     * @param table
+     *      The table
+     * @param row
+     *      The index of the row
+     * @param column
+     *      The index of the column
+     * @param policy
+     *      The wait policy of the cell layout
+     * @return
+     *      The rendered text, empty if the cell has none
+     */
+    public static String getText(TableView<?> table, int row, int column, TestFxLibraryWaitPolicy policy) {
+        TableColumn<?, ?> tableColumn = TestFxLibraryFxThread.read(() -> {
+            if (column < 0 || column >= table.getColumns().size()) {
+                throw new TestFxLibraryNonFatalException(String.format("Column %d out of %d columns", column,
+                        table.getColumns().size()));
+            }
+            return table.getColumns().get(column);
+        });
+        return readCell(table, row, tableColumn, policy, TestFxLibraryVirtualCells::textOf);
+    }
+
+    /**
+     * Scroll the control to the row and get its rendered cell, waiting for its layout.
+     *
+     * @param control
+     *      The TableView, ListView or TreeView
+     * @param index
+     *      The index of the row
+     * @param column
+     *      The column of the cell for a TableView, null for the whole row
+     * @param policy
+     *      The wait policy of the cell layout
+     * @return
+     *      The cell
+     */
+    public static IndexedCell<?> getCell(Control control, int index, TableColumn<?, ?> column,
+                                         TestFxLibraryWaitPolicy policy) {
+        return readCell(control, index, column, policy, cell -> cell);
+    }
+
+    /**
+     * Read the cell in the JavaFX application thread hop that found it, so the cell is not reused for another row
+     * in between.
+     */
+    private static <T> T readCell(Control control, int index, TableColumn<?, ?> column, TestFxLibraryWaitPolicy policy,
+                                  Function<IndexedCell<?>, T> reader) {
+        int rows = TestFxLibraryFxThread.read(() -> rowCount(control));
+        if (index < 0 || index >= rows) {
+            throw new TestFxLibraryNonFatalException(String.format("Row %d out of %d rows", index, rows));
+        }
+        List<T> result = new ArrayList<>(1);
+        Node flow = TestFxLibraryFxThread.read(() -> {
+            scrollTo(control, index, column);
+            control.applyCss();
+            control.layout();
+            readFound(control, index, column, reader, result);
+            return control.lookup(VIRTUAL_FLOW);
+        });
+        if (!result.isEmpty()) {
+            return result.get(0);
+        }
+        boolean ready = TestFxLibraryWaitEngine.await(
+                () -> TestFxLibraryFxThread.read(() -> readFound(control, index, column, reader, result)),
+                policy, flow == null ? control.needsLayoutProperty() : ((Parent) flow).needsLayoutProperty());
+        if (!ready) {
+            throw new TestFxLibraryNonFatalException(String.format("The cell of row %d was not rendered in %d ms",
+                    index, policy.getTimeoutMillis()));
+        }
+        return result.get(0);
+    }
+
+    private static <T> boolean readFound(Control control, int index, TableColumn<?, ?> column,
+                                         Function<IndexedCell<?>, T> reader, List<T> result) {
+        IndexedCell<?> cell = findCell(control, index, column);
+        if (cell == null) {
+            return false;
+        }
+        result.clear();
+        result.add(reader.apply(cell));
+        return true;
+    }
+
+    private static TestFxLibraryWaitPolicy genericPolicy() {
+        int timeout = Integer.parseInt(TestFxLibraryProperties.getProperty(TimeoutConstants.GENERIC_TIMEOUT,
+                String.valueOf(TestFxLibraryConstants.DEFAULT_TIMEOUT)));
+        return TestFxLibraryWaitPolicy.ofSeconds(timeout);
+    }
+
+    private static int rowCount(Control control) {
+        if (control instanceof TableView) {
+            TableView<?> table = (TableView<?>) control;
+            return table.getItems() == null ? 0 : table.getItems().size();
+        }
+        if (control instanceof ListView) {
+            ListView<?> list = (ListView<?>) control;
+            return list.getItems() == null ? 0 : list.getItems().size();
+        }
+        if (control instanceof TreeView) {
+            return ((TreeView<?>) control).getExpandedItemCount();
+        }
+        throw new TestFxLibraryNonFatalException(String.format("%s is not a TableView, ListView or TreeView",
+                control.getClass().getSimpleName()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void scrollTo(Control control, int index, TableColumn<?, ?> column) {
+        if (control instanceof TableView) {
+            TableView<Object> table = (TableView<Object>) control;
+            table.scrollTo(index);
+            if (column != null) {
+                table.scrollToColumn((TableColumn<Object, ?>) column);
+            }
+        } else if (control instanceof ListView) {
+            ((ListView<?>) control).scrollTo(index);
+        } else {
+            ((TreeView<?>) control).scrollTo(index);
+        }
+    }
+
+    /**
+     * Find the laid out cell of the row, or of the column in the row, in the VirtualFlow of the control.
+     */
+    private static IndexedCell<?> findCell(Control control, int index, TableColumn<?, ?> column) {
+        Node flow = control.lookup(VIRTUAL_FLOW);
+        if (flow == null) {
+            return null;
+        }
+        IndexedCell<?> cell = visibleCell(flow, index);
+        if (cell == null || cell.getIndex() != index || cell.isNeedsLayout()) {
+            return null;
+        }
+        if (column == null) {
+            return cell;
+        }
+        for (Node child : cell.getChildrenUnmodifiable()) {
+            if (child instanceof TableCell && ((TableCell<?, ?>) child).getTableColumn() == column) {
+                return (TableCell<?, ?>) child;
+            }
+        }
+        return null;
+    }
+
+    private static IndexedCell<?> visibleCell(Node flow, int index) {
+        try {
+            Method method = getVisibleCell;
+            if (method == null || !method.getDeclaringClass().isInstance(flow)) {
+                method = flow.getClass().getMethod("getVisibleCell", int.class);
+                getVisibleCell = method;
+            }
+            return (IndexedCell<?>) method.invoke(flow, index);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new TestFxLibraryNonFatalException("The VirtualFlow of this JavaFX version is not supported", e);
+        } catch (InvocationTargetException e) {
+            throw new TestFxLibraryNonFatalException(e.getCause());
+        }
+    }
+
+    /**
+     * The text of the cell, or of the first Labeled or Text of its graphic when the cell has no text.
+     */
+    private static String textOf(IndexedCell<?> cell) {
+        if (cell.getText() != null && !cell.getText().isEmpty()) {
+            return cell.getText();
+        }
+        String text = graphicText(cell.getGraphic());
+        return text == null ? "" : text;
+    }
+
+    private static String graphicText(Node node) {
+        if (node instanceof Labeled && ((Labeled) node).getText() != null) {
+            return ((Labeled) node).getText();
+        }
+        if (node instanceof Text) {
+            return ((Text) node).getText();
+        }
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                String text = graphicText(child);
+                if (text != null) {
+                    return text;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,424 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import com.altran.gdc.robotframework.testfxlibrary.exceptions.TestFxLibraryNonFatalException;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Labeled;
+import javafx.scene.control.TextInputControl;
+import javafx.scene.text.Text;
+import javafx.stage.Window;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Waits driven by JavaFX observables instead of polling.
+ *
+ * The condition is checked once on the calling thread and returns at once when it already holds. Otherwise listeners
+ * are attached on the JavaFX application thread (the window list and the children of every Parent for presence, the
+ * visible, disabled and text properties of the node for state) and every change schedules a single re-check that
+ * completes a CompletableFuture as soon as the condition flips. Polls scheduled by the {@link TestFxLibraryPollScheduler}
+ * of the {@link TestFxLibraryWaitPolicy} cover the changes no listener can see, e.g. the text of a node found by a text
+ * query. Each wait is recorded in {@link TestFxLibraryPollStatistics}.
+ */
+public final class TestFxLibraryWaitEngine {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TestFxLibraryWaitEngine.class);
+
+    private TestFxLibraryWaitEngine() {
+    }
+
+    /**
+     * Wait until a node matching the identifier is in a showing window.
+     *
+     * @param identifier
+     *      The identifier of the node
+     * @param policy
+     *      The wait policy
+     * @return
+     *      The node found
+     */
+    public static Node waitUntilPresent(String identifier, TestFxLibraryWaitPolicy policy) {
+        Node[] found = new Node[1];
+        boolean present = await(() -> {
+            found[0] = lookupQuietly(identifier);
+            return found[0] != null;
+        }, policy, SceneWatch::new);
+        if (!present) {
+            throw new TestFxLibraryNonFatalException(String.format(
+                    "Element '%s' did not appear in %d ms", identifier, policy.getTimeoutMillis()));
+        }
+        return found[0];
+    }
+
+    /**
+     * Wait until a node matching the identifier is in a showing window, at most the generic timeout.
+     *
+     * @param identifier
+     *      The identifier of the node
+     * @return
+     *      The node found
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Node> T waitUntilPresent(String identifier) {
+        int timeout = Integer.parseInt(TestFxLibraryProperties.getProperty(TimeoutConstants.GENERIC_TIMEOUT,
+                String.valueOf(TestFxLibraryConstants.DEFAULT_TIMEOUT)));
+        return (T) waitUntilPresent(identifier, TestFxLibraryWaitPolicy.ofSeconds(timeout));
+    }
+
+    /**
+     * Wait until no node matching the identifier is in a showing window.
+     *
+     * @param identifier
+     *      The identifier of the node
+     * @param policy
+     *      The wait policy
+     */
+    public static void waitUntilAbsent(String identifier, TestFxLibraryWaitPolicy policy) {
+        boolean absent = await(() -> lookupQuietly(identifier) == null, policy, SceneWatch::new);
+        if (!absent) {
+            throw new TestFxLibraryNonFatalException(String.format(
+                    "Element '%s' did not disappear in %d ms", identifier, policy.getTimeoutMillis()));
+        }
+    }
+
+    /**
+     * Wait until the node matches. Same contract as WaitUntilSupport.waitUntil(node, matcher, timeout).
+     *
+     * @param node
+     *      The node to verify
+     * @param matcher
+     *      The condition on the node
+     * @param policy
+     *      The wait policy
+     */
+    public static void waitUntil(Node node, Matcher<? super Node> matcher, TestFxLibraryWaitPolicy policy) {
+        if (node == null) {
+            throw new NullPointerException("node is null");
+        }
+        if (!await(() -> matcher.matches(node), policy, stateObservables(node))) {
+            throw new TestFxLibraryNonFatalException(String.format("Condition '%s' not met by %s in %d ms",
+                    StringDescription.toString(matcher), node, policy.getTimeoutMillis()));
+        }
+    }
+
+    /**
+     * Wait until the condition holds, checking it again whenever one of the observables changes.
+     *
+     * @param condition
+     *      The condition, checked on the calling thread and on the JavaFX application thread
+     * @param policy
+     *      The wait policy
+     * @param observables
+     *      The observables the condition depends on
+     * @return
+     *      true if the condition holds, false if the timeout expired
+     */
+    public static boolean await(BooleanSupplier condition, TestFxLibraryWaitPolicy policy,
+                                Observable... observables) {
+        return await(condition, policy, onChange -> new PropertyWatch(onChange, observables));
+    }
+
+    /**
+     * Wait until the condition holds.
+     *
+     * @param condition
+     *      The condition, checked on the calling thread and on the JavaFX application thread
+     * @param policy
+     *      The wait policy
+     * @param watchFactory
+     *      Attaches, on the JavaFX application thread, the listeners calling the given callback on every change
+     * @return
+     *      true if the condition holds, false if the timeout expired
+     */
+    static boolean await(BooleanSupplier condition, TestFxLibraryWaitPolicy policy,
+                         Function<Runnable, Watch> watchFactory) {
+        TestFxLibraryFlightRecorder.WaitCondition event = TestFxLibraryFlightRecorder.waitCondition();
+        long start = System.nanoTime();
+        long traced = TestFxLibraryTracer.start();
+        long[] polls = new long[1];
+        LongAdder wakeUps = new LongAdder();
+        boolean satisfied = false;
+        try {
+            satisfied = awaitCondition(condition, policy, watchFactory, start, polls, wakeUps);
+            return satisfied;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            TestFxLibraryPollStatistics.record(polls[0], wakeUps.sum(), nanos, satisfied);
+            TestFxLibraryKeywordStatistics.record(TestFxLibraryPollStatistics.getCurrentKeyword(),
+                    TestFxLibraryKeywordStatistics.WAIT, nanos);
+            TestFxLibraryTracer.stop(TestFxLibraryTracer.WAIT, TestFxLibraryTracer.WAIT, traced);
+            if (event != null) {
+                event.finish(policy.getTimeoutMillis(), polls[0], wakeUps.sum(), satisfied);
+            }
+        }
+    }
+
+    private static boolean awaitCondition(BooleanSupplier condition, TestFxLibraryWaitPolicy policy,
+                                          Function<Runnable, Watch> watchFactory, long start, long[] polls,
+                                          LongAdder wakeUps) {
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(policy.getTimeoutMillis());
+        try {
+            if (policy.getPreDelayMillis() > 0) {
+                int holds = TestFxLibrarySession.releaseFxLock();
+                try {
+                    Thread.sleep(policy.getPreDelayMillis());
+                } finally {
+                    TestFxLibrarySession.reacquireFxLock(holds);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TestFxLibraryNonFatalException("Wait interrupted", e);
+        }
+        polls[0]++;
+        if (condition.getAsBoolean()) {
+            return true;
+        }
+
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        AtomicBoolean scheduled = new AtomicBoolean();
+        // the re-checks on the JavaFX application thread look up the nodes of the session of the wait
+        TestFxLibrarySession session = TestFxLibrarySession.current();
+        Runnable onChange = () -> {
+            // Coalesce a burst of changes into one check once the current event is processed
+            if (!done.isDone() && scheduled.compareAndSet(false, true)) {
+                Platform.runLater(() -> {
+                    scheduled.set(false);
+                    wakeUps.increment();
+                    if (!done.isDone() && TestFxLibrarySession.bind(session, () -> check(condition))) {
+                        done.complete(true);
+                    }
+                });
+            }
+        };
+
+        Watch[] watch = new Watch[1];
+        Platform.runLater(() -> {
+            if (!done.isDone()) {
+                watch[0] = watchFactory.apply(onChange);
+                // The condition may have flipped before the listeners were attached
+                onChange.run();
+            }
+        });
+
+        TestFxLibraryPollScheduler scheduler = policy.getPollScheduler();
+        try {
+            long delay = scheduler.initialDelayMillis();
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    polls[0]++;
+                    return check(condition);
+                }
+                Boolean flipped = null;
+                // The other sessions may drive the toolkit while this one is blocked
+                int holds = TestFxLibrarySession.releaseFxLock();
+                try {
+                    flipped = done.get(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(delay)),
+                            TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    // poll below
+                } finally {
+                    TestFxLibrarySession.reacquireFxLock(holds);
+                }
+                if (flipped != null) {
+                    return flipped;
+                }
+                polls[0]++;
+                if (check(condition)) {
+                    return true;
+                }
+                delay = scheduler.nextDelayMillis(delay);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TestFxLibraryNonFatalException("Wait interrupted", e);
+        } catch (ExecutionException e) {
+            throw new TestFxLibraryNonFatalException(e.getCause());
+        } finally {
+            done.complete(false);
+            Platform.runLater(() -> {
+                if (watch[0] != null) {
+                    watch[0].close();
+                }
+            });
+        }
+    }
+
+    private static boolean check(BooleanSupplier condition) {
+        try {
+            return condition.getAsBoolean();
+        } catch (RuntimeException e) {
+            LOG.debug("Wait condition failed, checking again on the next change", e);
+            return false;
+        }
+    }
+
+    private static Node lookupQuietly(String identifier) {
+        try {
+            return TestFxLibraryCommon.lookup(identifier);
+        } catch (RuntimeException e) {
+            // e.g. a position [x] past the nodes found so far
+            return null;
+        }
+    }
+
+    private static Observable[] stateObservables(Node node) {
+        List<Observable> observables = new ArrayList<>();
+        observables.add(node.visibleProperty());
+        observables.add(node.disabledProperty());
+        if (node instanceof Labeled) {
+            observables.add(((Labeled) node).textProperty());
+        } else if (node instanceof TextInputControl) {
+            observables.add(((TextInputControl) node).textProperty());
+        } else if (node instanceof Text) {
+            observables.add(((Text) node).textProperty());
+        }
+        return observables.toArray(new Observable[0]);
+    }
+
+    /**
+     * Listeners attached for the duration of a wait.
+     */
+    interface Watch {
+        void close();
+    }
+
+    /**
+     * Calls back on any change of the given observables.
+     */
+    private static final class PropertyWatch implements Watch {
+
+        private final Observable[] observables;
+        private final InvalidationListener listener;
+
+        PropertyWatch(Runnable onChange, Observable... observables) {
+            this.observables = observables;
+            this.listener = observable -> onChange.run();
+            for (Observable observable : observables) {
+                observable.addListener(listener);
+            }
+        }
+
+        @Override
+        public void close() {
+            for (Observable observable : observables) {
+                observable.removeListener(listener);
+            }
+        }
+    }
+
+    /**
+     * Calls back when a window is shown or hidden, a scene or root is replaced or a node is added or removed.
+     */
+    private static final class SceneWatch implements Watch {
+
+        private final Runnable onChange;
+        private final ObservableList<? extends Window> windows;
+        private final Set<Window> watchedWindows = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Set<Scene> watchedScenes = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Set<ObservableList<Node>> watchedChildren = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private final InvalidationListener windowListener = this::windowsChanged;
+        private final ListChangeListener<Node> childrenListener = this::childrenChanged;
+
+        SceneWatch(Runnable onChange) {
+            this.onChange = onChange;
+            this.windows = TestFxLibrarySceneIndex.windowList();
+            if (windows != null) {
+                windows.addListener(windowListener);
+                watchWindows();
+            }
+        }
+
+        private void windowsChanged(Observable observable) {
+            watchWindows();
+            onChange.run();
+        }
+
+        private void childrenChanged(ListChangeListener.Change<? extends Node> change) {
+            while (change.next()) {
+                for (Node node : change.getAddedSubList()) {
+                    watchTree(node);
+                }
+            }
+            onChange.run();
+        }
+
+        private void watchWindows() {
+            for (Window window : windows) {
+                if (watchedWindows.add(window)) {
+                    window.showingProperty().addListener(windowListener);
+                    window.sceneProperty().addListener(windowListener);
+                }
+                Scene scene = window.getScene();
+                if (scene != null) {
+                    if (watchedScenes.add(scene)) {
+                        scene.rootProperty().addListener(windowListener);
+                    }
+                    if (scene.getRoot() != null) {
+                        watchTree(scene.getRoot());
+                    }
+                }
+            }
+        }
+
+        private void watchTree(Node root) {
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                if (node instanceof Parent) {
+                    ObservableList<Node> children = ((Parent) node).getChildrenUnmodifiable();
+                    if (watchedChildren.add(children)) {
+                        children.addListener(childrenListener);
+                        for (Node child : children) {
+                            pending.push(child);
+                        }
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            if (windows != null) {
+                windows.removeListener(windowListener);
+            }
+            for (Window window : watchedWindows) {
+                window.showingProperty().removeListener(windowListener);
+                window.sceneProperty().removeListener(windowListener);
+            }
+            for (Scene scene : watchedScenes) {
+                scene.rootProperty().removeListener(windowListener);
+            }
+            for (ObservableList<Node> children : watchedChildren) {
+                children.removeListener(childrenListener);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable settings of one wait: timeout, poll schedule and pre-delay.
+ *
+ * A policy holds no state of a running wait, so the same instance can be shared by any number of keywords and
+ * sessions waiting in parallel. The <i>withXxx</i> methods return a modified copy.
+ */
+public final class TestFxLibraryWaitPolicy {
+
+    private static final long INITIAL_POLL_DELAY = 5;
+    private static final double POLL_BACKOFF = 2d;
+    private static final long MAX_POLL_DELAY = 250;
+
+    /**
+     * Default policy: {@link TestFxLibraryConstants#DEFAULT_TIMEOUT} seconds, polls from 5 ms doubling up to 250 ms,
+     * no pre-delay.
+     */
+    public static final TestFxLibraryWaitPolicy DEFAULT = new TestFxLibraryWaitPolicy(
+            TimeUnit.SECONDS.toMillis(TestFxLibraryConstants.DEFAULT_TIMEOUT),
+            TestFxLibraryPollScheduler.exponential(INITIAL_POLL_DELAY, POLL_BACKOFF, MAX_POLL_DELAY), 0);
+
+    private final long timeoutMillis;
+    private final TestFxLibraryPollScheduler pollScheduler;
+    private final long preDelayMillis;
+
+    private TestFxLibraryWaitPolicy(long timeoutMillis, TestFxLibraryPollScheduler pollScheduler,
+                                    long preDelayMillis) {
+        if (timeoutMillis < 0 || pollScheduler == null || preDelayMillis < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid wait policy: timeout=%d ms, poll=%s, preDelay=%d ms",
+                    timeoutMillis, pollScheduler, preDelayMillis));
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.pollScheduler = pollScheduler;
+        this.preDelayMillis = preDelayMillis;
+    }
+
+    /**
+     * Get the default policy with a timeout in seconds, as given to the keywords.
+     *
+     * @param timeout
+     *      The timeout in seconds
+     * @return
+     *      The policy
+     */
+    public static TestFxLibraryWaitPolicy ofSeconds(int timeout) {
+        return DEFAULT.withTimeout(timeout, TimeUnit.SECONDS);
+    }
+
+    public TestFxLibraryWaitPolicy withTimeout(long timeout, TimeUnit unit) {
+        return new TestFxLibraryWaitPolicy(unit.toMillis(timeout), pollScheduler, preDelayMillis);
+    }
+
+    public TestFxLibraryWaitPolicy withPollScheduler(TestFxLibraryPollScheduler scheduler) {
+        return new TestFxLibraryWaitPolicy(timeoutMillis, scheduler, preDelayMillis);
+    }
+
+    /**
+     * Set a fixed poll interval.
+     */
+    public TestFxLibraryWaitPolicy withPollInterval(long interval, TimeUnit unit) {
+        return withPollScheduler(TestFxLibraryPollScheduler.fixed(unit.toMillis(interval)));
+    }
+
+    public TestFxLibraryWaitPolicy withPreDelay(long delay, TimeUnit unit) {
+        return new TestFxLibraryWaitPolicy(timeoutMillis, pollScheduler, unit.toMillis(delay));
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public TestFxLibraryPollScheduler getPollScheduler() {
+        return pollScheduler;
+    }
+
+    public long getPreDelayMillis() {
+        return preDelayMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TestFxLibraryWaitPolicy)) {
+            return false;
+        }
+        TestFxLibraryWaitPolicy that = (TestFxLibraryWaitPolicy) o;
+        return timeoutMillis == that.timeoutMillis
+                && pollScheduler.equals(that.pollScheduler)
+                && preDelayMillis == that.preDelayMillis;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(timeoutMillis, pollScheduler, preDelayMillis);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WaitPolicy[timeout=%d ms, poll=%s, preDelay=%d ms]", timeoutMillis, pollScheduler,
+                preDelayMillis);
+    }
+}
@@ -507,6 +507,9 @@ public class FxApplicationUnitTest extends Application {
         emailCol2.setCellValueFactory(
                 new PropertyValueFactory<Person, String>("email")
         );
+        TableColumn hiddenCol2 = new TableColumn("Hidden");
+        hiddenCol2.setCellValueFactory(new PropertyValueFactory<Person, String>("firstName"));
+        hiddenCol2.setVisible(false);
         tableView1.getSelectionModel().setCellSelectionEnabled(true);
         tableView2.getSelectionModel().setCellSelectionEnabled(true);
 
@@ -515,7 +518,7 @@ public class FxApplicationUnitTest extends Application {
         tableView1.getColumns().addAll(firstNameCol, lastNameCol, emailCol);
         tableView2.setItems(data2);
         tableView2.setId("tableView2");
-        tableView2.getColumns().addAll(firstNameCol2, lastNameCol2, emailCol2);
+        tableView2.getColumns().addAll(firstNameCol2, lastNameCol2, emailCol2, hiddenCol2);
         tableView1.setPrefSize(TABLE_WIDTH, TABLE_HEIGHT);
         tableView2.setPrefSize(TABLE_WIDTH, TABLE_HEIGHT);
         tableView3.setId("tableView3");
@@ -0,0 +1,251 @@
+package com.altran.gdc.robotframework.testfxlibrary.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder implementation of the events of {@link TestFxLibraryFlightRecorder}, compiled by the <i>jfr</i>
+ * profile only, against the jdk.jfr module of JDK 11 or later, and loaded with the {@link java.util.ServiceLoader}.
+ */
+public final class TestFxLibraryJfrEvents implements TestFxLibraryFlightRecorder.Events {
+
+    private static final String CATEGORY = "TestFX Library";
+    private static final String PASS = "PASS";
+    private static final String FAIL = "FAIL";
+
+    // the types of the events, to check that an event is enabled before creating it
+    private static final EventType KEYWORD_EXECUTION = EventType.getEventType(KeywordExecution.class);
+    private static final EventType NODE_LOOKUP = EventType.getEventType(NodeLookup.class);
+    private static final EventType WAIT_CONDITION = EventType.getEventType(WaitCondition.class);
+    private static final EventType SCREEN_CAPTURE = EventType.getEventType(ScreenCapture.class);
+    private static final EventType FX_THREAD_HOP = EventType.getEventType(FxThreadHop.class);
+
+    @Override
+    public TestFxLibraryFlightRecorder.KeywordExecution keywordExecution() {
+        if (!KEYWORD_EXECUTION.isEnabled()) {
+            return null;
+        }
+        KeywordExecution event = new KeywordExecution();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public TestFxLibraryFlightRecorder.NodeLookup nodeLookup() {
+        if (!NODE_LOOKUP.isEnabled()) {
+            return null;
+        }
+        NodeLookup event = new NodeLookup();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public TestFxLibraryFlightRecorder.WaitCondition waitCondition() {
+        if (!WAIT_CONDITION.isEnabled()) {
+            return null;
+        }
+        WaitCondition event = new WaitCondition();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public TestFxLibraryFlightRecorder.ScreenCapture screenCapture() {
+        if (!SCREEN_CAPTURE.isEnabled()) {
+            return null;
+        }
+        ScreenCapture event = new ScreenCapture();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public TestFxLibraryFlightRecorder.FxThreadHop fxThreadHop() {
+        if (!FX_THREAD_HOP.isEnabled()) {
+            return null;
+        }
+        FxThreadHop event = new FxThreadHop();
+        event.begin();
+        event.beginNanos = System.nanoTime();
+        return event;
+    }
+
+    private static String outcome(boolean passed) {
+        return passed ? PASS : FAIL;
+    }
+
+    @Name("com.altran.gdc.robotframework.testfxlibrary.KeywordExecution")
+    @Label("Keyword Execution")
+    @Category(CATEGORY)
+    @Description("A keyword run by the library")
+    @StackTrace(false)
+    static final class KeywordExecution extends Event implements TestFxLibraryFlightRecorder.KeywordExecution {
+
+        @Label("Keyword")
+        String keyword;
+
+        @Label("Session")
+        String session;
+
+        @Label("Outcome")
+        String outcome;
+
+        @Override
+        public void finish(String keyword, String session, boolean passed) {
+            end();
+            if (shouldCommit()) {
+                this.keyword = keyword;
+                this.session = session;
+                this.outcome = outcome(passed);
+                commit();
+            }
+        }
+    }
+
+    @Name("com.altran.gdc.robotframework.testfxlibrary.NodeLookup")
+    @Label("Node Lookup")
+    @Category(CATEGORY)
+    @Description("A lookup of a node by its identifier")
+    @StackTrace(false)
+    static final class NodeLookup extends Event implements TestFxLibraryFlightRecorder.NodeLookup {
+
+        @Label("Keyword")
+        String keyword;
+
+        @Label("Identifier")
+        String identifier;
+
+        // the nodes matching the query: the nodes scanned are walked by TestFX and not counted
+        @Label("Matched Nodes")
+        @Description("Number of nodes matching the query, before the nth element is taken")
+        int matchedNodes;
+
+        @Label("Outcome")
+        @Description("FOUND, NOT FOUND or FAIL")
+        String outcome;
+
+        @Override
+        public void finish(String identifier, int matchedNodes, String outcome) {
+            end();
+            if (shouldCommit()) {
+                this.keyword = TestFxLibraryPollStatistics.getCurrentKeyword();
+                this.identifier = identifier;
+                this.matchedNodes = matchedNodes;
+                this.outcome = outcome;
+                commit();
+            }
+        }
+    }
+
+    @Name("com.altran.gdc.robotframework.testfxlibrary.WaitCondition")
+    @Label("Wait Condition")
+    @Category(CATEGORY)
+    @Description("A wait until a condition holds")
+    @StackTrace(false)
+    static final class WaitCondition extends Event implements TestFxLibraryFlightRecorder.WaitCondition {
+
+        @Label("Keyword")
+        String keyword;
+
+        @Label("Timeout")
+        @Timespan(Timespan.MILLISECONDS)
+        long timeout;
+
+        @Label("Polls")
+        long polls;
+
+        @Label("Wake Ups")
+        @Description("Checks of the condition after a change of a watched property")
+        long wakeUps;
+
+        @Label("Outcome")
+        String outcome;
+
+        @Override
+        public void finish(long timeoutMillis, long polls, long wakeUps, boolean satisfied) {
+            end();
+            if (shouldCommit()) {
+                this.keyword = TestFxLibraryPollStatistics.getCurrentKeyword();
+                this.timeout = timeoutMillis;
+                this.polls = polls;
+                this.wakeUps = wakeUps;
+                this.outcome = outcome(satisfied);
+                commit();
+            }
+        }
+    }
+
+    @Name("com.altran.gdc.robotframework.testfxlibrary.ScreenCapture")
+    @Label("Screen Capture")
+    @Category(CATEGORY)
+    @Description("A screenshot of the primary stage")
+    @StackTrace(false)
+    static final class ScreenCapture extends Event implements TestFxLibraryFlightRecorder.ScreenCapture {
+
+        @Label("Keyword")
+        String keyword;
+
+        @Label("Path")
+        String path;
+
+        @Label("Outcome")
+        String outcome;
+
+        @Override
+        public void finish(String path, boolean passed) {
+            end();
+            if (shouldCommit()) {
+                this.keyword = TestFxLibraryPollStatistics.getCurrentKeyword();
+                this.path = path;
+                this.outcome = outcome(passed);
+                commit();
+            }
+        }
+    }
+
+    @Name("com.altran.gdc.robotframework.testfxlibrary.FxThreadHop")
+    @Label("FX Thread Hop")
+    @Category(CATEGORY)
+    @Description("A read run on the JavaFX application thread and awaited by the keyword")
+    @StackTrace(false)
+    static final class FxThreadHop extends Event implements TestFxLibraryFlightRecorder.FxThreadHop {
+
+        @Label("Keyword")
+        String keyword;
+
+        @Label("Queue Time")
+        @Description("Time until the JavaFX application thread started the read")
+        @Timespan(Timespan.NANOSECONDS)
+        long queueTime;
+
+        @Label("Outcome")
+        String outcome;
+
+        private transient long beginNanos;
+        private transient volatile long startedNanos;
+
+        @Override
+        public void started() {
+            startedNanos = System.nanoTime();
+        }
+
+        @Override
+        public void finish(boolean passed) {
+            end();
+            if (shouldCommit()) {
+                long started = startedNanos;
+                this.keyword = TestFxLibraryPollStatistics.getCurrentKeyword();
+                this.queueTime = started == 0 ? 0 : started - beginNanos;
+                this.outcome = outcome(passed);
+                commit();
+            }
+        }
+    }
+}
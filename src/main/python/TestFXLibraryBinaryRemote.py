@@ -0,0 +1,193 @@
+"""Robot Framework client of the binary remote protocol of TestFXLibrary.
+
+Start the remote library with a binary listener, e.g. on port 8271:
+
+    java -cp "testFXLibrary.jar;testFxLibraryDemoApp.jar" TestFXLibrary --binary-port 8271
+
+and import this library in place of the Remote library:
+
+    *** Settings ***
+    Library    TestFXLibraryBinaryRemote.py    localhost:8271    WITH NAME    TestFXLibrary
+    Library    TestFXLibraryBinaryRemote.py    localhost:8271/session/0    WITH NAME    TestFXLibrary
+
+The keywords, their arguments, results and failures are the same as with the Remote library, only the encoding of
+the calls differs. See TestFxLibraryBinaryCodec for the encoding.
+"""
+
+import socket
+import struct
+import sys
+
+from robot.libraries.Remote import RemoteError
+
+MAGIC = b'TFXB'
+VERSION = 1
+
+if sys.version_info[0] >= 3:
+    text_type = str
+    binary_type = bytes
+    integer_types = (int,)
+else:
+    text_type = unicode  # noqa: F821
+    binary_type = str
+    integer_types = (int, long)  # noqa: F821
+
+
+class TestFXLibraryBinaryRemote(object):
+
+    ROBOT_LIBRARY_SCOPE = 'GLOBAL'
+
+    def __init__(self, uri='localhost:8271', timeout=None):
+        if '://' in uri:
+            uri = uri.split('://', 1)[1]
+        address, _, path = uri.partition('/')
+        host, _, port = address.partition(':')
+        self._address = (host or 'localhost', int(port or 8271))
+        self._path = '/' + path.rstrip('/')
+        self._timeout = float(timeout) if timeout else None
+        self._socket = None
+
+    def get_keyword_names(self):
+        return self._call('get_keyword_names')
+
+    def get_keyword_arguments(self, name):
+        return self._call('get_keyword_arguments', name)
+
+    def get_keyword_documentation(self, name):
+        return self._call('get_keyword_documentation', name)
+
+    def run_keyword(self, name, args, kwargs=None):
+        request = ['run_keyword', self._path, name, list(args)]
+        if kwargs:
+            request.append(dict(kwargs))
+        result = self._request(request)
+        output = result.get('output')
+        if output:
+            print(output)
+        if result.get('status') == 'PASS':
+            return result.get('return')
+        raise RemoteError(result.get('error', ''), result.get('traceback'), result.get('fatal', False),
+                          result.get('continuable', False))
+
+    def _call(self, method, *args):
+        result = self._request([method, self._path] + list(args))
+        if isinstance(result, dict) and result.get('status') == 'FAIL':
+            raise RuntimeError(result.get('error'))
+        return result
+
+    def _request(self, request):
+        connection = self._connect()
+        try:
+            payload = _encode(request)
+            connection.sendall(struct.pack('>i', len(payload)) + payload)
+            length, = struct.unpack('>i', _receive(connection, 4))
+            value, _ = _decode(_receive(connection, length), 0)
+            return value
+        except Exception:
+            self._close()
+            raise
+
+    def _connect(self):
+        if self._socket is None:
+            connection = socket.create_connection(self._address, self._timeout)
+            connection.setsockopt(socket.IPPROTO_TCP, socket.TCP_NODELAY, 1)
+            connection.sendall(MAGIC + struct.pack('>i', VERSION))
+            if _receive(connection, 8) != MAGIC + struct.pack('>i', VERSION):
+                connection.close()
+                raise RuntimeError('%s:%d is not a TestFXLibrary binary remote server' % self._address)
+            self._socket = connection
+        return self._socket
+
+    def _close(self):
+        if self._socket is not None:
+            self._socket.close()
+            self._socket = None
+
+
+def _receive(connection, length):
+    chunks = []
+    while length > 0:
+        chunk = connection.recv(min(length, 1 << 20))
+        if not chunk:
+            raise RuntimeError('The binary remote server closed the connection')
+        chunks.append(chunk)
+        length -= len(chunk)
+    return b''.join(chunks)
+
+
+def _encode(value):
+    parts = []
+    _encode_into(value, parts)
+    return b''.join(parts)
+
+
+def _encode_into(value, parts):
+    if value is None:
+        parts.append(b'N')
+    elif value is True:
+        parts.append(b'T')
+    elif value is False:
+        parts.append(b'F')
+    elif isinstance(value, integer_types):
+        if -2 ** 31 <= value < 2 ** 31:
+            parts.append(b'I' + struct.pack('>i', value))
+        else:
+            parts.append(b'L' + struct.pack('>q', value))
+    elif isinstance(value, float):
+        parts.append(b'D' + struct.pack('>d', value))
+    elif isinstance(value, bytearray) or binary_type is not str and isinstance(value, binary_type):
+        parts.append(b'B' + struct.pack('>i', len(value)) + bytes(value))
+    elif isinstance(value, dict):
+        parts.append(b'M' + struct.pack('>i', len(value)))
+        for key, item in value.items():
+            _encode_string(key, parts)
+            _encode_into(item, parts)
+    elif isinstance(value, (list, tuple)):
+        parts.append(b'A' + struct.pack('>i', len(value)))
+        for item in value:
+            _encode_into(item, parts)
+    else:
+        _encode_string(value, parts)
+
+
+def _encode_string(value, parts):
+    if not isinstance(value, text_type):
+        value = text_type(value)
+    utf8 = value.encode('UTF-8')
+    parts.append(b'S' + struct.pack('>i', len(utf8)) + utf8)
+
+
+def _decode(data, offset):
+    tag = data[offset:offset + 1]
+    offset += 1
+    if tag == b'N':
+        return None, offset
+    if tag == b'T':
+        return True, offset
+    if tag == b'F':
+        return False, offset
+    if tag == b'I':
+        return struct.unpack_from('>i', data, offset)[0], offset + 4
+    if tag == b'L':
+        return struct.unpack_from('>q', data, offset)[0], offset + 8
+    if tag == b'D':
+        return struct.unpack_from('>d', data, offset)[0], offset + 8
+    count, = struct.unpack_from('>i', data, offset)
+    offset += 4
+    if tag == b'S':
+        return data[offset:offset + count].decode('UTF-8'), offset + count
+    if tag == b'B':
+        return data[offset:offset + count], offset + count
+    if tag == b'A':
+        items = []
+        for _ in range(count):
+            item, offset = _decode(data, offset)
+            items.append(item)
+        return items, offset
+    if tag == b'M':
+        items = {}
+        for _ in range(count):
+            key, offset = _decode(data, offset)
+            items[key], offset = _decode(data, offset)
+        return items, offset
+    raise RuntimeError('Invalid value tag %r' % tag)